@@ -0,0 +1,50 @@
+package io.jenkins.tools.pluginmodernizer.benchmarks;
+
+import io.jenkins.tools.pluginmodernizer.core.utils.CSVUtils;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of the installation stats, shaped like the CSV of the infrastructure statistics
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CSVUtilsBenchmark {
+
+    /**
+     * Number of plugins of the stats
+     */
+    @Param({"2000"})
+    public int plugins;
+
+    private String data;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < plugins; i++) {
+            builder.append("\"plugin-").append(i).append("\",\"").append(i * 37).append("\"\n");
+        }
+        data = builder.toString();
+    }
+
+    @Benchmark
+    public Map<String, Integer> parseStats() {
+        return CSVUtils.parseStats(data);
+    }
+}
@@ -0,0 +1,109 @@
+package io.jenkins.tools.pluginmodernizer.benchmarks;
+
+import io.jenkins.tools.pluginmodernizer.core.extractor.MetadataFlag;
+import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import io.jenkins.tools.pluginmodernizer.core.model.JDK;
+import io.jenkins.tools.pluginmodernizer.core.model.UpdateCenterData;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read and write of a small JSON entry (plugin metadata) and a large compact JSON entry (update center)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheManagerBenchmark {
+
+    /**
+     * Number of plugins of the update center entry
+     */
+    @Param({"2000"})
+    public int plugins;
+
+    private Path location;
+    private CacheManager cacheManager;
+    private PluginMetadata metadata;
+    private UpdateCenterData updateCenterData;
+
+    @Setup
+    public void setup() throws IOException {
+        location = Files.createTempDirectory("plugin-modernizer-cache-benchmark");
+        cacheManager = new CacheManager(location);
+        cacheManager.init();
+
+        metadata = new PluginMetadata(cacheManager);
+        metadata.setPluginName("benchmark");
+        metadata.setJenkinsVersion("2.479.3");
+        metadata.setJdks(Set.of(JDK.JAVA_17, JDK.JAVA_21));
+        metadata.setFlags(Set.of(MetadataFlag.SCM_HTTPS, MetadataFlag.LICENSE_SET, MetadataFlag.DEVELOPER_SET));
+        metadata.setProperties(Map.of("jenkins.baseline", "2.479", "jenkins.version", "${jenkins.baseline}.3"));
+        cacheManager.put(metadata);
+
+        Map<String, UpdateCenterData.UpdateCenterPlugin> updateCenterPlugins = new HashMap<>();
+        for (int i = 0; i < plugins; i++) {
+            String name = "plugin-" + i;
+            updateCenterPlugins.put(
+                    name,
+                    new UpdateCenterData.UpdateCenterPlugin(
+                            name,
+                            "1." + i,
+                            "https://github.com/jenkinsci/" + name + "-plugin",
+                            "main",
+                            "io.jenkins.plugins:" + name + ":1." + i,
+                            List.of("misc", "library")));
+        }
+        updateCenterData = new UpdateCenterData(cacheManager);
+        updateCenterData.setPlugins(updateCenterPlugins);
+        updateCenterData.setDeprecations(Map.of());
+        cacheManager.put(updateCenterData);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(location.toFile());
+    }
+
+    @Benchmark
+    public PluginMetadata getMetadata() {
+        return cacheManager.get(cacheManager.root(), CacheManager.PLUGIN_METADATA_CACHE_KEY, PluginMetadata.class);
+    }
+
+    @Benchmark
+    public void putMetadata() {
+        cacheManager.put(metadata);
+    }
+
+    @Benchmark
+    public UpdateCenterData getUpdateCenter() {
+        return cacheManager.get(cacheManager.root(), CacheManager.UPDATE_CENTER_CACHE_KEY, UpdateCenterData.class);
+    }
+
+    @Benchmark
+    public void putUpdateCenter() {
+        cacheManager.put(updateCenterData);
+    }
+}
@@ -0,0 +1,78 @@
+package io.jenkins.tools.pluginmodernizer.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+/**
+ * Fixtures shared by benchmarks. Read from the resources of the module so benchmarks run offline
+ */
+final class Fixtures {
+
+    private Fixtures() {
+        // Hide constructor
+    }
+
+    /**
+     * Return the POM of an old plugin with precondition errors
+     * @return The POM content
+     */
+    static String pom() {
+        return read("plugin-pom.xml");
+    }
+
+    /**
+     * Return the Jenkinsfile of a plugin built on Linux and Windows
+     * @return The Jenkinsfile content
+     */
+    static String jenkinsfile() {
+        return read("Jenkinsfile");
+    }
+
+    /**
+     * Write the POM fixture as pom.xml of a new temporary directory
+     * @return The POM file
+     * @throws IOException If the file cannot be written
+     */
+    static Path writePom() throws IOException {
+        Path directory = Files.createTempDirectory("plugin-modernizer-benchmark");
+        return Files.writeString(directory.resolve("pom.xml"), pom());
+    }
+
+    /**
+     * Parse the POM fixture like plugins are parsed before metadata collection
+     * @return The DOM of the POM
+     */
+    static Document pomDocument() {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            return factory.newDocumentBuilder().parse(new InputSource(new StringReader(pom())));
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to parse plugin-pom.xml fixture", e);
+        }
+    }
+
+    /**
+     * Read a fixture from the resources of the module
+     * @param name The name of the fixture
+     * @return The content of the fixture
+     */
+    private static String read(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing " + name + " fixture");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read " + name + " fixture", e);
+        }
+    }
+}
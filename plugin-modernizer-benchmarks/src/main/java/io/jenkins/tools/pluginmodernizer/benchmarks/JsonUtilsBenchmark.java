@@ -0,0 +1,69 @@
+package io.jenkins.tools.pluginmodernizer.benchmarks;
+
+import io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Semantic comparison and merge of JSON documents shaped like the metadata files
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonUtilsBenchmark {
+
+    /**
+     * Number of top level keys of the documents
+     */
+    @Param({"20", "200"})
+    public int keys;
+
+    private String json;
+    private String reorderedJson;
+    private String otherJson;
+
+    @Setup
+    public void setup() {
+        List<String> entries = new ArrayList<>();
+        List<String> otherEntries = new ArrayList<>();
+        for (int i = 0; i < keys; i++) {
+            entries.add(entry(i, "value" + i));
+            otherEntries.add(entry(i + keys / 2, "other" + i));
+        }
+        json = "{" + String.join(",", entries) + "}";
+        otherJson = "{" + String.join(",", otherEntries) + "}";
+        Collections.reverse(entries);
+        reorderedJson = "{" + String.join(",", entries) + "}";
+    }
+
+    private static String entry(int index, String value) {
+        return "\"key" + index + "\":{\"value\":\"" + value + "\",\"flags\":[\"SCM_HTTPS\",\"LICENSE_SET\"],"
+                + "\"properties\":{\"jenkins.version\":\"2.479.3\",\"java.level\":\"8\"}}";
+    }
+
+    @Benchmark
+    public boolean equalsReordered() {
+        return JsonUtils.equals(json, reorderedJson);
+    }
+
+    @Benchmark
+    public String merge() {
+        return JsonUtils.merge(json, otherJson);
+    }
+}
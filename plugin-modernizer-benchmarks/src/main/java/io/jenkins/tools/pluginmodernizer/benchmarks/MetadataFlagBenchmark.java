@@ -0,0 +1,71 @@
+package io.jenkins.tools.pluginmodernizer.benchmarks;
+
+import io.jenkins.tools.pluginmodernizer.core.extractor.MetadataFlag;
+import io.jenkins.tools.pluginmodernizer.core.extractor.MetadataXmlTag;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Evaluation of all metadata flags on every tag of a plugin POM, as done by the POM property visitor
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetadataFlagBenchmark {
+
+    private final List<MetadataXmlTag> tags = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        tags.clear();
+        toMetadataXmlTag(Fixtures.pomDocument().getDocumentElement());
+    }
+
+    /**
+     * Convert an element like the POM property visitor converts OpenRewrite tags, and collect all tags
+     */
+    private MetadataXmlTag toMetadataXmlTag(Element element) {
+        MetadataXmlTag tag = new MetadataXmlTag();
+        tag.setName(element.getLocalName());
+        List<MetadataXmlTag> children = new ArrayList<>();
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element childElement) {
+                children.add(toMetadataXmlTag(childElement));
+            }
+        }
+        tag.setChildren(children);
+        tag.setValue(children.isEmpty() ? Optional.of(element.getTextContent().trim()) : Optional.empty());
+        tags.add(tag);
+        return tag;
+    }
+
+    @Benchmark
+    public int isApplicable() {
+        int flags = 0;
+        for (MetadataXmlTag tag : tags) {
+            for (MetadataFlag flag : MetadataFlag.values()) {
+                if (flag.isApplicable(tag)) {
+                    flags++;
+                }
+            }
+        }
+        return flags;
+    }
+}
@@ -0,0 +1,80 @@
+package io.jenkins.tools.pluginmodernizer.benchmarks;
+
+import io.jenkins.tools.pluginmodernizer.core.extractor.ArchetypeCommonFileVisitor;
+import io.jenkins.tools.pluginmodernizer.core.extractor.JenkinsfileVisitor;
+import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
+import io.jenkins.tools.pluginmodernizer.core.extractor.PomPropertyVisitor;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.groovy.GroovyParser;
+import org.openrewrite.xml.XmlParser;
+import org.openrewrite.xml.tree.Xml;
+
+/**
+ * Metadata visitors over already parsed sources. Parsing is done once in the setup, so only the visits are measured
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetadataVisitorsBenchmark {
+
+    private SourceFile jenkinsfile;
+    private Xml.Document pom;
+
+    @Setup
+    public void setup() {
+        ExecutionContext ctx = new InMemoryExecutionContext(e -> {
+            throw new IllegalStateException("Unable to parse benchmark fixtures", e);
+        });
+        jenkinsfile = GroovyParser.builder()
+                .build()
+                .parse(ctx, Fixtures.jenkinsfile())
+                .findFirst()
+                .orElseThrow()
+                .withSourcePath(Path.of("Jenkinsfile"));
+        // Parsed as plain XML because resolving the parent POM would need the network
+        pom = (Xml.Document) XmlParser.builder()
+                .build()
+                .parse(ctx, Fixtures.pom())
+                .findFirst()
+                .orElseThrow()
+                .withSourcePath(Path.of("pom.xml"));
+    }
+
+    @Benchmark
+    public PluginMetadata jenkinsfileVisitor() {
+        return new JenkinsfileVisitor().reduce(jenkinsfile, new PluginMetadata());
+    }
+
+    @Benchmark
+    public PluginMetadata pomPropertyVisitor() {
+        PluginMetadata metadata = new PluginMetadata();
+        // Visit the root tag below the document so the visitor doesn't require a Maven resolution result
+        new PomPropertyVisitor().visit(pom.getRoot(), metadata, new Cursor(new Cursor(null, Cursor.ROOT_VALUE), pom));
+        return metadata;
+    }
+
+    @Benchmark
+    public PluginMetadata archetypeCommonFileVisitor() {
+        PluginMetadata metadata = new PluginMetadata();
+        new ArchetypeCommonFileVisitor().reduce(jenkinsfile, metadata);
+        return new ArchetypeCommonFileVisitor().reduce(pom, metadata);
+    }
+}
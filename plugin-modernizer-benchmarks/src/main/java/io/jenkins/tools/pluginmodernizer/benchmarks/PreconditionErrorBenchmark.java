@@ -0,0 +1,49 @@
+package io.jenkins.tools.pluginmodernizer.benchmarks;
+
+import io.jenkins.tools.pluginmodernizer.core.model.PreconditionError;
+import java.util.concurrent.TimeUnit;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+/**
+ * Detection of all precondition errors on a plugin POM, as done before each metadata collection
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreconditionErrorBenchmark {
+
+    private Document document;
+    private XPath xpath;
+
+    @Setup
+    public void setup() {
+        document = Fixtures.pomDocument();
+        xpath = XPathFactory.newInstance().newXPath();
+    }
+
+    @Benchmark
+    public int isApplicable() {
+        int errors = 0;
+        for (PreconditionError error : PreconditionError.values()) {
+            if (error.isApplicable(document, xpath)) {
+                errors++;
+            }
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,58 @@
+package io.jenkins.tools.pluginmodernizer.benchmarks;
+
+import io.jenkins.tools.pluginmodernizer.core.utils.StaticPomParser;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Static parsing of a plugin POM and lookup of the values used before metadata collection
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StaticPomParserBenchmark {
+
+    private Path pom;
+    private StaticPomParser parser;
+
+    @Setup
+    public void setup() throws IOException {
+        pom = Fixtures.writePom();
+        parser = new StaticPomParser(pom.toString());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(pom.getParent().toFile());
+    }
+
+    @Benchmark
+    public StaticPomParser parse() {
+        return new StaticPomParser(pom.toString());
+    }
+
+    @Benchmark
+    public void lookup(Blackhole blackhole) {
+        blackhole.consume(parser.getPackaging());
+        blackhole.consume(parser.getJenkinsVersion());
+        blackhole.consume(parser.getBaseline());
+        blackhole.consume(parser.getArtifactId());
+    }
+}
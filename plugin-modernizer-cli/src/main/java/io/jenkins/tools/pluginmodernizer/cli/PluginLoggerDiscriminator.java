@@ -3,38 +3,74 @@ package io.jenkins.tools.pluginmodernizer.cli;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.sift.AbstractDiscriminator;
 import io.jenkins.tools.pluginmodernizer.cli.options.GlobalOptions;
-import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Marker;
 
+/**
+ * Route log events to the log file of the plugin given by their first marker.
+ * Log files are resolved once per plugin and cached, so routing an event does not allocate.
+ * The cache is dropped when the cache path of the global options changes.
+ */
 public class PluginLoggerDiscriminator extends AbstractDiscriminator<ILoggingEvent> {
 
+    /**
+     * Log files resolved for a cache path
+     */
+    private volatile Routes routes;
+
     @Override
     public String getDiscriminatingValue(ILoggingEvent iLoggingEvent) {
+        Routes current = routes();
         List<Marker> markers = iLoggingEvent.getMarkerList();
-
-        Config.Builder builder = Config.builder();
-        GlobalOptions globalOptions = GlobalOptions.getInstance();
-        globalOptions.config(builder);
-        Config config = builder.build();
-
-        String cachePath = config.getCachePath().toString();
-
         if (markers == null || markers.isEmpty()) {
-            return Path.of(cachePath, "modernizer.logs").toString();
+            return current.defaultLogFile();
         }
-
-        final Marker marker = markers.get(0);
-        String markerName = marker.getName();
-        Plugin plugin = Plugin.build(markerName);
-
-        return Path.of(cachePath, plugin.getLogFile().toString()).toString();
+        return current.logFile(markers.get(0).getName());
     }
 
     @Override
     public String getKey() {
         return "filename";
     }
+
+    /**
+     * Get the routes for the current cache path
+     * @return The routes
+     */
+    private Routes routes() {
+        Path cachePath = GlobalOptions.getInstance().getCachePath();
+        Routes current = routes;
+        // The resolved cache path is the same instance until the option changes
+        if (current == null || current.cachePath() != cachePath) {
+            current = new Routes(cachePath);
+            routes = current;
+        }
+        return current;
+    }
+
+    /**
+     * Log files of plugins under a cache path
+     * @param cachePath The cache path
+     * @param defaultLogFile The log file of events without plugin
+     * @param logFiles The log files by plugin name
+     */
+    private record Routes(Path cachePath, String defaultLogFile, Map<String, String> logFiles) {
+
+        private Routes(Path cachePath) {
+            this(cachePath, cachePath.resolve("modernizer.logs").toString(), new ConcurrentHashMap<>());
+        }
+
+        private String logFile(String pluginName) {
+            String logFile = logFiles.get(pluginName);
+            if (logFile != null) {
+                return logFile;
+            }
+            return logFiles.computeIfAbsent(
+                    pluginName, name -> cachePath.resolve(Plugin.build(name).getLogFile()).toString());
+        }
+    }
 }
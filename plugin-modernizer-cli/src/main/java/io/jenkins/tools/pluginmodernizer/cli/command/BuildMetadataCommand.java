@@ -40,6 +40,15 @@ public class BuildMetadataCommand implements ICommand {
             description = "Path to the authentication key for GitHub. Default to ~/.ssh/id_rsa")
     private Path sshPrivateKey = Settings.SSH_PRIVATE_KEY;
 
+    /**
+     * Extract metadata in process instead of running Maven
+     */
+    @CommandLine.Option(
+            names = {"--static-metadata"},
+            description =
+                    "Extract metadata by parsing the plugin sources in process instead of running Maven. Falls back to Maven when the POM cannot be resolved.")
+    private boolean staticMetadata = false;
+
     /**
      * Global options for all commands
      */
@@ -61,6 +70,7 @@ public class BuildMetadataCommand implements ICommand {
         }
         pluginOptions.config(builder);
         return builder.withSshPrivateKey(sshPrivateKey)
+                .withStaticMetadata(staticMetadata)
                 .withRecipe(Settings.FETCH_METADATA_RECIPE)
                 .build();
     }
@@ -74,6 +74,19 @@ public class RunCommand implements ICommand {
             defaultValue = "SKIP")
     private Config.DuplicatePrStrategy duplicatePrStrategy;
 
+    @CommandLine.Option(
+            names = {"--verification-mode"},
+            description =
+                    "Tests run to verify plugins after modernization: FULL, AFFECTED or AFFECTED_THEN_FULL. Default: FULL.",
+            defaultValue = "FULL")
+    private Config.VerificationMode verificationMode;
+
+    @CommandLine.Option(
+            names = {"--verify-jdk-matrix"},
+            description =
+                    "Also verify modernized plugins with the other JDKs of their Jenkinsfile, concurrently with the main verification.")
+    private boolean verifyJdkMatrix;
+
     /**
      * Environment options
      */
@@ -107,6 +120,8 @@ public class RunCommand implements ICommand {
                 .withSkipMetadata(skipMetadata)
                 .withOverrideOptOutPlugins(overrideOptOutPlugins)
                 .withDuplicatePrStrategy(duplicatePrStrategy)
+                .withVerificationMode(verificationMode)
+                .withVerifyJdkMatrix(verifyJdkMatrix)
                 .build();
     }
 
@@ -5,6 +5,9 @@ import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import picocli.CommandLine;
 
 /**
@@ -50,6 +53,11 @@ public class GlobalOptions implements IOption {
             description = "Path to the cache directory.")
     private Path cachePath = Settings.DEFAULT_CACHE_PATH;
 
+    /**
+     * Cache path resolved once per value of the option, so the plugin log routing does not allocate on each event
+     */
+    private volatile ResolvedCachePath resolvedCachePath;
+
     @CommandLine.Option(
             names = {"--maven-home"},
             description = "Path to the Maven Home directory.")
@@ -60,22 +68,141 @@ public class GlobalOptions implements IOption {
             description = "Path to the Maven local repository.")
     private Path mavenLocalRepo = Settings.DEFAULT_MAVEN_LOCAL_REPO;
 
+    @CommandLine.Option(
+            names = {"--parallelism"},
+            description = "Number of plugins processed concurrently. Default: 1 (sequential).")
+    private int parallelism = 1;
+
+    @CommandLine.Option(
+            names = {"--max-concurrent-fetches"},
+            description = "Maximum number of concurrent git fetches across plugins. Default: 8.")
+    private int maxConcurrentFetches = 8;
+
+    @CommandLine.Option(
+            names = {"--max-concurrent-builds"},
+            description = "Maximum number of concurrent Maven builds across plugins. Default: 2.")
+    private int maxConcurrentBuilds = 2;
+
+    @CommandLine.Option(
+            names = {"--max-concurrent-github-calls"},
+            description = "Maximum number of concurrent GitHub operations across plugins. Default: 4.")
+    private int maxConcurrentGithubCalls = 4;
+
+    @CommandLine.Option(
+            names = {"--max-concurrent-jdk-builds"},
+            description = "Maximum number of concurrent builds verifying the JDK matrix of plugins with --verify-jdk-matrix. Default: 2.")
+    private int maxConcurrentJdkBuilds = 2;
+
+    @CommandLine.Option(
+            names = {"--maven-daemon"},
+            description = "Run Maven goals on a warm Maven daemon (mvnd) when available. Falls back to forked Maven otherwise.")
+    private boolean mavenDaemon = false;
+
+    @CommandLine.Option(
+            names = {"--shared-git-objects"},
+            description = "Borrow git objects of plugin repositories from shared mirrors in the cache instead of cloning each repository standalone.")
+    private boolean sharedGitObjects = false;
+
+    @CommandLine.Option(
+            names = {"--shallow-clone"},
+            description = "Clone plugin repositories with a depth of 1. Cannot be combined with --shared-git-objects.")
+    private boolean shallowClone = false;
+
+    @CommandLine.Option(
+            names = {"--skip-bulk-repository-lookup"},
+            description = "Resolve plugin repositories one by one with REST calls instead of in bulk with GraphQL.")
+    private boolean skipBulkRepositoryLookup = false;
+
+    @CommandLine.Option(
+            names = {"--skip-stale-while-revalidate"},
+            description = "Wait for expired datasets to be downloaded again instead of refreshing them in the background.")
+    private boolean skipStaleWhileRevalidate = false;
+
+    @CommandLine.Option(
+            names = {"--max-stale"},
+            description = "Maximum time an expired dataset is used while being refreshed in the background, as an ISO-8601 duration. Datasets expired for longer are downloaded again before use. Default: PT24H.")
+    private Duration maxStale = Duration.ofDays(1);
+
+    @CommandLine.Option(
+            names = {"--cache-ttl"},
+            description = "Time to live of a cache entry as <key>=<ISO-8601 duration>, for example health-score.json=PT12H. Can be repeated.")
+    private Map<String, Duration> cacheTimeToLives = new LinkedHashMap<>();
+
+    @CommandLine.Option(
+            names = {"--skip-jdk-prefetch"},
+            description = "Download JDKs only when a plugin build needs them instead of upfront in the background.")
+    private boolean skipJdkPrefetch = false;
+
+    @CommandLine.Option(
+            names = {"--metrics-port"},
+            description = "Serve metrics of the run in Prometheus format on http://localhost:<port>/metrics. Default: disabled.")
+    private int metricsPort = 0;
+
+    @CommandLine.Option(
+            names = {"--metrics-file"},
+            description = "Write metrics of the run to this JSON file every 30 seconds and at the end of the run.")
+    private Path metricsFile;
+
+    @CommandLine.Option(
+            names = {"--skip-build-cache"},
+            description = "Always run compile and verify builds, even if the same build already succeeded for the plugin revision.")
+    private boolean skipBuildCache = false;
+
     /**
      * Create a new config build for the global options
      */
     @Override
     public void config(Config.Builder builder) {
         Config.setDebug(debug);
+        if (shallowClone && sharedGitObjects) {
+            throw new ModernizerException(
+                    "--shallow-clone cannot be combined with --shared-git-objects, which already downloads each repository only once.");
+        }
         builder.withVersion(getVersion())
-                .withCachePath(
-                        !cachePath.endsWith(Settings.CACHE_SUBDIR)
-                                ? cachePath.resolve(Settings.CACHE_SUBDIR)
-                                : cachePath)
+                .withCachePath(getCachePath())
                 .withMavenHome(mavenHome)
                 .withMavenLocalRepo(mavenLocalRepo)
-                .withAllowDeprecatedPlugins(allowDeprecatedPlugins);
+                .withAllowDeprecatedPlugins(allowDeprecatedPlugins)
+                .withParallelism(parallelism)
+                .withMaxConcurrentFetches(maxConcurrentFetches)
+                .withMaxConcurrentBuilds(maxConcurrentBuilds)
+                .withMaxConcurrentGithubCalls(maxConcurrentGithubCalls)
+                .withMaxConcurrentJdkBuilds(maxConcurrentJdkBuilds)
+                .withMavenDaemon(mavenDaemon)
+                .withSharedGitObjects(sharedGitObjects)
+                .withShallowClone(shallowClone)
+                .withBulkRepositoryLookup(!skipBulkRepositoryLookup)
+                .withStaleWhileRevalidate(!skipStaleWhileRevalidate)
+                .withMaxStale(maxStale)
+                .withCacheTimeToLives(cacheTimeToLives)
+                .withJdkPrefetch(!skipJdkPrefetch)
+                .withMetricsPort(metricsPort)
+                .withMetricsFile(metricsFile)
+                .withBuildCache(!skipBuildCache);
     }
 
+    /**
+     * Get the cache path, ending with the cache subdirectory
+     * @return The cache path
+     */
+    public Path getCachePath() {
+        ResolvedCachePath current = resolvedCachePath;
+        if (current == null || current.option() != cachePath) {
+            Path resolved =
+                    !cachePath.endsWith(Settings.CACHE_SUBDIR) ? cachePath.resolve(Settings.CACHE_SUBDIR) : cachePath;
+            current = new ResolvedCachePath(cachePath, resolved);
+            resolvedCachePath = current;
+        }
+        return current.resolved();
+    }
+
+    /**
+     * Cache path resolved from the value of the option
+     * @param option The value of the option
+     * @param resolved The cache path ending with the cache subdirectory
+     */
+    private record ResolvedCachePath(Path option, Path resolved) {}
+
     /**
      * Get the version from the pom.properties
      * @return Version string
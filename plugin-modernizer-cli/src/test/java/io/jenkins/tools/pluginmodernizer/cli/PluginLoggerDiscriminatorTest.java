@@ -1,6 +1,8 @@
 package io.jenkins.tools.pluginmodernizer.cli;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -65,6 +67,24 @@ public class PluginLoggerDiscriminatorTest {
         assertEquals(expectedValue, discriminatingValue);
     }
 
+    @Test
+    void testGetDiscriminatingValueIsCachedByMarker() {
+        PluginLoggerDiscriminator discriminator = new PluginLoggerDiscriminator();
+        ILoggingEvent event = mock(ILoggingEvent.class);
+        Marker marker = mock(Marker.class);
+        when(marker.getName()).thenReturn("testMarker");
+        when(event.getMarkerList()).thenReturn(Collections.singletonList(marker));
+        ILoggingEvent otherEvent = mock(ILoggingEvent.class);
+        Marker otherMarker = mock(Marker.class);
+        when(otherMarker.getName()).thenReturn("otherMarker");
+        when(otherEvent.getMarkerList()).thenReturn(Collections.singletonList(otherMarker));
+
+        String discriminatingValue = discriminator.getDiscriminatingValue(event);
+        assertSame(discriminatingValue, discriminator.getDiscriminatingValue(event));
+        assertNotEquals(discriminatingValue, discriminator.getDiscriminatingValue(otherEvent));
+        assertSame(discriminatingValue, discriminator.getDiscriminatingValue(event));
+    }
+
     @Test
     void testGetKey() {
         PluginLoggerDiscriminator discriminator = new PluginLoggerDiscriminator();
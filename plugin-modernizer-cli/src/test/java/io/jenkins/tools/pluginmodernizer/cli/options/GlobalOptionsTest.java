@@ -2,13 +2,21 @@ package io.jenkins.tools.pluginmodernizer.cli.options;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
 import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.commons.util.ReflectionUtils;
+import picocli.CommandLine;
 
 public class GlobalOptionsTest {
 
@@ -67,4 +75,46 @@ public class GlobalOptionsTest {
                 config.getCachePath(),
                 "Cache path should be custom");
     }
+
+    @Test
+    public void testResolvedCachePathIsReused() {
+        GlobalOptions globalOptions = GlobalOptions.getInstance();
+        new CommandLine(globalOptions).parseArgs("--cache-path", "custom-cache");
+        Path cachePath = globalOptions.getCachePath();
+        assertEquals(Path.of("custom-cache", "jenkins-plugin-modernizer-cli"), cachePath);
+        assertSame(cachePath, globalOptions.getCachePath());
+
+        new CommandLine(globalOptions).parseArgs("--cache-path", "other-cache");
+        assertEquals(Path.of("other-cache", "jenkins-plugin-modernizer-cli"), globalOptions.getCachePath());
+    }
+
+    @Test
+    public void testCacheExpirationOptions() {
+        GlobalOptions globalOptions = GlobalOptions.getInstance();
+        new CommandLine(globalOptions)
+                .parseArgs("--max-stale", "PT2H", "--cache-ttl", "health-score.json=PT12H", "--cache-ttl=foo.json=P2D");
+        Config.Builder builder = Config.builder();
+        globalOptions.config(builder);
+
+        Config config = builder.build();
+        assertEquals(Duration.ofHours(2), config.getMaxStale());
+        assertEquals(
+                Map.of("health-score.json", Duration.ofHours(12), "foo.json", Duration.ofDays(2)),
+                config.getCacheTimeToLives());
+    }
+
+    @Test
+    public void testShallowCloneWithSharedGitObjects() throws Exception {
+        GlobalOptions globalOptions = GlobalOptions.getInstance();
+        for (String name : List.of("shallowClone", "sharedGitObjects")) {
+            Field field = ReflectionUtils.findFields(
+                            GlobalOptions.class,
+                            f -> f.getName().equals(name),
+                            ReflectionUtils.HierarchyTraversalMode.TOP_DOWN)
+                    .get(0);
+            field.setAccessible(true);
+            field.set(globalOptions, true);
+        }
+        assertThrows(ModernizerException.class, () -> globalOptions.config(Config.builder()));
+    }
 }
@@ -3,10 +3,14 @@ package io.jenkins.tools.pluginmodernizer.core;
 import com.google.inject.AbstractModule;
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.github.GHService;
+import io.jenkins.tools.pluginmodernizer.core.github.GitHubRateLimiter;
+import io.jenkins.tools.pluginmodernizer.core.github.GitMirrors;
 import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import io.jenkins.tools.pluginmodernizer.core.impl.MetricsService;
 import io.jenkins.tools.pluginmodernizer.core.impl.PluginModernizer;
 import io.jenkins.tools.pluginmodernizer.core.utils.JdkFetcher;
 import io.jenkins.tools.pluginmodernizer.core.utils.PluginService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.maven.shared.invoker.DefaultInvoker;
 import org.apache.maven.shared.invoker.Invoker;
 
@@ -22,10 +26,17 @@ public class GuiceModule extends AbstractModule {
     protected void configure() {
         bind(Invoker.class).to(DefaultInvoker.class);
         bind(Config.class).toInstance(config);
-        bind(CacheManager.class).toInstance(new CacheManager(config.getCachePath()));
+        MeterRegistry meterRegistry = MetricsService.createRegistry(config);
+        bind(MeterRegistry.class).toInstance(meterRegistry);
+        CacheManager cacheManager = new CacheManager(config.getCachePath(), meterRegistry);
+        config.getCacheTimeToLives().forEach(cacheManager::setTimeToLive);
+        bind(CacheManager.class).toInstance(cacheManager);
         bind(PluginService.class).toInstance(new PluginService());
         bind(GHService.class).toInstance(new GHService());
+        bind(GitMirrors.class).toInstance(new GitMirrors(config.getCachePath()));
+        bind(GitHubRateLimiter.class).toInstance(new GitHubRateLimiter(meterRegistry));
         bind(JdkFetcher.class).toInstance(new JdkFetcher(config.getCachePath()));
+        bind(MetricsService.class).toInstance(new MetricsService(config, meterRegistry));
         bind(PluginModernizer.class).toInstance(new PluginModernizer());
     }
 }
@@ -5,7 +5,9 @@ import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
 import io.jenkins.tools.pluginmodernizer.core.model.Recipe;
 import java.net.URL;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 public class Config {
 
@@ -40,6 +42,25 @@ public class Config {
     private final Long githubAppTargetInstallationId;
     private final Path sshPrivateKey;
     private final DuplicatePrStrategy duplicatePrStrategy;
+    private final int parallelism;
+    private final int maxConcurrentFetches;
+    private final int maxConcurrentBuilds;
+    private final int maxConcurrentGithubCalls;
+    private final boolean mavenDaemon;
+    private final boolean sharedGitObjects;
+    private final boolean shallowClone;
+    private final boolean staticMetadata;
+    private final boolean bulkRepositoryLookup;
+    private final boolean staleWhileRevalidate;
+    private final Duration maxStale;
+    private final Map<String, Duration> cacheTimeToLives;
+    private final boolean jdkPrefetch;
+    private final int metricsPort;
+    private final Path metricsFile;
+    private final boolean buildCache;
+    private final VerificationMode verificationMode;
+    private final boolean verifyJdkMatrix;
+    private final int maxConcurrentJdkBuilds;
 
     private Config(
             String version,
@@ -65,7 +86,26 @@ public class Config {
             boolean draft,
             boolean removeForks,
             boolean allowDeprecatedPlugins,
-            DuplicatePrStrategy duplicatePrStrategy) {
+            DuplicatePrStrategy duplicatePrStrategy,
+            int parallelism,
+            int maxConcurrentFetches,
+            int maxConcurrentBuilds,
+            int maxConcurrentGithubCalls,
+            boolean mavenDaemon,
+            boolean sharedGitObjects,
+            boolean shallowClone,
+            boolean staticMetadata,
+            boolean bulkRepositoryLookup,
+            boolean staleWhileRevalidate,
+            Duration maxStale,
+            Map<String, Duration> cacheTimeToLives,
+            boolean jdkPrefetch,
+            int metricsPort,
+            Path metricsFile,
+            boolean buildCache,
+            VerificationMode verificationMode,
+            boolean verifyJdkMatrix,
+            int maxConcurrentJdkBuilds) {
         this.version = version;
         this.githubOwner = githubOwner;
         this.githubAppId = githubAppId;
@@ -90,6 +130,25 @@ public class Config {
         this.removeForks = removeForks;
         this.allowDeprecatedPlugins = allowDeprecatedPlugins;
         this.duplicatePrStrategy = duplicatePrStrategy;
+        this.parallelism = parallelism;
+        this.maxConcurrentFetches = maxConcurrentFetches;
+        this.maxConcurrentBuilds = maxConcurrentBuilds;
+        this.maxConcurrentGithubCalls = maxConcurrentGithubCalls;
+        this.mavenDaemon = mavenDaemon;
+        this.sharedGitObjects = sharedGitObjects;
+        this.shallowClone = shallowClone;
+        this.staticMetadata = staticMetadata;
+        this.bulkRepositoryLookup = bulkRepositoryLookup;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.maxStale = maxStale;
+        this.cacheTimeToLives = cacheTimeToLives;
+        this.jdkPrefetch = jdkPrefetch;
+        this.metricsPort = metricsPort;
+        this.metricsFile = metricsFile;
+        this.buildCache = buildCache;
+        this.verificationMode = verificationMode;
+        this.verifyJdkMatrix = verifyJdkMatrix;
+        this.maxConcurrentJdkBuilds = maxConcurrentJdkBuilds;
     }
 
     public String getVersion() {
@@ -237,12 +296,183 @@ public class Config {
         return duplicatePrStrategy;
     }
 
+    /**
+     * Return the maximum number of plugins processed concurrently.
+     * @return The parallelism. 1 means sequential processing
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Return the maximum number of concurrent git fetches across plugins.
+     * @return The maximum number of concurrent git fetches
+     */
+    public int getMaxConcurrentFetches() {
+        return maxConcurrentFetches;
+    }
+
+    /**
+     * Return the maximum number of concurrent Maven builds across plugins.
+     * @return The maximum number of concurrent Maven builds
+     */
+    public int getMaxConcurrentBuilds() {
+        return maxConcurrentBuilds;
+    }
+
+    /**
+     * Return the maximum number of concurrent GitHub operations across plugins.
+     * @return The maximum number of concurrent GitHub operations
+     */
+    public int getMaxConcurrentGithubCalls() {
+        return maxConcurrentGithubCalls;
+    }
+
+    /**
+     * Return if Maven goals should run on a warm Maven daemon (mvnd) when available.
+     * @return True if the Maven daemon should be used
+     */
+    public boolean isMavenDaemon() {
+        return mavenDaemon;
+    }
+
+    /**
+     * Return if plugin checkouts borrow objects from shared bare mirrors in the cache.
+     * @return True if git objects are shared through mirrors
+     */
+    public boolean isSharedGitObjects() {
+        return sharedGitObjects;
+    }
+
+    /**
+     * Return if plugin repositories are cloned with a depth of 1.
+     * @return True if plugin repositories are cloned shallow
+     */
+    public boolean isShallowClone() {
+        return shallowClone;
+    }
+
+    /**
+     * Return if metadata is extracted in process by parsing the plugin sources instead of running Maven.
+     * @return True if metadata is extracted in process
+     */
+    public boolean isStaticMetadata() {
+        return staticMetadata;
+    }
+
+    /**
+     * Return if plugin repositories are resolved in bulk with GraphQL before processing.
+     * @return True if repositories are resolved in bulk
+     */
+    public boolean isBulkRepositoryLookup() {
+        return bulkRepositoryLookup;
+    }
+
+    /**
+     * Return if expired datasets are served immediately while being refreshed in the background
+     * @return True to serve stale datasets
+     */
+    public boolean isStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    /**
+     * Maximum time a dataset is served after its expiration while being refreshed in the background.
+     * Datasets expired for longer are downloaded again before being used
+     * @return The maximum staleness
+     */
+    public Duration getMaxStale() {
+        return maxStale;
+    }
+
+    /**
+     * Time to live of cache entries by cache key, overriding the defaults of the cache
+     * @return The time to live by cache key
+     */
+    public Map<String, Duration> getCacheTimeToLives() {
+        return cacheTimeToLives;
+    }
+
+    /**
+     * Return if the JDKs required by plugins are downloaded in the background before processing
+     * @return True to prefetch JDKs
+     */
+    public boolean isJdkPrefetch() {
+        return jdkPrefetch;
+    }
+
+    /**
+     * Local port of the Prometheus metrics endpoint. 0 to not serve metrics
+     * @return The port
+     */
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    /**
+     * JSON file where metrics are written during the run. Null to not write metrics
+     * @return The file or null
+     */
+    public Path getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * Return if builds already successful for the same revision, JDK and arguments are skipped
+     * @return True if successful builds are cached
+     */
+    public boolean isBuildCache() {
+        return buildCache;
+    }
+
+    /**
+     * Get the tests run to verify plugins after modernization
+     * @return The verification mode
+     */
+    public VerificationMode getVerificationMode() {
+        return verificationMode;
+    }
+
+    /**
+     * Return if modernized plugins are also verified with the other JDKs of their Jenkinsfile, concurrently
+     * @return True to verify the JDK matrix
+     */
+    public boolean isVerifyJdkMatrix() {
+        return verifyJdkMatrix;
+    }
+
+    /**
+     * Return the maximum number of concurrent Maven builds verifying the JDK matrix across plugins
+     * @return The maximum number of concurrent JDK matrix builds
+     */
+    public int getMaxConcurrentJdkBuilds() {
+        return maxConcurrentJdkBuilds;
+    }
+
     public enum DuplicatePrStrategy {
         SKIP,
         UPDATE,
         IGNORE
     }
 
+    /**
+     * Tests run to verify plugins after modernization
+     */
+    public enum VerificationMode {
+        /**
+         * Run the whole test suite
+         */
+        FULL,
+        /**
+         * Only run the tests affected by the modernization changes
+         */
+        AFFECTED,
+        /**
+         * Run the affected tests first, then the whole test suite if they pass
+         */
+        AFFECTED_THEN_FULL
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -272,6 +502,25 @@ public class Config {
         public boolean removeForks = false;
         private boolean allowDeprecatedPlugins = false;
         private DuplicatePrStrategy duplicatePrStrategy = DuplicatePrStrategy.SKIP;
+        private int parallelism = 1;
+        private int maxConcurrentFetches = 8;
+        private int maxConcurrentBuilds = 2;
+        private int maxConcurrentGithubCalls = 4;
+        private boolean mavenDaemon = false;
+        private boolean sharedGitObjects = false;
+        private boolean shallowClone = false;
+        private boolean staticMetadata = false;
+        private boolean bulkRepositoryLookup = true;
+        private boolean staleWhileRevalidate = true;
+        private Duration maxStale = Duration.ofDays(1);
+        private Map<String, Duration> cacheTimeToLives = Map.of();
+        private boolean jdkPrefetch = true;
+        private int metricsPort = 0;
+        private Path metricsFile;
+        private boolean buildCache = true;
+        private VerificationMode verificationMode = VerificationMode.FULL;
+        private boolean verifyJdkMatrix = false;
+        private int maxConcurrentJdkBuilds = 2;
 
         public Builder withVersion(String version) {
             this.version = version;
@@ -411,6 +660,117 @@ public class Config {
             return this;
         }
 
+        public Builder withParallelism(int parallelism) {
+            if (parallelism > 0) {
+                this.parallelism = parallelism;
+            }
+            return this;
+        }
+
+        public Builder withMaxConcurrentFetches(int maxConcurrentFetches) {
+            if (maxConcurrentFetches > 0) {
+                this.maxConcurrentFetches = maxConcurrentFetches;
+            }
+            return this;
+        }
+
+        public Builder withMaxConcurrentBuilds(int maxConcurrentBuilds) {
+            if (maxConcurrentBuilds > 0) {
+                this.maxConcurrentBuilds = maxConcurrentBuilds;
+            }
+            return this;
+        }
+
+        public Builder withMaxConcurrentGithubCalls(int maxConcurrentGithubCalls) {
+            if (maxConcurrentGithubCalls > 0) {
+                this.maxConcurrentGithubCalls = maxConcurrentGithubCalls;
+            }
+            return this;
+        }
+
+        public Builder withMavenDaemon(boolean mavenDaemon) {
+            this.mavenDaemon = mavenDaemon;
+            return this;
+        }
+
+        public Builder withSharedGitObjects(boolean sharedGitObjects) {
+            this.sharedGitObjects = sharedGitObjects;
+            return this;
+        }
+
+        public Builder withShallowClone(boolean shallowClone) {
+            this.shallowClone = shallowClone;
+            return this;
+        }
+
+        public Builder withStaticMetadata(boolean staticMetadata) {
+            this.staticMetadata = staticMetadata;
+            return this;
+        }
+
+        public Builder withBulkRepositoryLookup(boolean bulkRepositoryLookup) {
+            this.bulkRepositoryLookup = bulkRepositoryLookup;
+            return this;
+        }
+
+        public Builder withStaleWhileRevalidate(boolean staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+            return this;
+        }
+
+        public Builder withMaxStale(Duration maxStale) {
+            if (maxStale != null) {
+                this.maxStale = maxStale;
+            }
+            return this;
+        }
+
+        public Builder withCacheTimeToLives(Map<String, Duration> cacheTimeToLives) {
+            if (cacheTimeToLives != null) {
+                this.cacheTimeToLives = Map.copyOf(cacheTimeToLives);
+            }
+            return this;
+        }
+
+        public Builder withJdkPrefetch(boolean jdkPrefetch) {
+            this.jdkPrefetch = jdkPrefetch;
+            return this;
+        }
+
+        public Builder withMetricsPort(int metricsPort) {
+            this.metricsPort = metricsPort;
+            return this;
+        }
+
+        public Builder withMetricsFile(Path metricsFile) {
+            this.metricsFile = metricsFile;
+            return this;
+        }
+
+        public Builder withBuildCache(boolean buildCache) {
+            this.buildCache = buildCache;
+            return this;
+        }
+
+        public Builder withVerificationMode(VerificationMode verificationMode) {
+            if (verificationMode != null) {
+                this.verificationMode = verificationMode;
+            }
+            return this;
+        }
+
+        public Builder withVerifyJdkMatrix(boolean verifyJdkMatrix) {
+            this.verifyJdkMatrix = verifyJdkMatrix;
+            return this;
+        }
+
+        public Builder withMaxConcurrentJdkBuilds(int maxConcurrentJdkBuilds) {
+            if (maxConcurrentJdkBuilds > 0) {
+                this.maxConcurrentJdkBuilds = maxConcurrentJdkBuilds;
+            }
+            return this;
+        }
+
         public Config build() {
             return new Config(
                     version,
@@ -436,7 +796,26 @@ public class Config {
                     draft,
                     removeForks,
                     allowDeprecatedPlugins,
-                    duplicatePrStrategy);
+                    duplicatePrStrategy,
+                    parallelism,
+                    maxConcurrentFetches,
+                    maxConcurrentBuilds,
+                    maxConcurrentGithubCalls,
+                    mavenDaemon,
+                    sharedGitObjects,
+                    shallowClone,
+                    staticMetadata,
+                    bulkRepositoryLookup,
+                    staleWhileRevalidate,
+                    maxStale,
+                    cacheTimeToLives,
+                    jdkPrefetch,
+                    metricsPort,
+                    metricsFile,
+                    buildCache,
+                    verificationMode,
+                    verifyJdkMatrix,
+                    maxConcurrentJdkBuilds);
         }
     }
 }
@@ -18,15 +18,21 @@ public class JavaFileVisitor extends JavaIsoVisitor<PluginMetadata> {
     @Override
     public J.Import visitImport(J.Import _import, PluginMetadata pluginMetadata) {
         _import = super.visitImport(_import, pluginMetadata);
-        // Rather a naive approach, but let's assume we can detect testcontainers usage by the package name
-        if (_import.getPackageName().startsWith("org.testcontainers.containers")) {
-            LOG.info("Found testcontainers import: {}. Plugin is using container tests", _import.getPackageName());
-            pluginMetadata.setUseContainerTests(true);
-        }
-        if (_import.getPackageName().startsWith("org.jenkinsci.test.acceptance.docker")) {
-            LOG.info("Found docker-fixtures import: {}. Plugin is using container tests", _import.getPackageName());
+        if (isContainerTestPackage(_import.getPackageName())) {
+            LOG.info("Found container test import: {}. Plugin is using container tests", _import.getPackageName());
             pluginMetadata.setUseContainerTests(true);
         }
         return _import;
     }
+
+    /**
+     * Return if an imported package denotes container tests
+     * @param packageName The imported package name
+     * @return True if the package belongs to testcontainers or docker-fixtures
+     */
+    public static boolean isContainerTestPackage(String packageName) {
+        // Rather a naive approach, but let's assume we can detect testcontainers usage by the package name
+        return packageName.startsWith("org.testcontainers.containers")
+                || packageName.startsWith("org.jenkinsci.test.acceptance.docker");
+    }
 }
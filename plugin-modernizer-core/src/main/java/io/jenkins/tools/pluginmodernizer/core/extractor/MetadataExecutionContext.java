@@ -1,6 +1,9 @@
 package io.jenkins.tools.pluginmodernizer.core.extractor;
 
+import static io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils.fromJson;
+
 import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils;
 
 /**
  * Replace the ExecutionContext by our own MetadataContext.
@@ -77,4 +80,18 @@ public class MetadataExecutionContext {
         this.jenkinsFileMetadata = jenkinsFileMetadata;
         this.jenkinsFileMetadata.setKey(fileName);
     }
+
+    /**
+     * Merge the metadata extracted from the different sources into the merged metadata.
+     * @return The merged metadata
+     */
+    public PluginMetadata merge() {
+        PluginMetadata merged = fromJson(
+                JsonUtils.merge(getPomMetadata().toJson(), getJenkinsFileMetadata().toJson()), PluginMetadata.class);
+        merged = fromJson(JsonUtils.merge(getCommonMetadata().toJson(), merged.toJson()), PluginMetadata.class);
+        merged = fromJson(JsonUtils.merge(getJavaMetadata().toJson(), merged.toJson()), PluginMetadata.class);
+        merged = fromJson(JsonUtils.merge(getMergedMetadata().toJson(), merged.toJson()), PluginMetadata.class);
+        setMergedMetadata(merged);
+        return merged;
+    }
 }
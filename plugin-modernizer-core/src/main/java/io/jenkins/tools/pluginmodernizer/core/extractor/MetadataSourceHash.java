@@ -0,0 +1,109 @@
+package io.jenkins.tools.pluginmodernizer.core.extractor;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Content hash of the plugin sources the metadata is extracted from.
+ * Covers the POM files, the Jenkinsfile, the presence of the archetype common files and the imports of Java files.
+ * Metadata stamped with the same hash doesn't need to be collected again.
+ */
+@SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "Only files of the plugin repository are read")
+public class MetadataSourceHash {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetadataSourceHash.class);
+
+    /**
+     * Directories never containing metadata sources
+     */
+    private static final List<String> IGNORED_DIRECTORIES = List.of("target", ".git", "node_modules");
+
+    private MetadataSourceHash() {}
+
+    /**
+     * Compute the source hash of a plugin repository
+     * @param repository The local repository of the plugin
+     * @param salt Value invalidating all hashes when changed, like the version of the tool extracting metadata
+     * @return The hex encoded hash or null if it cannot be computed
+     */
+    public static String compute(Path repository, String salt) {
+        if (repository == null || !Files.isRegularFile(repository.resolve("pom.xml"))) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, "salt", String.valueOf(salt));
+
+            // Presence of well known files
+            for (ArchetypeCommonFile commonFile : ArchetypeCommonFile.values()) {
+                boolean present =
+                        commonFile.getPaths().stream().anyMatch(path -> Files.exists(repository.resolve(path)));
+                update(digest, commonFile.name(), String.valueOf(present));
+            }
+
+            // Content of the Jenkinsfile and of all POM, imports of Java files
+            List<Path> files;
+            try (Stream<Path> stream = Files.walk(repository)) {
+                files = stream.filter(Files::isRegularFile)
+                        .filter(file -> isSource(repository.relativize(file)))
+                        .sorted()
+                        .toList();
+            }
+            for (Path file : files) {
+                String relativePath = repository.relativize(file).toString().replace('\\', '/');
+                if (relativePath.endsWith(".java")) {
+                    String imports;
+                    try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+                        imports = lines.map(String::trim)
+                                .filter(line -> line.startsWith("import "))
+                                .collect(Collectors.joining("\n"));
+                    }
+                    update(digest, relativePath, imports);
+                } else {
+                    digest.update(relativePath.getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(file));
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException | UncheckedIOException e) {
+            LOG.debug("Unable to compute metadata source hash of {}", repository, e);
+            return null;
+        }
+    }
+
+    /**
+     * Check if the file is an input of metadata collection
+     * @param relativePath The path relative to the repository
+     * @return True if the file is hashed
+     */
+    static boolean isSource(Path relativePath) {
+        for (Path segment : relativePath) {
+            if (IGNORED_DIRECTORIES.contains(segment.toString())) {
+                return false;
+            }
+        }
+        String fileName = relativePath.getFileName().toString();
+        return fileName.equals("pom.xml")
+                || relativePath.equals(ArchetypeCommonFile.JENKINSFILE.getPath())
+                || fileName.endsWith(".java");
+    }
+
+    private static void update(MessageDigest digest, String key, String value) {
+        digest.update(key.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
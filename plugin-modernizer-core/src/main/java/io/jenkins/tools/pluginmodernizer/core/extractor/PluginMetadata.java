@@ -91,6 +91,11 @@ public class PluginMetadata extends CacheEntry<PluginMetadata> {
      */
     private Map<String, String> properties;
 
+    /**
+     * Hash of the sources the metadata was collected from
+     */
+    private String sourceHash;
+
     /**
      * Create a new plugin metadata
      * Store the metadata in the relative target directory of current folder
@@ -349,4 +354,12 @@ public class PluginMetadata extends CacheEntry<PluginMetadata> {
         }
         properties.put(key, value);
     }
+
+    public String getSourceHash() {
+        return sourceHash;
+    }
+
+    public void setSourceHash(String sourceHash) {
+        this.sourceHash = sourceHash;
+    }
 }
@@ -0,0 +1,183 @@
+package io.jenkins.tools.pluginmodernizer.core.extractor;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.groovy.GroovyParser;
+import org.openrewrite.maven.MavenExecutionContextView;
+import org.openrewrite.maven.MavenParser;
+import org.openrewrite.maven.tree.MavenRepository;
+import org.openrewrite.maven.tree.MavenResolutionResult;
+import org.openrewrite.tree.ParseError;
+import org.openrewrite.xml.tree.Xml;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Extract plugin metadata in process by parsing the plugin sources with the OpenRewrite parsers.
+ * Produces the same metadata as the FetchMetadata recipe without forking a Maven JVM.
+ * Java files are only scanned for their imports, so no compilation classpath is needed.
+ */
+@SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "Only files of the plugin repository are read")
+public class StaticMetadataExtractor {
+
+    /**
+     * LOGGER.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(StaticMetadataExtractor.class);
+
+    /**
+     * Import statement of a Java file
+     */
+    private static final Pattern IMPORT_PATTERN = Pattern.compile("^\\s*import\\s+(?:static\\s+)?([\\w.]+)");
+
+    /**
+     * The local repository of the plugin
+     */
+    private final Path repository;
+
+    /**
+     * The maven local repository used to resolve parent POMs and BOMs
+     */
+    private final Path mavenLocalRepo;
+
+    /**
+     * Create a new extractor
+     * @param repository The local repository of the plugin
+     * @param mavenLocalRepo The maven local repository
+     */
+    public StaticMetadataExtractor(Path repository, Path mavenLocalRepo) {
+        this.repository = repository;
+        this.mavenLocalRepo = mavenLocalRepo;
+    }
+
+    /**
+     * Extract the metadata and save it with the given cache manager
+     * @param cacheManager The cache manager of the plugin target directory
+     * @return The extracted metadata
+     * @throws ModernizerException If the POM cannot be parsed or resolved
+     */
+    public PluginMetadata extract(CacheManager cacheManager) {
+        MetadataExecutionContext metadataContext = new MetadataExecutionContext();
+        PluginMetadata pluginMetadata = new PluginMetadata();
+        MetadataVisitor visitor = new MetadataVisitor(pluginMetadata);
+        ExecutionContext ctx = new InMemoryExecutionContext(
+                t -> LOG.debug("Error while parsing sources of {}: {}", repository, t.getMessage()));
+        if (mavenLocalRepo != null) {
+            MavenExecutionContextView.view(ctx)
+                    .setLocalRepository(MavenRepository.builder()
+                            .id("local")
+                            .uri(mavenLocalRepo.toUri().toString())
+                            .knownToExist(true)
+                            .build());
+        }
+
+        try {
+            // File layout
+            for (ArchetypeCommonFile commonFile : ArchetypeCommonFile.values()) {
+                if (commonFile.getPaths().stream().anyMatch(path -> Files.exists(repository.resolve(path)))) {
+                    pluginMetadata.addCommonFile(commonFile);
+                }
+            }
+            metadataContext.setCommonMetadata(pluginMetadata);
+
+            // POM files, parsed together so modules resolve their reactor parent. Root POM is visited first
+            List<Path> poms = findFiles(path -> path.getFileName().toString().equals("pom.xml"));
+            List<SourceFile> parsedPoms = MavenParser.builder()
+                    .build()
+                    .parse(poms, repository, ctx)
+                    .sorted(Comparator.comparingInt(sourceFile -> sourceFile.getSourcePath().getNameCount()))
+                    .toList();
+            if (parsedPoms.isEmpty() || !isResolved(parsedPoms.get(0))) {
+                throw new ModernizerException("Unable to resolve the POM of " + repository);
+            }
+            for (SourceFile pom : parsedPoms) {
+                if (isResolved(pom)) {
+                    visitor.visit(pom, metadataContext);
+                }
+            }
+
+            // Jenkinsfile
+            Path jenkinsfile = repository.resolve(ArchetypeCommonFile.JENKINSFILE.getPath());
+            if (Files.isRegularFile(jenkinsfile)) {
+                GroovyParser.builder()
+                        .build()
+                        .parse(List.of(jenkinsfile), repository, ctx)
+                        .filter(sourceFile -> !(sourceFile instanceof ParseError))
+                        .forEach(sourceFile -> visitor.visit(sourceFile, metadataContext));
+            }
+
+            // Imports of Java files
+            for (Path javaFile : findFiles(path -> path.getFileName().toString().endsWith(".java"))) {
+                if (hasContainerTestImport(javaFile)) {
+                    LOG.info("Found container test import in {}. Plugin is using container tests", javaFile);
+                    pluginMetadata.setUseContainerTests(true);
+                    break;
+                }
+            }
+            metadataContext.setJavaMetadata(pluginMetadata);
+        } catch (IOException | UncheckedIOException e) {
+            throw new ModernizerException("Unable to read sources of " + repository, e);
+        }
+
+        PluginMetadata merged = metadataContext.merge();
+        merged.setCacheManager(cacheManager);
+        merged.save();
+        LOG.debug("Plugin metadata extracted in process to {}", merged.getLocation());
+        return merged;
+    }
+
+    /**
+     * Return if the parsed POM carries a maven resolution result
+     * @param sourceFile The parsed POM
+     * @return True if the POM was resolved
+     */
+    private boolean isResolved(SourceFile sourceFile) {
+        return sourceFile instanceof Xml.Document
+                && sourceFile.getMarkers().findFirst(MavenResolutionResult.class).isPresent();
+    }
+
+    /**
+     * Return if the Java file imports a container test package
+     * @param javaFile The Java file
+     * @return True if any import denotes container tests
+     * @throws IOException If the file cannot be read
+     */
+    private boolean hasContainerTestImport(Path javaFile) throws IOException {
+        try (Stream<String> lines = Files.lines(javaFile, StandardCharsets.UTF_8)) {
+            return lines.map(IMPORT_PATTERN::matcher)
+                    .filter(Matcher::find)
+                    .anyMatch(matcher -> JavaFileVisitor.isContainerTestPackage(matcher.group(1)));
+        }
+    }
+
+    /**
+     * Find source files of the repository outside build output directories
+     * @param filter The file filter
+     * @return The sorted list of files
+     * @throws IOException If the repository cannot be walked
+     */
+    private List<Path> findFiles(Predicate<Path> filter) throws IOException {
+        try (Stream<Path> stream = Files.walk(repository)) {
+            return stream.filter(Files::isRegularFile)
+                    .filter(path -> MetadataSourceHash.isSource(repository.relativize(path)))
+                    .filter(filter)
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -2,12 +2,14 @@ package io.jenkins.tools.pluginmodernizer.core.github;
 
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.impl.MetricsService;
 import io.jenkins.tools.pluginmodernizer.core.model.DiffStats;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
 import io.jenkins.tools.pluginmodernizer.core.model.PluginProcessingException;
 import io.jenkins.tools.pluginmodernizer.core.model.RepoType;
 import io.jenkins.tools.pluginmodernizer.core.utils.JWTUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.inject.Inject;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -15,21 +17,29 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.StreamSupport;
+import org.apache.commons.io.FileUtils;
 import org.apache.sshd.client.SshClient;
 import org.apache.sshd.common.keyprovider.FileKeyPairProvider;
 import org.apache.sshd.git.transport.GitSshdSessionFactory;
+import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.CommitCommand;
+import org.eclipse.jgit.api.FetchCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.ResetCommand;
 import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.RefAlreadyExistsException;
 import org.eclipse.jgit.api.errors.RefNotFoundException;
+import org.eclipse.jgit.api.errors.TransportException;
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.diff.DiffFormatter;
 import org.eclipse.jgit.diff.Edit;
@@ -49,6 +59,7 @@ import org.eclipse.jgit.transport.CredentialItem;
 import org.eclipse.jgit.transport.CredentialsProvider;
 import org.eclipse.jgit.transport.PushResult;
 import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
 import org.eclipse.jgit.transport.SshSessionFactory;
 import org.eclipse.jgit.transport.URIish;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
@@ -79,13 +90,47 @@ public class GHService {
      */
     private static final Set<String> ALLOWED_TAGS = Set.of("chore", "dependencies", "developer");
 
+    /**
+     * First delay between two checks of a new fork
+     */
+    private static final Duration FORK_POLL_INITIAL_DELAY = Duration.ofSeconds(1);
+
+    /**
+     * Maximum delay between two checks of a new fork
+     */
+    private static final Duration FORK_POLL_MAX_DELAY = Duration.ofSeconds(16);
+
+    /**
+     * Maximum number of checks of a new fork
+     */
+    private static final int FORK_POLL_MAX_ATTEMPTS = 8;
+
     @Inject
     private Config config;
 
+    @Inject
+    private GitMirrors gitMirrors;
+
+    @Inject
+    private GitHubRateLimiter rateLimiter;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The GitHub client. Replaced on token refresh and shared by plugin workers
+     */
+    private volatile GitHub github;
+
+    /**
+     * The token of the GitHub client, used for GraphQL queries
+     */
+    private volatile String token;
+
     /**
-     * The GitHub client
+     * Repository information resolved in bulk for this run by full name
      */
-    private GitHub github;
+    private final Map<String, RepositoryInfo> repositoryInfos = new ConcurrentHashMap<>();
 
     /**
      * The GitHub App if connected by GitHub App
@@ -126,10 +171,35 @@ public class GHService {
         return github != null;
     }
 
+    /**
+     * Get the rate limiter shared by GitHub clients
+     *
+     * @return The rate limiter with the remaining quota
+     */
+    public GitHubRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Log the remaining GitHub API quota and the time calls were delayed to preserve it
+     */
+    public void logRateLimit() {
+        if (rateLimiter.getLimit() < 0) {
+            return;
+        }
+        LOG.info(
+                "GitHub API quota: {}/{} remaining until {}. {} calls delayed for {}s",
+                rateLimiter.getRemaining(),
+                rateLimiter.getLimit(),
+                rateLimiter.getReset(),
+                rateLimiter.getThrottledCalls(),
+                rateLimiter.getThrottledMillis() / 1000);
+    }
+
     /**
      * Connect to GitHub using the GitHub auth token
      */
-    public void connect() {
+    public synchronized void connect() {
         if (isConnected()) {
             return;
         }
@@ -161,7 +231,9 @@ public class GHService {
                 github = new GitHubBuilder()
                         .withEndpoint(config.getGithubApiUrl().toString())
                         .withAppInstallationToken(appInstallationToken.getToken())
+                        .withRateLimitChecker(rateLimiter)
                         .build();
+                token = appInstallationToken.getToken();
                 LOG.debug("Connected to GitHub using GitHub App");
             }
             // Connect with token
@@ -170,7 +242,9 @@ public class GHService {
                 github = new GitHubBuilder()
                         .withEndpoint(config.getGithubApiUrl().toString())
                         .withOAuthToken(Settings.GITHUB_TOKEN)
+                        .withRateLimitChecker(rateLimiter)
                         .build();
+                token = Settings.GITHUB_TOKEN;
             }
             GHUser user = getCurrentUser();
             if (user == null) {
@@ -207,7 +281,7 @@ public class GHService {
      *
      * @param installationId The installation ID
      */
-    public void refreshToken(Long installationId) {
+    public synchronized void refreshToken(Long installationId) {
         if (installationId == null) {
             LOG.debug("Installation ID is not set. Skipping token refresh");
             return;
@@ -222,7 +296,9 @@ public class GHService {
                     app.getInstallationById(installationId).createToken().create();
             github = new GitHubBuilder()
                     .withAppInstallationToken(appInstallationToken.getToken())
+                    .withRateLimitChecker(rateLimiter)
                     .build();
+            token = appInstallationToken.getToken();
             this.app = app;
             LOG.debug("Refreshed token for GitHub App installation ID {}", installationId);
         } catch (IOException e) {
@@ -230,6 +306,60 @@ public class GHService {
         }
     }
 
+    /**
+     * Resolve archived flag, default branch, fork existence and open pull requests of plugin repositories in bulk
+     * using GraphQL. Results are kept for the run and consulted before falling back to REST calls
+     *
+     * @param plugins The plugins with their repository name
+     */
+    public void prefetchRepositories(List<Plugin> plugins) {
+        if (!isConnected() || token == null) {
+            return;
+        }
+        Map<String, String> branches = new LinkedHashMap<>();
+        for (Plugin plugin : plugins) {
+            String repositoryName = plugin.getRepositoryName();
+            if (plugin.isLocal()
+                    || repositoryName == null
+                    || repositoryInfos.containsKey(Settings.ORGANIZATION + "/" + repositoryName)) {
+                continue;
+            }
+            branches.put(repositoryName, RepoType.PLUGIN.getBranchName(plugin, config.getRecipe()));
+        }
+        if (branches.isEmpty()) {
+            return;
+        }
+        GraphQLRepositoryResolver resolver =
+                new GraphQLRepositoryResolver(config.getGithubApiUrl(), token, rateLimiter);
+        Map<String, RepositoryInfo> resolved = resolver.resolve(Settings.ORGANIZATION, getGithubOwner(), branches);
+        repositoryInfos.putAll(resolved);
+        LOG.info("Resolved {} of {} plugin repositories using GraphQL", resolved.size(), branches.size());
+    }
+
+    /**
+     * Get the repository information resolved in bulk for a plugin
+     *
+     * @param plugin The plugin
+     * @return The repository information or null if not resolved
+     */
+    private RepositoryInfo getRepositoryInfo(Plugin plugin) {
+        if (repositoryInfos.isEmpty() || plugin.getRepositoryName() == null) {
+            return null;
+        }
+        return repositoryInfos.get(Settings.ORGANIZATION + "/" + plugin.getRepositoryName());
+    }
+
+    /**
+     * Forget the repository information of a plugin once its fork or pull requests changed
+     *
+     * @param plugin The plugin
+     */
+    private void forgetRepositoryInfo(Plugin plugin) {
+        if (!repositoryInfos.isEmpty() && plugin.getRepositoryName() != null) {
+            repositoryInfos.remove(Settings.ORGANIZATION + "/" + plugin.getRepositoryName());
+        }
+    }
+
     /**
      * Get the repository object for a plugin
      *
@@ -282,6 +412,10 @@ public class GHService {
         if (plugin.isLocal()) {
             return false;
         }
+        RepositoryInfo info = repoType == RepoType.PLUGIN ? getRepositoryInfo(plugin) : null;
+        if (info != null) {
+            return info.forked();
+        }
         try {
             GHOrganization organization = getOrganization();
             if (organization != null) {
@@ -303,6 +437,10 @@ public class GHService {
         if (plugin.isLocal()) {
             return false;
         }
+        RepositoryInfo info = getRepositoryInfo(plugin);
+        if (info != null) {
+            return info.archived();
+        }
         return plugin.getRemoteRepository(this).isArchived();
     }
 
@@ -329,6 +467,7 @@ public class GHService {
         LOG.info("Forking {} {} locally from repo {}...", repoType.getType(), plugin, repositoryName);
         try {
             GHRepository fork = forkRepoType(plugin, repoType);
+            forgetRepositoryInfo(plugin);
             LOG.debug("Forked repository: {}", fork.getHtmlUrl());
         } catch (IOException | InterruptedException e) {
             plugin.addError("Failed to fork the" + repoType.getType() + "repository", e);
@@ -370,7 +509,7 @@ public class GHService {
                 return fork;
             } else {
                 GHRepository fork = forkRepository(originalRepo, organization);
-                Thread.sleep(5000); // Wait for the fork to be ready
+                waitForFork(fork);
                 return fork;
             }
         } else {
@@ -383,12 +522,35 @@ public class GHService {
                 return fork;
             } else {
                 GHRepository fork = forkRepository(originalRepo);
-                Thread.sleep(5000); // Wait for the fork to be ready
+                waitForFork(fork);
                 return fork;
             }
         }
     }
 
+    /**
+     * Wait for a new fork to be ready. GitHub creates forks asynchronously, so the fork default branch is polled
+     * with an exponential backoff
+     *
+     * @param fork The new fork
+     * @throws InterruptedException If interrupted while waiting
+     */
+    private void waitForFork(GHRepository fork) throws InterruptedException {
+        long delay = FORK_POLL_INITIAL_DELAY.toMillis();
+        for (int attempt = 1; attempt <= FORK_POLL_MAX_ATTEMPTS; attempt++) {
+            try {
+                fork.getRef("heads/" + fork.getDefaultBranch());
+                LOG.debug("Fork {} ready after {} attempt(s)", fork.getFullName(), attempt);
+                return;
+            } catch (IOException e) {
+                LOG.debug("Fork {} not ready yet: {}", fork.getFullName(), e.getMessage());
+            }
+            Thread.sleep(delay);
+            delay = Math.min(delay * 2, FORK_POLL_MAX_DELAY.toMillis());
+        }
+        LOG.warn("Fork {} still not ready after {} attempts. Continuing", fork.getFullName(), FORK_POLL_MAX_ATTEMPTS);
+    }
+
     /**
      * Fork the repository
      *
@@ -597,6 +759,7 @@ public class GHService {
         }
         try {
             repository.delete();
+            forgetRepositoryInfo(plugin);
             plugin.withoutCommits();
             plugin.withoutChangesPushed();
         } catch (IOException e) {
@@ -663,16 +826,24 @@ public class GHService {
         // Fetch latest changes
         if (Files.isDirectory(localRepository)) {
             String defaultBranch = repository.getDefaultBranch();
+            boolean shallow = isShallow(localRepository);
             // Ensure to set the correct remote, reset changes and pull
             try (Git git = Git.open(localRepository.toFile())) {
                 git.remoteSetUrl()
                         .setRemoteName("origin")
                         .setRemoteUri(remoteUri)
                         .call();
-                git.fetch()
-                        .setCredentialsProvider(getCredentialProvider())
-                        .setRemote("origin")
-                        .call();
+                // Update the shared objects first so the fetch below only writes refs
+                if (config.isSharedGitObjects() && gitMirrors.isBorrowing(localRepository)) {
+                    gitMirrors.update(remoteUri, getCredentialProvider());
+                }
+                FetchCommand fetch =
+                        git.fetch().setCredentialsProvider(getCredentialProvider()).setRemote("origin");
+                // Keep a shallow clone shallow
+                if (shallow) {
+                    fetch.setDepth(1);
+                }
+                fetch.call();
                 LOG.debug("Resetting changes and pulling latest changes from {}", remoteUri);
                 git.reset()
                         .setMode(ResetCommand.ResetType.HARD)
@@ -683,11 +854,19 @@ public class GHService {
                         .setCreateBranch(false)
                         .setName(defaultBranch)
                         .call();
-                git.pull()
-                        .setCredentialsProvider(getCredentialProvider())
-                        .setRemote("origin")
-                        .setRemoteBranchName(defaultBranch)
-                        .call();
+                // A shallow clone doesn't have the history to merge, so move the branch to the fetched tip
+                if (shallow) {
+                    git.reset()
+                            .setMode(ResetCommand.ResetType.HARD)
+                            .setRef("origin/" + defaultBranch)
+                            .call();
+                } else {
+                    git.pull()
+                            .setCredentialsProvider(getCredentialProvider())
+                            .setRemote("origin")
+                            .setRemoteBranchName(defaultBranch)
+                            .call();
+                }
                 LOG.info("Fetched {} repository from {} to branch {}", repoType.getType(), remoteUri, ref.getName());
             } catch (RefNotFoundException e) {
                 String message =
@@ -704,13 +883,13 @@ public class GHService {
         // Clone the repository
         else {
             try {
-                cloneRepository(plugin, remoteUri, localRepository.toFile());
+                cloneRepository(plugin, remoteUri, localRepository.toFile(), repository.getDefaultBranch());
             } catch (GitAPIException e) {
                 if (e.getCause() instanceof org.apache.sshd.common.SshException) {
                     LOG.warn("SSH authentication failed. Retrying with HTTPS...");
                     remoteUri = new URIish(repository.getHttpTransportUrl());
                     try {
-                        cloneRepository(plugin, remoteUri, localRepository.toFile());
+                        cloneRepository(plugin, remoteUri, localRepository.toFile(), repository.getDefaultBranch());
                     } catch (GitAPIException ex) {
                         LOG.error("HTTPS clone failed: {}", ex.getMessage());
                         plugin.addError("Failed to fetch the" + repoType.getType() + "repository using HTTPS", ex);
@@ -749,24 +928,130 @@ public class GHService {
     }
 
     /**
-     * Clone the repository to the given directory
+     * Clone the repository to the given directory. Borrow objects from the shared mirror of the remote if enabled
      *
      * @param plugin The plugin
      * @param remoteUri The remote URI of the repository
      * @param directory The directory to clone the repository to
+     * @param defaultBranch The default branch of the repository
      * @throws GitAPIException If the clone operation failed
      */
-    private void cloneRepository(Plugin plugin, URIish remoteUri, File directory) throws GitAPIException {
-        try (Git git = Git.cloneRepository()
+    private void cloneRepository(Plugin plugin, URIish remoteUri, File directory, String defaultBranch)
+            throws GitAPIException {
+        if (config.isSharedGitObjects() && defaultBranch != null) {
+            try {
+                gitMirrors.checkout(remoteUri, getCredentialProvider(), directory, defaultBranch);
+                LOG.debug("Checkout successfully from {} using shared git objects", remoteUri);
+                return;
+            } catch (GitAPIException e) {
+                FileUtils.deleteQuietly(directory);
+                throw e;
+            } catch (IOException e) {
+                LOG.warn("Unable to use shared git objects for {}. Cloning without them", remoteUri, e);
+                FileUtils.deleteQuietly(directory);
+            }
+        }
+        CloneCommand clone = Git.cloneRepository()
                 .setCredentialsProvider(getCredentialProvider())
                 .setRemote("origin")
                 .setURI(remoteUri.toString())
-                .setDirectory(directory)
-                .call()) {
+                .setDirectory(directory);
+        // Only the tip of the default branch is needed to run recipes and build
+        if (config.isShallowClone()) {
+            clone.setDepth(1);
+        }
+        try (Git git = clone.call()) {
             LOG.debug("Clone successfully from {}", remoteUri);
         }
     }
 
+    /**
+     * Check if the local repository is a shallow clone
+     * @param localRepository The local repository
+     * @return True if the repository is shallow
+     */
+    private boolean isShallow(Path localRepository) {
+        return Files.isRegularFile(localRepository.resolve(".git").resolve("shallow"));
+    }
+
+    /**
+     * Force push a branch to origin.
+     * A shallow clone is pushed as is: the fork already has the history below the shallow boundary, so only the
+     * new commits are sent. The full history is only fetched, and the push retried, if the remote rejects the push
+     * of the shallow clone, for example because the fork is behind the commit the clone was taken at
+     * @param git The git repository
+     * @param localRepository The local repository
+     * @param branchName The branch to push
+     * @return The push results
+     * @throws GitAPIException If the push failed
+     */
+    List<PushResult> push(Git git, Path localRepository, String branchName) throws GitAPIException {
+        if (!isShallow(localRepository)) {
+            return forcePush(git, branchName);
+        }
+        try {
+            List<PushResult> results = forcePush(git, branchName);
+            if (isAccepted(results)) {
+                return results;
+            }
+            LOG.debug("Push of shallow clone at {} was rejected. Fetching its full history", localRepository);
+        } catch (TransportException e) {
+            LOG.debug("Push of shallow clone at {} failed. Fetching its full history", localRepository, e);
+        }
+        deepen(git, localRepository);
+        return forcePush(git, branchName);
+    }
+
+    /**
+     * Force push a branch to origin
+     * @param git The git repository
+     * @param branchName The branch to push
+     * @return The push results
+     * @throws GitAPIException If the push failed
+     */
+    private List<PushResult> forcePush(Git git, String branchName) throws GitAPIException {
+        return StreamSupport.stream(
+                        git.push()
+                                .setForce(true)
+                                .setRemote("origin")
+                                .setCredentialsProvider(getCredentialProvider())
+                                .setRefSpecs(new RefSpec(branchName + ":" + branchName))
+                                .call()
+                                .spliterator(),
+                        false)
+                .toList();
+    }
+
+    /**
+     * Return if all ref updates of a push were accepted by the remote
+     * @param results The push results
+     * @return True if all refs were updated or already up to date
+     */
+    private static boolean isAccepted(List<PushResult> results) {
+        return results.stream()
+                .flatMap(result -> result.getRemoteUpdates().stream())
+                .allMatch(update -> update.getStatus() == RemoteRefUpdate.Status.OK
+                        || update.getStatus() == RemoteRefUpdate.Status.UP_TO_DATE);
+    }
+
+    /**
+     * Fetch the full history of a shallow clone. Only needed when the remote rejects the push of the shallow clone
+     * @param git The git repository
+     * @param localRepository The local repository
+     * @throws GitAPIException If the fetch failed
+     */
+    private void deepen(Git git, Path localRepository) throws GitAPIException {
+        if (!isShallow(localRepository)) {
+            return;
+        }
+        LOG.debug("Fetching full history of shallow clone at {}", localRepository);
+        git.fetch()
+                .setCredentialsProvider(getCredentialProvider())
+                .setRemote("origin")
+                .setUnshallow(true)
+                .call();
+    }
+
     /**
      * Checkout the branch. Creates the branch if not exists
      *
@@ -1010,16 +1295,7 @@ public class GHService {
         Path localRepository = repoType.getLocalRepository(plugin);
         try (Git git = Git.open(localRepository.toFile())) {
             String branchName = repoType.getBranchName(plugin, config.getRecipe());
-            List<PushResult> results = StreamSupport.stream(
-                            git.push()
-                                    .setForce(true)
-                                    .setRemote("origin")
-                                    .setCredentialsProvider(getCredentialProvider())
-                                    .setRefSpecs(new RefSpec(branchName + ":" + branchName))
-                                    .call()
-                                    .spliterator(),
-                            false)
-                    .toList();
+            List<PushResult> results = push(git, localRepository, branchName);
             results.forEach(result -> {
                 LOG.debug("Push result: {}", result.getMessages());
                 if (result.getMessages().contains("error")) {
@@ -1117,8 +1393,10 @@ public class GHService {
         try {
             GHPullRequest pr = repository.createPullRequest(prTitle, head, base, prBody, true, config.isDraft());
             LOG.info("Pull request created: {}", pr.getHtmlUrl());
+            meterRegistry.counter(MetricsService.PULL_REQUESTS_OPENED).increment();
             repoType.withPullRequest(plugin);
             if (repoType == RepoType.PLUGIN) {
+                forgetRepositoryInfo(plugin);
                 plugin.setPullRequestUrl(pr.getHtmlUrl().toString());
                 deleteLegacyPrs(plugin);
                 try {
@@ -1193,6 +1471,11 @@ public class GHService {
      * @return The pull request if it exists
      */
     private Optional<GHPullRequest> findExistingPullRequest(GHRepository repo, String head, String base) {
+        RepositoryInfo info = repositoryInfos.isEmpty() ? null : repositoryInfos.get(repo.getFullName());
+        if (info != null && base.equals(info.defaultBranch()) && !info.hasOpenPullRequest(head)) {
+            LOG.debug("No open pull request from {} on {} according to bulk resolution", head, repo.getFullName());
+            return Optional.empty();
+        }
         try {
             return repo.queryPullRequests().state(GHIssueState.OPEN).head(head).base(base).list().toList().stream()
                     .findFirst();
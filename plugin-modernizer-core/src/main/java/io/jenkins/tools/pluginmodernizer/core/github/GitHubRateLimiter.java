@@ -0,0 +1,196 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.MetricsService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.http.HttpHeaders;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.RateLimitChecker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rate limit checker shared by all GitHub clients of the run.
+ * It runs before each REST call with the rate limit headers of the last response. Calls are spread evenly over the
+ * remaining time window once the quota runs low, and held until the reset when only the reserve is left.
+ * GraphQL calls are paced the same way using their own quota, which GitHub counts separately.
+ */
+public class GitHubRateLimiter extends RateLimitChecker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GitHubRateLimiter.class);
+
+    /**
+     * Number of requests kept in reserve. Calls wait for the reset when reached
+     */
+    public static final int DEFAULT_RESERVE = 50;
+
+    /**
+     * Fraction of the quota below which calls are paced
+     */
+    private static final double PACING_THRESHOLD = 0.2;
+
+    /**
+     * Maximum delay between two paced calls
+     */
+    private static final long MAX_PACING_DELAY_MILLIS = 10_000;
+
+    private final int reserve;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger remaining = new AtomicInteger(-1);
+    private final AtomicInteger limit = new AtomicInteger(-1);
+    private final AtomicLong resetEpochSeconds = new AtomicLong();
+    private final AtomicInteger graphQLRemaining = new AtomicInteger(-1);
+    private final AtomicInteger graphQLLimit = new AtomicInteger(-1);
+    private final AtomicLong graphQLResetEpochSeconds = new AtomicLong();
+    private final AtomicLong throttledCalls = new AtomicLong();
+    private final AtomicLong throttledMillis = new AtomicLong();
+
+    public GitHubRateLimiter(MeterRegistry meterRegistry) {
+        this(DEFAULT_RESERVE, Clock.systemUTC(), meterRegistry);
+    }
+
+    public GitHubRateLimiter(int reserve, Clock clock, MeterRegistry meterRegistry) {
+        this.reserve = reserve;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(MetricsService.GITHUB_QUOTA_REMAINING, remaining, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder(MetricsService.GITHUB_QUOTA_LIMIT, limit, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean checkRateLimit(GHRateLimit.Record rateLimitRecord, long count) throws InterruptedException {
+        if (count == 0) {
+            meterRegistry.counter(MetricsService.GITHUB_CALLS).increment();
+        }
+        remaining.set(rateLimitRecord.getRemaining());
+        limit.set(rateLimitRecord.getLimit());
+        resetEpochSeconds.set(rateLimitRecord.getResetEpochSeconds());
+        throttle(
+                "GitHub API",
+                rateLimitRecord.getRemaining(),
+                rateLimitRecord.getLimit(),
+                rateLimitRecord.getResetEpochSeconds());
+        // The record is only refreshed by the next response, so don't ask for a new check
+        return false;
+    }
+
+    /**
+     * Wait if needed before a GraphQL call, using the GraphQL quota of the last GraphQL response
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public void checkGraphQLRateLimit() throws InterruptedException {
+        meterRegistry.counter(MetricsService.GITHUB_CALLS).increment();
+        throttle("GitHub GraphQL", graphQLRemaining.get(), graphQLLimit.get(), graphQLResetEpochSeconds.get());
+    }
+
+    /**
+     * Record the GraphQL quota from the rate limit headers of a GraphQL response
+     * @param headers The response headers
+     */
+    public void updateGraphQLRateLimit(HttpHeaders headers) {
+        try {
+            headers.firstValue("x-ratelimit-remaining").map(Integer::parseInt).ifPresent(graphQLRemaining::set);
+            headers.firstValue("x-ratelimit-limit").map(Integer::parseInt).ifPresent(graphQLLimit::set);
+            headers.firstValue("x-ratelimit-reset").map(Long::parseLong).ifPresent(graphQLResetEpochSeconds::set);
+        } catch (NumberFormatException e) {
+            LOG.debug("Ignoring invalid GraphQL rate limit headers: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delay the calling thread if the quota runs low
+     * @param quota The name of the quota for logging
+     * @param remaining The remaining calls
+     * @param limit The quota of the window
+     * @param resetEpochSeconds The reset of the window
+     * @throws InterruptedException If interrupted while waiting
+     */
+    private void throttle(String quota, int remaining, int limit, long resetEpochSeconds) throws InterruptedException {
+        long delay = computeDelay(remaining, limit, Instant.ofEpochSecond(resetEpochSeconds), clock.instant());
+        if (delay <= 0) {
+            return;
+        }
+        throttledCalls.incrementAndGet();
+        throttledMillis.addAndGet(delay);
+        meterRegistry.counter(MetricsService.GITHUB_THROTTLED_CALLS).increment();
+        if (remaining <= reserve) {
+            LOG.info(
+                    "{} quota almost exhausted ({}/{} remaining). Waiting {}s for the reset",
+                    quota,
+                    remaining,
+                    limit,
+                    delay / 1000);
+        } else {
+            LOG.debug("{} quota low ({}/{} remaining). Delaying call by {}ms", quota, remaining, limit, delay);
+        }
+        Thread.sleep(delay);
+    }
+
+    /**
+     * Compute the delay before the next call
+     * @param remaining The remaining calls
+     * @param limit The quota of the window
+     * @param reset The reset of the window
+     * @param now The current instant
+     * @return The delay in milliseconds
+     */
+    long computeDelay(int remaining, int limit, Instant reset, Instant now) {
+        if (remaining < 0 || limit <= 0) {
+            return 0;
+        }
+        long millisToReset = Math.max(0, reset.toEpochMilli() - now.toEpochMilli());
+        if (remaining <= reserve) {
+            return millisToReset > 0 ? millisToReset + 1000 : 0;
+        }
+        if (remaining < limit * PACING_THRESHOLD) {
+            return Math.min(millisToReset / (remaining - reserve), MAX_PACING_DELAY_MILLIS);
+        }
+        return 0;
+    }
+
+    /**
+     * Remaining calls of the current window as seen on the last response
+     * @return The remaining calls or -1 if unknown
+     */
+    public int getRemaining() {
+        return remaining.get();
+    }
+
+    /**
+     * Quota of the current window as seen on the last response
+     * @return The limit or -1 if unknown
+     */
+    public int getLimit() {
+        return limit.get();
+    }
+
+    /**
+     * Reset of the current window
+     * @return The reset instant
+     */
+    public Instant getReset() {
+        return Instant.ofEpochSecond(resetEpochSeconds.get());
+    }
+
+    /**
+     * Number of calls delayed to preserve the quota
+     * @return The number of delayed calls
+     */
+    public long getThrottledCalls() {
+        return throttledCalls.get();
+    }
+
+    /**
+     * Total time calls were delayed to preserve the quota
+     * @return The delay in milliseconds
+     */
+    public long getThrottledMillis() {
+        return throttledMillis.get();
+    }
+}
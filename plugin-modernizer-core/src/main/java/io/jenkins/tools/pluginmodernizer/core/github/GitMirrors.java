@@ -0,0 +1,171 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.jgit.api.CreateBranchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.URIish;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared object store for git repositories.
+ * Each remote is kept as a bare mirror under the cache. Plugin checkouts borrow the mirror objects through
+ * git alternates, so repeated runs and checkouts of the same remote download and store objects only once.
+ * Checkouts rely on the mirror objects, so mirrors never drop branches deleted on the remote and have
+ * automatic gc and pruning disabled.
+ */
+@SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "Mirror path is computed from the remote URI")
+public class GitMirrors {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GitMirrors.class);
+
+    /**
+     * Directory of the mirrors relative to the cache
+     */
+    public static final String MIRRORS_DIRECTORY = ".git-mirrors";
+
+    /**
+     * Branches kept in the mirror
+     */
+    private static final RefSpec MIRROR_REF_SPEC = new RefSpec("+refs/heads/*:refs/heads/*");
+
+    /**
+     * Expiration of unreachable objects in mirrors
+     */
+    private static final String PRUNE_NEVER = "never";
+
+    private final Path cacheDir;
+
+    /**
+     * One lock per mirror so the same remote is never fetched twice at the same time
+     */
+    private final Map<Path, Object> locks = new ConcurrentHashMap<>();
+
+    public GitMirrors(Path cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Return the mirror directory of a remote. Same repository over SSH or HTTPS share the same mirror
+     * @param remoteUri The remote URI
+     * @return The mirror directory
+     */
+    public Path getMirror(URIish remoteUri) {
+        String path = remoteUri.getPath().replaceAll("^/+", "").replaceAll("(\\.git)?/*$", "");
+        String host = remoteUri.getHost() != null ? remoteUri.getHost() : "local";
+        return cacheDir.resolve(MIRRORS_DIRECTORY).resolve(host).resolve(path + ".git");
+    }
+
+    /**
+     * Create or update the bare mirror of a remote
+     * @param remoteUri The remote URI
+     * @param credentialsProvider The credentials provider
+     * @return The mirror directory
+     * @throws GitAPIException If the mirror cannot be cloned or fetched
+     * @throws IOException If the mirror cannot be opened
+     */
+    public Path update(URIish remoteUri, CredentialsProvider credentialsProvider) throws GitAPIException, IOException {
+        Path mirror = getMirror(remoteUri);
+        synchronized (locks.computeIfAbsent(mirror, key -> new Object())) {
+            if (Files.isDirectory(mirror)) {
+                try (Git git = Git.open(mirror.toFile())) {
+                    disablePruning(git.getRepository());
+                    git.fetch()
+                            .setCredentialsProvider(credentialsProvider)
+                            .setRemote(remoteUri.toString())
+                            .setRefSpecs(MIRROR_REF_SPEC)
+                            .setRemoveDeletedRefs(false)
+                            .call();
+                    LOG.debug("Updated git mirror {} from {}", mirror, remoteUri);
+                }
+            } else {
+                try (Git git = Git.cloneRepository()
+                        .setCredentialsProvider(credentialsProvider)
+                        .setURI(remoteUri.toString())
+                        .setDirectory(mirror.toFile())
+                        .setBare(true)
+                        .setCloneAllBranches(true)
+                        .call()) {
+                    disablePruning(git.getRepository());
+                    LOG.debug("Created git mirror {} from {}", mirror, remoteUri);
+                }
+            }
+        }
+        return mirror;
+    }
+
+    /**
+     * Disable automatic gc and the pruning of unreachable objects of a mirror. Objects no longer reachable from
+     * the mirror refs, for example after a force push, can still be used by plugin checkouts
+     * @param repository The mirror repository
+     * @throws IOException If the configuration cannot be saved
+     */
+    private static void disablePruning(Repository repository) throws IOException {
+        StoredConfig config = repository.getConfig();
+        String section = ConfigConstants.CONFIG_GC_SECTION;
+        if (config.getInt(section, ConfigConstants.CONFIG_KEY_AUTO, -1) == 0
+                && PRUNE_NEVER.equals(config.getString(section, null, ConfigConstants.CONFIG_KEY_PRUNEEXPIRE))) {
+            return;
+        }
+        config.setInt(section, null, ConfigConstants.CONFIG_KEY_AUTO, 0);
+        config.setString(section, null, ConfigConstants.CONFIG_KEY_PRUNEEXPIRE, PRUNE_NEVER);
+        config.save();
+    }
+
+    /**
+     * Check out a remote into a directory using objects of the mirror.
+     * Only refs are copied from the mirror, the origin remote is set to the real remote URI
+     * @param remoteUri The remote URI
+     * @param credentialsProvider The credentials provider
+     * @param directory The directory to check out into
+     * @param defaultBranch The branch to check out
+     * @throws GitAPIException If the mirror update or the checkout failed
+     * @throws IOException If the alternates cannot be written
+     */
+    public void checkout(
+            URIish remoteUri, CredentialsProvider credentialsProvider, File directory, String defaultBranch)
+            throws GitAPIException, IOException {
+        Path mirror = update(remoteUri, credentialsProvider);
+        try (Git git = Git.init().setDirectory(directory).setInitialBranch(defaultBranch).call()) {
+            Path alternates = directory.toPath().resolve(Constants.DOT_GIT).resolve("objects/info/alternates");
+            Files.createDirectories(alternates.getParent());
+            Files.writeString(alternates, mirror.resolve("objects").toAbsolutePath() + "\n", StandardCharsets.UTF_8);
+            git.remoteAdd().setName("origin").setUri(remoteUri).call();
+            // All objects are available through alternates, so this fetch only writes refs
+            git.fetch()
+                    .setRemote(mirror.toUri().toString())
+                    .setRefSpecs(new RefSpec("+refs/heads/*:refs/remotes/origin/*"))
+                    .call();
+            git.checkout()
+                    .setCreateBranch(true)
+                    .setName(defaultBranch)
+                    .setStartPoint("origin/" + defaultBranch)
+                    .setUpstreamMode(CreateBranchCommand.SetupUpstreamMode.TRACK)
+                    .call();
+            LOG.debug("Checked out {} from git mirror {}", remoteUri, mirror);
+        }
+    }
+
+    /**
+     * Return if the repository at the given directory borrows objects from a mirror
+     * @param directory The repository directory
+     * @return True if the repository uses git alternates
+     */
+    public boolean isBorrowing(Path directory) {
+        return Files.isRegularFile(directory.resolve(Constants.DOT_GIT).resolve("objects/info/alternates"));
+    }
+}
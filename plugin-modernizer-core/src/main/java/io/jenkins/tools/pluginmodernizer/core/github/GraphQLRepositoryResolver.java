@@ -0,0 +1,214 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolve information of many repositories with a single GraphQL query per batch
+ * instead of several REST calls per repository.
+ */
+public class GraphQLRepositoryResolver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GraphQLRepositoryResolver.class);
+
+    /**
+     * Number of repositories resolved by a single query. Keeps the query cost and response size reasonable
+     */
+    static final int BATCH_SIZE = 50;
+
+    /**
+     * Maximum number of open pull requests from the same branch name fetched per repository
+     */
+    private static final int MAX_PULL_REQUESTS = 20;
+
+    private final URI endpoint;
+    private final String token;
+    private final HttpClient client;
+    private final GitHubRateLimiter rateLimiter;
+
+    /**
+     * Create a resolver
+     * @param apiUrl The GitHub REST API URL
+     * @param token The token used for authentication
+     * @param rateLimiter The rate limiter shared with the REST clients
+     */
+    public GraphQLRepositoryResolver(URL apiUrl, String token, GitHubRateLimiter rateLimiter) {
+        this.endpoint = getEndpoint(apiUrl);
+        this.token = token;
+        this.rateLimiter = rateLimiter;
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Return the GraphQL endpoint of a GitHub REST API URL. GitHub Enterprise serves it under /api/graphql
+     * @param apiUrl The REST API URL
+     * @return The GraphQL endpoint
+     */
+    static URI getEndpoint(URL apiUrl) {
+        String url = apiUrl.toString().replaceAll("/+$", "");
+        if (url.endsWith("/api/v3")) {
+            return URI.create(url.substring(0, url.length() - "/v3".length()) + "/graphql");
+        }
+        return URI.create(url + "/graphql");
+    }
+
+    /**
+     * Resolve repositories of an organization
+     * @param organization The organization hosting the repositories
+     * @param owner The owner of the forks. Can be null to skip fork lookups
+     * @param branches The repository names with the branch name of their pull request
+     * @return The information by repository full name. Repositories not found or failing to resolve are missing
+     */
+    public Map<String, RepositoryInfo> resolve(String organization, String owner, Map<String, String> branches) {
+        Map<String, RepositoryInfo> result = new HashMap<>();
+        List<String> names = new ArrayList<>(branches.keySet());
+        for (int i = 0; i < names.size(); i += BATCH_SIZE) {
+            List<String> batch = names.subList(i, Math.min(i + BATCH_SIZE, names.size()));
+            try {
+                String response = post(buildQuery(organization, owner, batch, branches));
+                result.putAll(parse(response, organization, owner, batch, branches));
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                LOG.warn("Failed to resolve {} repositories with GraphQL: {}", batch.size(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.warn("Interrupted while resolving repositories with GraphQL");
+                return result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Build the query of a batch. Each repository gets its own aliases
+     * @param organization The organization hosting the repositories
+     * @param owner The owner of the forks
+     * @param names The repository names of the batch
+     * @param branches The branch name of pull requests by repository name
+     * @return The GraphQL query
+     */
+    static String buildQuery(String organization, String owner, List<String> names, Map<String, String> branches) {
+        StringBuilder query = new StringBuilder("query {");
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            query.append(" r%d: repository(owner: %s, name: %s) {".formatted(i, literal(organization), literal(name)));
+            query.append(" isArchived defaultBranchRef { name }");
+            String branch = branches.get(name);
+            if (branch != null) {
+                query.append(" pullRequests(states: OPEN, headRefName: %s, first: %d)".formatted(
+                        literal(branch), MAX_PULL_REQUESTS));
+                query.append(" { nodes { baseRefName headRepositoryOwner { login } } }");
+            }
+            query.append(" }");
+            if (owner != null) {
+                query.append(
+                        " f%d: repository(owner: %s, name: %s) { id }".formatted(i, literal(owner), literal(name)));
+            }
+        }
+        return query.append(" }").toString();
+    }
+
+    /**
+     * Parse the response of a batch
+     * @param response The response body
+     * @param organization The organization hosting the repositories
+     * @param owner The owner of the forks
+     * @param names The repository names of the batch
+     * @param branches The branch name of pull requests by repository name
+     * @return The information by repository full name
+     */
+    static Map<String, RepositoryInfo> parse(
+            String response, String organization, String owner, List<String> names, Map<String, String> branches) {
+        JsonObject json = JsonParser.parseString(response).getAsJsonObject();
+        JsonElement data = json.get("data");
+        if (data == null || data.isJsonNull()) {
+            throw new IllegalStateException("No data in GraphQL response. Errors: " + json.get("errors"));
+        }
+        Map<String, RepositoryInfo> result = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            JsonElement repository = data.getAsJsonObject().get("r" + i);
+            if (repository == null || repository.isJsonNull()) {
+                LOG.debug("Repository {}/{} not resolved with GraphQL", organization, name);
+                continue;
+            }
+            JsonObject repositoryObject = repository.getAsJsonObject();
+            JsonElement defaultBranchRef = repositoryObject.get("defaultBranchRef");
+            String defaultBranch = defaultBranchRef != null && !defaultBranchRef.isJsonNull()
+                    ? defaultBranchRef.getAsJsonObject().get("name").getAsString()
+                    : null;
+            Set<String> heads = new HashSet<>();
+            JsonElement pullRequests = repositoryObject.get("pullRequests");
+            if (pullRequests != null && !pullRequests.isJsonNull()) {
+                for (JsonElement node : pullRequests.getAsJsonObject().getAsJsonArray("nodes")) {
+                    JsonObject pullRequest = node.getAsJsonObject();
+                    JsonElement headOwner = pullRequest.get("headRepositoryOwner");
+                    if (headOwner == null || headOwner.isJsonNull()) {
+                        continue;
+                    }
+                    if (pullRequest.get("baseRefName").getAsString().equals(defaultBranch)) {
+                        String login = headOwner.getAsJsonObject().get("login").getAsString();
+                        heads.add((login + ":" + branches.get(name)).toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            JsonElement fork = owner != null ? data.getAsJsonObject().get("f" + i) : null;
+            boolean forked = fork != null && !fork.isJsonNull();
+            result.put(organization + "/" + name, new RepositoryInfo(
+                    repositoryObject.get("isArchived").getAsBoolean(), defaultBranch, forked, Set.copyOf(heads)));
+        }
+        return result;
+    }
+
+    /**
+     * Send a GraphQL query
+     * @param query The query
+     * @return The response body
+     * @throws IOException If the request failed
+     * @throws InterruptedException If the request was interrupted
+     */
+    private String post(String query) throws IOException, InterruptedException {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("query", query);
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(payload.toString()))
+                .build();
+        rateLimiter.checkGraphQLRateLimit();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        rateLimiter.updateGraphQLRateLimit(response.headers());
+        if (response.statusCode() != 200) {
+            throw new IOException("GraphQL request failed with response code " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    /**
+     * Quote a value as a GraphQL string literal
+     * @param value The value
+     * @return The string literal
+     */
+    private static String literal(String value) {
+        return new JsonPrimitive(value).toString();
+    }
+}
@@ -0,0 +1,23 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Information of a plugin repository resolved in bulk, consulted before issuing REST calls
+ * @param archived If the repository is archived
+ * @param defaultBranch The default branch of the repository
+ * @param forked If the repository is forked to the GitHub owner
+ * @param openPullRequestHeads Lower case heads (owner:branch) of open pull requests targeting the default branch
+ */
+public record RepositoryInfo(boolean archived, String defaultBranch, boolean forked, Set<String> openPullRequestHeads) {
+
+    /**
+     * Return if an open pull request exists from the given head
+     * @param head The head (owner:branch)
+     * @return True if an open pull request exists
+     */
+    public boolean hasOpenPullRequest(String head) {
+        return openPullRequestHeads.contains(head.toLowerCase(Locale.ROOT));
+    }
+}
@@ -1,15 +1,28 @@
 package io.jenkins.tools.pluginmodernizer.core.impl;
 
+import com.google.gson.JsonParseException;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import io.jenkins.tools.pluginmodernizer.core.model.CacheEntry;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
 import io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.time.Clock;
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,20 +35,79 @@ public class CacheManager {
     public static final String HEALTH_SCORE_KEY = "health-score.json";
     public static final String INSTALLATION_STATS_KEY = "plugin-installation-stats.json";
     public static final String PLUGIN_METADATA_CACHE_KEY = "plugin-metadata.json";
+    public static final String PLUGIN_SOURCE_METADATA_CACHE_KEY = "plugin-source-metadata.json";
     public static final String MODERNIZATION_METADATA_CACHE_KEY = "modernization-metadata.json";
     public static final String OPT_OUT_PLUGINS_CACHE_KEY = "opt-out-plugins.json";
+    public static final String PERFORMANCE_REPORT_CACHE_KEY = "performance-report.json";
+    public static final String BUILD_RESULTS_CACHE_KEY = "build-results.json";
     private static final Logger LOG = LoggerFactory.getLogger(CacheManager.class);
 
+    /**
+     * Time to live of entries without a specific policy
+     */
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(1);
+
+    /**
+     * Lock file of a cache directory. Shared by processes using the same cache
+     */
+    static final String LOCK_FILE = ".cache.lock";
+
+    /**
+     * Suffix of entries being written
+     */
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    /**
+     * Number of in-process lock stripes. Also the number of regions locked in the lock file
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Striped locks shared by all cache managers of the process
+     */
+    private static final ReentrantLock[] LOCKS = new ReentrantLock[LOCK_STRIPES];
+
+    static {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            LOCKS[i] = new ReentrantLock();
+        }
+    }
+
     private final Path location;
     private final Clock clock;
     private final boolean expires;
 
+    /**
+     * Registry of the cache requests or null to not record them, like for the caches of plugins
+     */
+    @Nullable
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Time to live of entries by cache key. Large datasets only change daily. Build results are kept for a week
+     * because builds also depend on artifacts resolved from remote repositories
+     */
+    private final Map<String, Duration> timeToLives = new ConcurrentHashMap<>(Map.of(
+            PLUGIN_VERSIONS_CACHE_KEY, Duration.ofDays(1),
+            INSTALLATION_STATS_KEY, Duration.ofDays(1),
+            HEALTH_SCORE_KEY, Duration.ofHours(6),
+            BUILD_RESULTS_CACHE_KEY, Duration.ofDays(7)));
+
     /**
      * Creates a new cache manager
      * @param cache The location of the cache
      */
     public CacheManager(Path cache) {
-        this(cache, Clock.systemDefaultZone(), true);
+        this(cache, null);
+    }
+
+    /**
+     * Creates a new cache manager recording its requests
+     * @param cache The location of the cache
+     * @param meterRegistry The registry of the cache requests or null to not record them
+     */
+    public CacheManager(Path cache, @Nullable MeterRegistry meterRegistry) {
+        this(cache, Clock.systemDefaultZone(), true, meterRegistry);
     }
 
     /**
@@ -45,9 +117,14 @@ public class CacheManager {
      * @param expires Whether the cache expires
      */
     CacheManager(Path cache, Clock clock, boolean expires) {
+        this(cache, clock, expires, null);
+    }
+
+    private CacheManager(Path cache, Clock clock, boolean expires, @Nullable MeterRegistry meterRegistry) {
         this.location = cache;
         this.clock = clock;
         this.expires = expires;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -92,63 +169,203 @@ public class CacheManager {
             throw new ModernizerException("Cache entry path is null");
         }
         Path fileToCache = location.resolve(entry.getPath()).resolve(entry.getKey());
-        JsonUtils.toJsonFile(entry, fileToCache);
+        withLock(fileToCache, "Failed to write cache entry for key: " + entry.getKey(), () -> {
+            // Write aside then rename so readers never see a partially written entry
+            Files.createDirectories(fileToCache.getParent());
+            Path tempFile = Files.createTempFile(fileToCache.getParent(), entry.getKey(), TEMP_FILE_SUFFIX);
+            try {
+                if (entry.isCompact()) {
+                    JsonUtils.toCompactJsonFile(entry, tempFile);
+                } else {
+                    JsonUtils.toJsonFile(entry, tempFile);
+                }
+                try {
+                    Files.move(
+                            tempFile,
+                            fileToCache,
+                            StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, fileToCache, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        });
+    }
+
+    /**
+     * Set the time to live of entries with the given key
+     * @param cacheKey The cache key
+     * @param timeToLive The time to live
+     */
+    public void setTimeToLive(String cacheKey, Duration timeToLive) {
+        timeToLives.put(cacheKey, timeToLive);
+    }
+
+    /**
+     * Get the time to live of entries with the given key
+     * @param cacheKey The cache key
+     * @return The time to live
+     */
+    public Duration getTimeToLive(String cacheKey) {
+        return timeToLives.getOrDefault(cacheKey, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Get the time since a cache entry was written or refreshed
+     * @param path     subdirectory of the object
+     * @param cacheKey key of the object
+     * @return The age or null if the entry doesn't exist
+     */
+    public Duration getAge(Path path, String cacheKey) {
+        try {
+            FileTime lastModifiedTime = Files.getLastModifiedTime(location.resolve(path).resolve(cacheKey));
+            return Duration.between(lastModifiedTime.toInstant(), clock.instant());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new ModernizerException("Failed to read cache entry for key: " + cacheKey, e);
+        }
     }
 
     /**
      * Retrieves a json object from the cache.
      * <p>
      * Will return null if the key can't be found or if it hasn't been
-     * modified for 1 hour
+     * modified for the time to live of the key (1 hour by default)
      *
      * @param path     subdirectory of the object
      * @param cacheKey key to lookup, i.e. update-center
      * @return the cached json object as a string or null
      */
     public <T extends CacheEntry<T>> T get(Path path, String cacheKey, Class<T> clazz) {
+        return get(path, cacheKey, clazz, expires);
+    }
+
+    /**
+     * Retrieves a json object from the cache whatever its age.
+     * <p>
+     * To be used for entries which are validated by their content, like metadata stamped with a source hash
+     *
+     * @param path     subdirectory of the object
+     * @param cacheKey key to lookup, i.e. update-center
+     * @return the cached json object or null
+     */
+    public <T extends CacheEntry<T>> T getIgnoringExpiration(Path path, String cacheKey, Class<T> clazz) {
+        return get(path, cacheKey, clazz, false);
+    }
+
+    private <T extends CacheEntry<T>> T get(Path path, String cacheKey, Class<T> clazz, boolean expires) {
         Path cachedPath = location.resolve(path).resolve(cacheKey);
         try {
             FileTime lastModifiedTime = Files.getLastModifiedTime(cachedPath);
             Duration between = Duration.between(lastModifiedTime.toInstant(), clock.instant());
-            long betweenHours = between.toHours();
 
-            if (betweenHours > 0L) {
+            if (between.compareTo(getTimeToLive(cacheKey)) >= 0) {
                 LOG.debug(
                         "Cache entry expired: {}{}",
                         cacheKey,
                         expires ? ". Will skip it" : ". Will accept it, because expiration is disabled");
                 if (expires) {
+                    countRequest(cacheKey, "expired");
                     return null;
                 }
             }
             LOG.debug("Cache entry found for cache {} at path {} and key {}", location, path, cacheKey);
-            T entry = JsonUtils.fromJson(cachedPath, clazz);
+            // Entries are replaced by rename, so the opened file stays complete without locking
+            T entry;
+            try (Reader reader = Files.newBufferedReader(cachedPath, StandardCharsets.UTF_8)) {
+                entry = JsonUtils.fromJson(reader, clazz);
+            } catch (JsonParseException e) {
+                LOG.warn("Ignoring unreadable cache entry {}: {}", cachedPath, e.getMessage());
+                entry = null;
+            }
+            if (entry == null) {
+                countRequest(cacheKey, "miss");
+                return null;
+            }
             entry.setCacheManager(this);
+            countRequest(cacheKey, "hit");
             return entry;
         } catch (NoSuchFileException e) {
             LOG.debug("Cache entry not found for cache {} at path {} and key {}", location, path, cacheKey);
+            countRequest(cacheKey, "miss");
             return null;
         } catch (IOException e) {
             throw new ModernizerException("Failed to read cache entry for key: " + cacheKey, e);
         }
     }
 
+    private void countRequest(String cacheKey, String result) {
+        if (meterRegistry != null) {
+            meterRegistry.counter(MetricsService.CACHE_REQUESTS, "key", cacheKey, "result", result).increment();
+        }
+    }
+
+    /**
+     * Mark a cache entry as fresh again without rewriting it.
+     * <p>
+     * To be used when the remote service confirmed the cached content is still up to date
+     * @param path     subdirectory of the object
+     * @param cacheKey key of the object
+     */
+    public void touch(Path path, String cacheKey) {
+        Path fileToTouch = location.resolve(path).resolve(cacheKey);
+        withLock(fileToTouch, "Failed to refresh cache entry for key: " + cacheKey, () -> {
+            Files.setLastModifiedTime(fileToTouch, FileTime.from(clock.instant()));
+            LOG.debug("Cache entry refreshed for key: {} at location {}", cacheKey, location);
+        });
+    }
+
     /**
      * Removes a cache entry
      * @param cacheKey The key to remove
      */
     public void remove(Path path, String cacheKey) {
         Path fileToRemove = location.resolve(path).resolve(cacheKey);
-        try {
-            if (Files.exists(fileToRemove)) {
-                Files.delete(fileToRemove);
+        withLock(fileToRemove, "Failed to remove cache entry for key: " + cacheKey, () -> {
+            if (Files.deleteIfExists(fileToRemove)) {
                 LOG.debug("Cache entry removed for key: {} at location {}", cacheKey, location);
             }
+        });
+    }
+
+    /**
+     * Run an operation modifying a cache file while holding its lock.
+     * <p>
+     * Threads are serialized with striped in-process locks and processes sharing the cache directory with an advisory
+     * lock on the region of the lock file matching the stripe
+     * @param file The cache file
+     * @param errorMessage The message of the exception if the operation fails
+     * @param operation The operation
+     */
+    private void withLock(Path file, String errorMessage, CacheOperation operation) {
+        int stripe = Math.floorMod(file.toAbsolutePath().normalize().hashCode(), LOCK_STRIPES);
+        ReentrantLock lock = LOCKS[stripe];
+        lock.lock();
+        try {
+            Files.createDirectories(location);
+            try (FileChannel channel = FileChannel.open(
+                            location.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                    FileLock ignored = channel.lock(stripe, 1, false)) {
+                operation.run();
+            }
         } catch (IOException e) {
-            throw new ModernizerException("Failed to remove cache entry for key: " + cacheKey, e);
+            throw new ModernizerException(errorMessage, e);
+        } finally {
+            lock.unlock();
         }
     }
 
+    /**
+     * An operation on a cache file
+     */
+    @FunctionalInterface
+    private interface CacheOperation {
+        void run() throws IOException;
+    }
+
     /**
      * Move a cache entry to the new cache manager
      * @param cacheManager The cache manager
@@ -0,0 +1,245 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.model.JDK;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
+import io.jenkins.tools.pluginmodernizer.core.model.PluginProcessingException;
+import io.jenkins.tools.pluginmodernizer.core.model.PluginWarning;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verify a plugin with additional JDKs while its main verification runs.
+ * Each JDK builds its own copy of the plugin sources, so builds don't share a target directory.
+ * Builds of all plugins share a bounded pool, which is the CPU budget of the JDK matrix.
+ */
+@SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "Only files of the plugin repository are copied")
+public class JdkMatrixVerifier implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JdkMatrixVerifier.class);
+
+    /**
+     * Directories not copied. They are either build outputs or not needed to build
+     */
+    private static final List<String> IGNORED_DIRECTORIES = List.of(".git", "target", "node_modules");
+
+    /**
+     * The Maven invoker
+     */
+    private final MavenInvoker mavenInvoker;
+
+    /**
+     * The registry of the JDK matrix failures
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Pool running the builds of the JDK matrix
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Create a verifier
+     * @param mavenInvoker The Maven invoker
+     * @param meterRegistry The registry of the JDK matrix failures
+     * @param maxConcurrentBuilds The maximum number of concurrent builds across plugins
+     */
+    public JdkMatrixVerifier(MavenInvoker mavenInvoker, MeterRegistry meterRegistry, int maxConcurrentBuilds) {
+        this.mavenInvoker = mavenInvoker;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger workerCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrentBuilds, runnable -> {
+            Thread thread = new Thread(runnable, "jdk-matrix-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Verify the plugin with the additional JDKs while the main verification runs on the current thread.
+     * Failures of the additional JDKs are added as warnings to the plugin
+     * @param plugin The plugin
+     * @param jdks The additional JDKs
+     * @param tests The fully qualified names of the test classes to run, or null to run all tests
+     * @param verification The main verification
+     * @return The verification result of each additional JDK
+     */
+    public Map<JDK, Boolean> verify(Plugin plugin, Set<JDK> jdks, @Nullable Set<String> tests, Runnable verification) {
+        Map<JDK, Future<PluginWarning>> futures = new EnumMap<>(JDK.class);
+        for (JDK jdk : jdks) {
+            futures.put(jdk, executor.submit(() -> verify(plugin, jdk, tests)));
+        }
+        Map<JDK, Boolean> results = new EnumMap<>(JDK.class);
+        try {
+            verification.run();
+        } finally {
+            // Wait for the builds even if the main verification failed, so their copies are always cleaned up
+            await(plugin, futures, results);
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Wait for the builds of the JDK matrix
+     * @param plugin The plugin
+     * @param futures The builds by JDK
+     * @param results The results by JDK
+     */
+    private void await(Plugin plugin, Map<JDK, Future<PluginWarning>> futures, Map<JDK, Boolean> results) {
+        for (Map.Entry<JDK, Future<PluginWarning>> entry : futures.entrySet()) {
+            JDK jdk = entry.getKey();
+            PluginWarning failure;
+            try {
+                failure = entry.getValue().get();
+            } catch (ExecutionException e) {
+                // Details stay in the local logs, as the cause may refer to local files
+                LOG.warn("Failed to verify plugin {} with JDK {}", plugin.getName(), jdk.getMajor(), e.getCause());
+                failure = new PluginWarning("Failed to verify with JDK " + jdk.getMajor() + ". Unable to build", null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ModernizerException("Interrupted while verifying the JDK matrix of " + plugin.getName(), e);
+            }
+            results.put(jdk, failure == null);
+            if (failure != null) {
+                meterRegistry
+                        .counter(MetricsService.JDK_MATRIX_FAILURES, "jdk", String.valueOf(jdk.getMajor()))
+                        .increment();
+                plugin.addWarning(failure);
+            }
+        }
+    }
+
+    /**
+     * Verify a copy of the plugin with the given JDK.
+     * Errors are recorded on a detached plugin, so they don't interfere with the main verification of the plugin
+     * @param plugin The plugin
+     * @param jdk The JDK
+     * @param tests The test classes to run or null to run all tests
+     * @return The warning describing the failure or null if the plugin verified
+     */
+    private @Nullable PluginWarning verify(Plugin plugin, JDK jdk, @Nullable Set<String> tests) throws IOException {
+        Path module = plugin.getLocalRepository();
+        Path root = getWorkTree(module);
+        Path copy = Settings.getPluginsDirectory(plugin).resolve("jdk-matrix").resolve(String.valueOf(jdk.getMajor()));
+        delete(copy);
+        try {
+            copy(root, copy);
+            Plugin detached = Plugin.build(plugin.getName()).withConfig(plugin.getConfig()).withDetached(true);
+            boolean success = detached.verify(mavenInvoker, copy.resolve(root.relativize(module)), jdk, tests);
+            return describeFailure(detached, jdk, copy, success);
+        } finally {
+            delete(copy);
+        }
+    }
+
+    /**
+     * Describe the failure of a detached plugin.
+     * The message is published in the pull request, so paths of the copy are made relative and the build log is
+     * only kept as local file of the warning
+     * @param detached The detached plugin
+     * @param jdk The JDK
+     * @param copy The copy of the plugin sources
+     * @param success The result of the build
+     * @return The warning describing the last error or null if the build succeeded without errors
+     */
+    static @Nullable PluginWarning describeFailure(Plugin detached, JDK jdk, Path copy, boolean success) {
+        String prefix = "Failed to verify with JDK " + jdk.getMajor() + ". ";
+        if (!detached.hasErrors()) {
+            return success ? null : new PluginWarning(prefix + "Build failed", null);
+        }
+        PluginProcessingException error = detached.getErrors().get(detached.getErrors().size() - 1);
+        String summary = error.getMessage().replace(copy.toAbsolutePath() + copy.getFileSystem().getSeparator(), "");
+        Path logFile = error.getBuildFailure() != null ? error.getBuildFailure().logFile() : null;
+        return new PluginWarning(prefix + summary, logFile);
+    }
+
+    /**
+     * Get the root of the work tree containing the module, so a module can resolve its parent POM
+     * @param module The directory of the module
+     * @return The root of the work tree or the module if not in a Git repository
+     */
+    private static Path getWorkTree(Path module) {
+        try (Repository repository = new FileRepositoryBuilder().findGitDir(module.toFile()).build()) {
+            return repository.getWorkTree().toPath().toAbsolutePath().normalize();
+        } catch (IOException | IllegalArgumentException e) {
+            return module.toAbsolutePath().normalize();
+        }
+    }
+
+    /**
+     * Copy the sources of a work tree
+     * @param source The work tree
+     * @param target The copy
+     */
+    static void copy(Path source, Path target) throws IOException {
+        Path root = source.toAbsolutePath().normalize();
+        try (Stream<Path> stream = Files.walk(root)) {
+            for (Path path : stream.filter(path -> !isIgnored(root.relativize(path))).toList()) {
+                Path destination = target.resolve(root.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(destination);
+                } else {
+                    Files.copy(path, destination, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Return if a path of the work tree is not copied
+     * @param relativePath The path relative to the work tree
+     * @return True if the path is in an ignored directory
+     */
+    private static boolean isIgnored(Path relativePath) {
+        for (Path name : relativePath) {
+            if (IGNORED_DIRECTORIES.contains(name.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Delete a copy if it exists
+     * @param directory The copy
+     */
+    private static void delete(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> stream = Files.walk(directory)) {
+            for (Path path : stream.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import io.jenkins.tools.pluginmodernizer.core.model.BuildFailure;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.maven.shared.invoker.InvocationOutputHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Output handler of a Maven invocation writing the raw build output to a compressed log file.
+ * Lines are scanned while they are written to extract the [ERROR] block, the failing module and the failing tests,
+ * so a failure can be reported without reading the log again.
+ */
+public class MavenBuildLog implements InvocationOutputHandler, Closeable {
+
+    /**
+     * The logger to use
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(MavenBuildLog.class);
+
+    /**
+     * Size of the write buffer
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Maximum number of [ERROR] lines kept for the failure
+     */
+    static final int MAX_ERROR_LINES = 100;
+
+    /**
+     * Maximum number of compressed log files kept per plugin
+     */
+    public static final int MAX_LOG_FILES = 20;
+
+    /**
+     * Prefix of log file names, followed by their creation time
+     */
+    private static final String FILE_PREFIX = "maven-";
+
+    /**
+     * Suffix of log file names
+     */
+    private static final String FILE_SUFFIX = ".log.gz";
+
+    /**
+     * Prefix of error lines
+     */
+    private static final String ERROR_PREFIX = "[ERROR]";
+
+    /**
+     * Prefix of the result line printed by Maven once the reactor ran: BUILD SUCCESS or BUILD FAILURE
+     */
+    private static final String RESULT_PREFIX = "[INFO] BUILD ";
+
+    /**
+     * Failed goal line, giving the failing module
+     */
+    private static final Pattern FAILED_GOAL = Pattern.compile("Failed to execute goal .* on project ([^:\\s]+)");
+
+    /**
+     * Failing test line of Surefire 3: [ERROR] org.example.FooTest.testBar -- Time elapsed: 0.1 s <<< FAILURE!
+     */
+    private static final Pattern FAILED_TEST = Pattern.compile("^(\\S+) -- Time elapsed: .* <<< (?:FAILURE|ERROR)!$");
+
+    /**
+     * Failing test line of Surefire 2: [ERROR] testBar(org.example.FooTest)  Time elapsed: 0.1 sec  <<< FAILURE!
+     */
+    private static final Pattern FAILED_LEGACY_TEST =
+            Pattern.compile("^([\\w$]+)\\(([\\w.$]+)\\)\\s+Time elapsed: .* <<< (?:FAILURE|ERROR)!$");
+
+    /**
+     * The compressed log file
+     */
+    private final Path file;
+
+    /**
+     * Writer to the compressed log file
+     */
+    private final Writer writer;
+
+    /**
+     * The [ERROR] lines, without prefix
+     */
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * The failing tests
+     */
+    private final Set<String> tests = new LinkedHashSet<>();
+
+    /**
+     * The failing module or null if not found yet
+     */
+    private String module;
+
+    /**
+     * If writing to the log file failed. The output is still scanned
+     */
+    private boolean writeFailed;
+
+    /**
+     * If Maven printed the result of the build
+     */
+    private boolean completed;
+
+    /**
+     * Create a new build log
+     * @param file The compressed log file to write
+     * @throws IOException If the log file cannot be created
+     */
+    public MavenBuildLog(Path file) throws IOException {
+        this.file = file;
+        Files.createDirectories(file.getParent());
+        FileChannel channel = FileChannel.open(
+                file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.writer = new BufferedWriter(
+                new OutputStreamWriter(
+                        new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE),
+                        StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+    }
+
+    /**
+     * Get a new log file of an invocation in the given directory
+     * @param directory The log directory of the plugin
+     * @param name The name of the invocation, for example the goal and JDK
+     * @return The log file
+     */
+    public static Path newFile(Path directory, String name) {
+        return directory.resolve("%s%d-%s%s".formatted(FILE_PREFIX, System.currentTimeMillis(), name, FILE_SUFFIX));
+    }
+
+    /**
+     * Delete the oldest log files of a directory, keeping the given number of most recent ones.
+     * Log file names start with their creation time, so sorting them by name sorts them by age
+     * @param directory The log directory of the plugin
+     * @param keep The number of log files to keep
+     */
+    public static void prune(Path directory, int keep) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        } catch (IOException e) {
+            LOG.debug("Unable to list Maven build logs in {}", directory, e);
+            return;
+        }
+        for (Path file : files.subList(0, Math.max(0, files.size() - keep))) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOG.debug("Unable to delete Maven build log {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * Write a line of the build output to the log file and scan it for failures.
+     * Standard output and error are consumed on different threads
+     * @param line The line
+     */
+    @Override
+    public synchronized void consumeLine(String line) {
+        if (line == null) {
+            return;
+        }
+        write(line);
+        if (line.startsWith(ERROR_PREFIX)) {
+            scanError(line.substring(ERROR_PREFIX.length()).strip());
+        } else if (line.startsWith(RESULT_PREFIX)) {
+            completed = true;
+        }
+    }
+
+    /**
+     * Get the compressed log file
+     * @return The log file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the failure extracted from the output so far
+     * @return The build failure
+     */
+    public synchronized BuildFailure getFailure() {
+        return new BuildFailure(module, List.copyOf(tests), List.copyOf(errors), file);
+    }
+
+    /**
+     * Return if Maven printed the result of the build. A failed invocation without result didn't get to build
+     * the plugin, for example because the JVM or the Maven daemon could not start
+     * @return True if the build result was printed
+     */
+    public synchronized boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Write a line to the log file
+     * @param line The line
+     */
+    private void write(String line) {
+        if (writeFailed) {
+            return;
+        }
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            writeFailed = true;
+            LOG.warn("Failed to write Maven build log {}", file, e);
+        }
+    }
+
+    /**
+     * Scan an error line for the failing module and tests
+     * @param error The error line without prefix
+     */
+    private void scanError(String error) {
+        if (error.isEmpty()) {
+            return;
+        }
+        if (errors.size() < MAX_ERROR_LINES) {
+            errors.add(error);
+        }
+        if (module == null && error.startsWith("Failed to execute goal")) {
+            Matcher matcher = FAILED_GOAL.matcher(error);
+            if (matcher.find()) {
+                module = matcher.group(1);
+            }
+        }
+        if (error.endsWith("!") && error.contains("<<<") && !error.startsWith("Tests run:")) {
+            Matcher matcher = FAILED_TEST.matcher(error);
+            if (matcher.matches()) {
+                tests.add(matcher.group(1));
+                return;
+            }
+            matcher = FAILED_LEGACY_TEST.matcher(error);
+            if (matcher.matches()) {
+                tests.add(matcher.group(2) + "." + matcher.group(1));
+            }
+        }
+    }
+}
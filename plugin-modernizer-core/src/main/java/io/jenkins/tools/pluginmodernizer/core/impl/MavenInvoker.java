@@ -3,21 +3,29 @@ package io.jenkins.tools.pluginmodernizer.core.impl;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.model.BuildResults;
 import io.jenkins.tools.pluginmodernizer.core.model.JDK;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
 import io.jenkins.tools.pluginmodernizer.core.model.PluginProcessingException;
 import io.jenkins.tools.pluginmodernizer.core.model.Recipe;
 import io.jenkins.tools.pluginmodernizer.core.utils.JdkFetcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.inject.Inject;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.apache.maven.shared.invoker.DefaultInvocationRequest;
@@ -25,6 +33,12 @@ import org.apache.maven.shared.invoker.InvocationRequest;
 import org.apache.maven.shared.invoker.InvocationResult;
 import org.apache.maven.shared.invoker.Invoker;
 import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +49,12 @@ public class MavenInvoker {
      */
     private static final Logger LOG = LoggerFactory.getLogger(MavenInvoker.class);
 
+    /**
+     * JVM options needed to rewrite outdated plugins on JDK 17+
+     */
+    private static final String ADD_OPENS =
+            "--add-opens java.base/java.lang=ALL-UNNAMED --add-opens java.base/java.io=ALL-UNNAMED --add-opens java.base/java.util=ALL-UNNAMED";
+
     /**
      * The configuration to use
      */
@@ -50,6 +70,28 @@ public class MavenInvoker {
     @Inject
     private Invoker invoker;
 
+    /**
+     * The cache manager storing build results
+     */
+    @Inject
+    private CacheManager cacheManager;
+
+    /**
+     * The registry of the Maven invocation timers
+     */
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The Maven daemon executable or null to fork a new Maven JVM for each invocation
+     */
+    private volatile Path mavenDaemon;
+
+    /**
+     * If the Maven daemon executable was already looked up
+     */
+    private volatile boolean mavenDaemonResolved;
+
     /**
      * Get the maven version
      * @return The maven version
@@ -86,7 +128,142 @@ public class MavenInvoker {
         LOG.debug(
                 "Running maven on directory {}",
                 plugin.getLocalRepository().toAbsolutePath().toFile());
-        invokeGoals(plugin, goals);
+        invokeGoals(plugin, plugin.getLocalRepository(), plugin.getJDK(), goals);
+    }
+
+    /**
+     * Invoke goals on a copy of the plugin with the given JDK, leaving the JDK of the plugin unchanged.
+     * Invocations on different copies can run concurrently
+     * @param plugin The plugin the copy belongs to
+     * @param directory The directory of the copy containing the pom.xml
+     * @param jdk The JDK to use
+     * @param goals The goals to run. For example, "verify"
+     * @return True if the goals succeeded
+     */
+    public boolean invokeGoal(Plugin plugin, Path directory, JDK jdk, String... goals) {
+        LOG.debug(
+                "Running {} phase for plugin {} with JDK {} on directory {}", goals, plugin, jdk.getMajor(), directory);
+        return invokeGoals(plugin, directory, jdk, goals);
+    }
+
+    /**
+     * Invoke build goals on a plugin. The build is skipped if the same build already succeeded for the same
+     * revision of the plugin, and recorded when it succeeds
+     * @param plugin The plugin to build
+     * @param skipIfSucceeded False to always run the build, for example when its outputs are needed
+     * @param goals The goals to run. For example, "verify"
+     */
+    public void invokeBuild(Plugin plugin, boolean skipIfSucceeded, String... goals) {
+        String key = getBuildKey(plugin, goals);
+        if (key == null) {
+            invokeGoal(plugin, goals);
+            return;
+        }
+        Path path = Path.of(plugin.getName());
+        if (skipIfSucceeded) {
+            BuildResults results = cacheManager.get(path, CacheManager.BUILD_RESULTS_CACHE_KEY, BuildResults.class);
+            if (results != null && results.isSuccessful(key)) {
+                LOG.info(
+                        "Build {} of plugin {} with JDK {} already succeeded for this revision. Skipping",
+                        goals[0],
+                        plugin.getName(),
+                        plugin.getJDK() != null ? plugin.getJDK().getMajor() : "default");
+                return;
+            }
+        }
+        int errors = plugin.getErrors().size();
+        invokeGoal(plugin, goals);
+        if (plugin.getErrors().size() == errors) {
+            // Builds of the same plugin can run concurrently on different JDKs
+            synchronized (this) {
+                BuildResults results =
+                        cacheManager.get(path, CacheManager.BUILD_RESULTS_CACHE_KEY, BuildResults.class);
+                if (results == null) {
+                    results = new BuildResults(cacheManager, path);
+                }
+                results.addSuccess(key);
+                results.save();
+            }
+        }
+    }
+
+    /**
+     * Get the key identifying a build of the plugin: its revision, the JDK, the goals and the Maven options.
+     * Maven options include the Maven home, the content of the global and user settings, and the MAVEN_ARGS and
+     * MAVEN_OPTS environment variables. Project options in .mvn/ are part of the revision
+     * @param plugin The plugin
+     * @param goals The goals and arguments of the build
+     * @return The key or null if builds of the plugin cannot be cached
+     */
+    private @Nullable String getBuildKey(Plugin plugin, String... goals) {
+        if (!config.isBuildCache()) {
+            return null;
+        }
+        String revision = getRevision(plugin);
+        if (revision == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            List<String> parts = new ArrayList<>();
+            parts.add(revision);
+            parts.add(plugin.getLocalRepository().getFileName().toString());
+            parts.add(plugin.getJDK() != null ? String.valueOf(plugin.getJDK().getMajor()) : "default");
+            parts.add(String.valueOf(config.getMavenLocalRepo()));
+            parts.add(String.valueOf(config.getVersion()));
+            Path mavenHome = getEffectiveMavenHome();
+            parts.add(mavenHome.toString());
+            parts.add(Objects.toString(System.getenv("MAVEN_ARGS"), ""));
+            parts.add(Objects.toString(System.getenv("MAVEN_OPTS"), ""));
+            parts.addAll(List.of(goals));
+            digest.update(String.join("\n", parts).getBytes(StandardCharsets.UTF_8));
+            updateDigest(digest, mavenHome.resolve("conf").resolve("settings.xml"));
+            updateDigest(digest, Path.of(System.getProperty("user.home"), ".m2", "settings.xml"));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new ModernizerException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Add the content of a Maven settings file to a build key
+     * @param digest The digest of the key
+     * @param settings The settings file, which may not exist
+     */
+    private static void updateDigest(MessageDigest digest, Path settings) {
+        digest.update((byte) 0);
+        if (!Files.isRegularFile(settings)) {
+            return;
+        }
+        try {
+            digest.update(Files.readAllBytes(settings));
+        } catch (IOException e) {
+            // An unreadable file still changes the key, so the build is not skipped against a readable one
+            LOG.debug("Unable to read Maven settings {}", settings, e);
+            digest.update((byte) 1);
+        }
+    }
+
+    /**
+     * Get the commit checked out for the plugin if its working tree has no changes
+     * @param plugin The plugin
+     * @return The commit id or null if not a Git repository or with uncommitted changes
+     */
+    private @Nullable String getRevision(Plugin plugin) {
+        try (Repository repository = new FileRepositoryBuilder()
+                        .findGitDir(plugin.getLocalRepository().toFile())
+                        .build();
+                Git git = new Git(repository)) {
+            ObjectId head = repository.resolve(Constants.HEAD);
+            if (head == null || !git.status().call().isClean()) {
+                LOG.debug("Plugin {} has uncommitted changes. Build results are not cached", plugin.getName());
+                return null;
+            }
+            return head.name();
+        } catch (IOException | GitAPIException | IllegalArgumentException e) {
+            LOG.debug("Unable to get the revision of plugin {}. Build results are not cached", plugin.getName(), e);
+            return null;
+        }
     }
 
     /**
@@ -95,7 +272,11 @@ public class MavenInvoker {
      */
     public void collectMetadata(Plugin plugin) {
         LOG.info("Collecting metadata for plugin {}... Please be patient", plugin);
-        invokeGoals(plugin, getSingleRecipeArgs(Settings.FETCH_METADATA_RECIPE));
+        invokeGoals(
+                plugin,
+                plugin.getLocalRepository(),
+                plugin.getJDK(),
+                getSingleRecipeArgs(Settings.FETCH_METADATA_RECIPE));
         LOG.info("Done");
     }
 
@@ -109,7 +290,7 @@ public class MavenInvoker {
                 "Running recipes {} for plugin {}... Please be patient",
                 config.getRecipe().getName(),
                 plugin);
-        invokeGoals(plugin, getSingleRecipeArgs(config.getRecipe()));
+        invokeGoals(plugin, plugin.getLocalRepository(), plugin.getJDK(), getSingleRecipeArgs(config.getRecipe()));
         LOG.info("Done");
     }
 
@@ -133,13 +314,17 @@ public class MavenInvoker {
     /**
      * Invoke a list of maven goal on the plugin
      * @param plugin The plugin to run the goals on
+     * @param directory The directory of the plugin containing the pom.xml
+     * @param jdk The JDK to use or null for the JDK running Maven
      * @param goals The list of goals to run
+     * @return True if the goals succeeded
      */
-    private void invokeGoals(Plugin plugin, String... goals) {
-        validatePom(plugin);
+    private boolean invokeGoals(Plugin plugin, Path directory, @Nullable JDK jdk, String... goals) {
+        validatePom(plugin, directory);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
-            InvocationRequest request = createInvocationRequest(plugin, goals);
-            JDK jdk = plugin.getJDK();
+            InvocationRequest request = createInvocationRequest(directory, goals);
             if (jdk != null) {
                 Path jdkPath = jdk.getHome(jdkFetcher);
                 request.setJavaHome(jdkPath.toFile());
@@ -148,32 +333,195 @@ public class MavenInvoker {
                 // In order to rewrite on outdated plugins set add-opens
                 if (jdk.getMajor() >= 17) {
                     LOG.debug("Adding --add-opens for JDK 17+");
-                    request.setMavenOpts(
-                            "--add-opens java.base/java.lang=ALL-UNNAMED --add-opens java.base/java.io=ALL-UNNAMED --add-opens java.base/java.util=ALL-UNNAMED");
+                    request.setMavenOpts(ADD_OPENS);
+                }
+            }
+            Path daemon = getMavenDaemon();
+            if (daemon != null) {
+                // The daemon reuses a warm JVM with the same Java home and JVM arguments, so one daemon is kept per JDK
+                request.setMavenExecutable(daemon.toFile());
+                if (jdk != null && jdk.getMajor() >= 17) {
+                    request.addArg("-Dmvnd.jvmArgs=" + ADD_OPENS);
                 }
             }
             request.setBatchMode(true);
             request.setNoTransferProgress(false);
-            request.setErrorHandler((message) -> {
-                LOG.error(plugin.getMarker(), String.format("Something went wrong when running maven: %s", message));
-            });
-            request.setOutputHandler((message) -> {
-                LOG.info(plugin.getMarker(), message);
-            });
-            InvocationResult result = invoker.execute(request);
-            handleInvocationResult(plugin, result);
+            MavenBuildLog buildLog = new MavenBuildLog(getBuildLogFile(plugin, jdk, goals));
+            InvocationResult result = execute(request, buildLog);
+            if (request.getMavenExecutable() != null && isDaemonFailure(result, buildLog)) {
+                LOG.warn(
+                        "Maven daemon failed with code {} before building plugin {}. Retrying with forked Maven. See {}",
+                        result.getExitCode(),
+                        plugin.getName(),
+                        buildLog.getFile());
+                request.setMavenExecutable(null);
+                buildLog = new MavenBuildLog(getBuildLogFile(plugin, jdk, goals));
+                result = execute(request, buildLog);
+                if (result.getExitCode() == 0) {
+                    LOG.warn("Maven daemon disabled for the rest of the run");
+                    mavenDaemon = null;
+                }
+            }
+            LOG.info(plugin.getMarker(), "Maven output written to {}", buildLog.getFile());
+            outcome = result.getExitCode() == 0 ? "success" : "failure";
+            handleInvocationResult(plugin, result, buildLog);
+            return result.getExitCode() == 0;
         } catch (MavenInvocationException | InterruptedException | IOException e) {
             plugin.addError("Maven invocation failed", e);
+            return false;
+        } finally {
+            sample.stop(Timer.builder(MetricsService.MAVEN_INVOCATIONS)
+                    .tag("goal", getGoalTag(goals))
+                    .tag("jdk", jdk != null ? String.valueOf(jdk.getMajor()) : "default")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Get a new compressed log file for an invocation on the plugin.
+     * The oldest log files of the plugin are deleted so at most {@link MavenBuildLog#MAX_LOG_FILES} are kept
+     * @param plugin The plugin
+     * @param jdk The JDK of the invocation or null
+     * @param goals The goals and arguments of the invocation
+     * @return The log file
+     */
+    private Path getBuildLogFile(Plugin plugin, @Nullable JDK jdk, String... goals) {
+        String suffix = jdk != null ? "-jdk" + jdk.getMajor() : "";
+        Path directory = Settings.getPluginsDirectory(plugin).resolve("logs");
+        MavenBuildLog.prune(directory, MavenBuildLog.MAX_LOG_FILES - 1);
+        return MavenBuildLog.newFile(directory, getGoalTag(goals).replace(':', '-') + suffix);
+    }
+
+    /**
+     * Return the goal of an invocation as metric tag. Plugin coordinates are shortened to the artifact id and goal,
+     * so plugin versions don't create new series
+     * @param goals The goals and arguments of the invocation
+     * @return The tag value
+     */
+    private static String getGoalTag(String... goals) {
+        String[] parts = goals[0].split(":");
+        if (parts.length > 2) {
+            return parts[1] + ":" + parts[parts.length - 1];
+        }
+        return goals[0];
+    }
+
+    /**
+     * Execute the request on the Maven daemon if set, falling back to a forked Maven if the daemon cannot be invoked
+     * @param request The invocation request
+     * @param buildLog The log of the invocation, closed once the invocation completes
+     * @return The invocation result
+     * @throws MavenInvocationException If Maven cannot be invoked
+     * @throws IOException If the log cannot be closed
+     */
+    private InvocationResult execute(InvocationRequest request, MavenBuildLog buildLog)
+            throws MavenInvocationException, IOException {
+        try (buildLog) {
+            request.setOutputHandler(buildLog);
+            request.setErrorHandler(buildLog);
+            if (request.getMavenExecutable() == null) {
+                return invoker.execute(request);
+            }
+            try {
+                return invoker.execute(request);
+            } catch (MavenInvocationException e) {
+                LOG.warn("Failed to invoke Maven daemon. Falling back to forked Maven for the rest of the run", e);
+                mavenDaemon = null;
+                request.setMavenExecutable(null);
+                return invoker.execute(request);
+            }
+        }
+    }
+
+    /**
+     * Return if a failed invocation on the Maven daemon failed because of the daemon rather than the build.
+     * The daemon reports errors of its own or of its JVM with a non-zero exit code like a failed build, but Maven
+     * never printed the build result. Such invocations are retried once with forked Maven. The daemon is only
+     * disabled for the rest of the run if the retry succeeds, so a plugin with an invalid POM doesn't disable it
+     * @param result The invocation result
+     * @param buildLog The log of the invocation
+     * @return True if the invocation should be retried with forked Maven
+     */
+    private static boolean isDaemonFailure(InvocationResult result, MavenBuildLog buildLog) {
+        if (result.getExecutionException() != null) {
+            return true;
+        }
+        return result.getExitCode() != 0 && !buildLog.isCompleted();
+    }
+
+    /**
+     * Get the Maven daemon executable if enabled and available
+     * @return The Maven daemon executable or null to fork Maven
+     */
+    private @Nullable Path getMavenDaemon() {
+        if (!config.isMavenDaemon()) {
+            return null;
         }
+        if (!mavenDaemonResolved) {
+            synchronized (this) {
+                if (!mavenDaemonResolved) {
+                    mavenDaemon = detectMavenDaemon(System.getenv("MVND_HOME"), System.getenv("PATH"));
+                    if (mavenDaemon != null) {
+                        LOG.info("Using Maven daemon at {}", mavenDaemon);
+                    } else {
+                        LOG.warn("Maven daemon (mvnd) not found in MVND_HOME or PATH. Falling back to forked Maven");
+                    }
+                    mavenDaemonResolved = true;
+                }
+            }
+        }
+        return mavenDaemon;
+    }
+
+    /**
+     * Use the given Maven daemon executable instead of detecting it
+     * @param mavenDaemon The Maven daemon executable or null to fork Maven
+     */
+    void setMavenDaemon(@Nullable Path mavenDaemon) {
+        this.mavenDaemon = mavenDaemon;
+        this.mavenDaemonResolved = true;
+    }
+
+    /**
+     * Detect the Maven daemon executable from MVND_HOME or PATH
+     * @param mvndHome The value of MVND_HOME or null
+     * @param path The value of PATH or null
+     * @return The Maven daemon executable or null if not found
+     */
+    @Nullable
+    static Path detectMavenDaemon(@Nullable String mvndHome, @Nullable String path) {
+        List<Path> directories = new ArrayList<>();
+        if (mvndHome != null && !mvndHome.isBlank()) {
+            directories.add(Path.of(mvndHome, "bin"));
+        }
+        if (path != null) {
+            for (String entry : path.split(File.pathSeparator)) {
+                if (!entry.isBlank()) {
+                    directories.add(Path.of(entry));
+                }
+            }
+        }
+        for (Path directory : directories) {
+            for (String executable : List.of("mvnd", "mvnd.cmd")) {
+                Path candidate = directory.resolve(executable);
+                if (Files.isRegularFile(candidate) && Files.isExecutable(candidate)) {
+                    return candidate.toAbsolutePath();
+                }
+            }
+        }
+        return null;
     }
 
     /**
      * Validate a pom exist for the given plugin
      * @param plugin The plugin to validate
+     * @param directory The directory of the plugin
      */
-    private void validatePom(Plugin plugin) {
+    private void validatePom(Plugin plugin, Path directory) {
         LOG.debug("Check POM exist for plugin: {}", plugin);
-        if (!plugin.getLocalRepository().resolve("pom.xml").toFile().isFile()) {
+        if (!directory.resolve("pom.xml").toFile().isFile()) {
             plugin.addError("POM file not found");
             throw new PluginProcessingException("POM file not found", plugin);
         }
@@ -345,14 +693,14 @@ public class MavenInvoker {
 
     /**
      * Create an invocation request for the plugin.
-     * @param plugin The plugin to run the goals on
+     * @param directory The directory of the plugin to run the goals on
      * @param args The list of args
      * @return The invocation request
      */
-    private InvocationRequest createInvocationRequest(Plugin plugin, String... args) {
+    private InvocationRequest createInvocationRequest(Path directory, String... args) {
         InvocationRequest request = new DefaultInvocationRequest();
         request.setMavenHome(getEffectiveMavenHome().toFile());
-        request.setPomFile(plugin.getLocalRepository().resolve("pom.xml").toFile());
+        request.setPomFile(directory.resolve("pom.xml").toFile());
         request.addArgs(List.of(args));
         if (Config.isDebug()) {
             request.addArg("-X");
@@ -364,20 +712,15 @@ public class MavenInvoker {
      * Handle invocation result for the plugin
      * @param plugin The plugin
      * @param result The invocation result
+     * @param buildLog The log of the invocation
      */
-    private void handleInvocationResult(Plugin plugin, InvocationResult result) {
+    private void handleInvocationResult(Plugin plugin, InvocationResult result, MavenBuildLog buildLog) {
         if (result.getExitCode() != 0) {
             LOG.error(plugin.getMarker(), "Build failed with code: {}", result.getExitCode());
             if (result.getExecutionException() != null) {
                 plugin.addError("Maven generic exception occurred", result.getExecutionException());
             } else {
-                String errorMessage;
-                if (Config.isDebug()) {
-                    errorMessage = "Build failed with code: " + result.getExitCode();
-                } else {
-                    errorMessage = "Build failed";
-                }
-                plugin.addError(errorMessage);
+                plugin.addError(buildLog.getFailure());
             }
         }
     }
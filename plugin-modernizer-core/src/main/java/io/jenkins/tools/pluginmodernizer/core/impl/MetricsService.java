@@ -0,0 +1,217 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jenkins.tools.pluginmodernizer.core.config.Config;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Optional metrics of a run for live visibility on long campaigns.
+ * Components record their meters on the registry bound by the Guice module, which discards them unless metrics are
+ * enabled. When enabled, the meters are served on a local Prometheus endpoint and/or written to a JSON file.
+ */
+public class MetricsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsService.class);
+
+    // Meter names
+    public static final String PLUGINS_PROCESSED = "modernizer.plugins.processed";
+    public static final String PLUGINS_IN_FLIGHT = "modernizer.plugins.in.flight";
+    public static final String PLUGIN_FAILURES = "modernizer.plugin.failures";
+    public static final String MAVEN_INVOCATIONS = "modernizer.maven.invocations";
+    public static final String GITHUB_CALLS = "modernizer.github.calls";
+    public static final String GITHUB_THROTTLED_CALLS = "modernizer.github.throttled.calls";
+    public static final String GITHUB_QUOTA_REMAINING = "modernizer.github.quota.remaining";
+    public static final String GITHUB_QUOTA_LIMIT = "modernizer.github.quota.limit";
+    public static final String PULL_REQUESTS_OPENED = "modernizer.pull.requests.opened";
+    public static final String CACHE_REQUESTS = "modernizer.cache.requests";
+    public static final String JDK_MATRIX_FAILURES = "modernizer.jdk.matrix.failures";
+
+    /**
+     * Path of the Prometheus endpoint
+     */
+    public static final String PROMETHEUS_PATH = "/metrics";
+
+    /**
+     * Interval between two writes of the JSON file
+     */
+    private static final long FILE_INTERVAL_SECONDS = 30;
+
+    private final int port;
+    private final Path file;
+
+    /**
+     * The registry of the run
+     */
+    private final MeterRegistry registry;
+
+    private boolean started;
+    private HttpServer server;
+    private ScheduledExecutorService fileWriter;
+
+    /**
+     * Create the metrics service. Metrics are enabled if a port or a file is configured
+     * @param config The config
+     * @param registry The registry of the run, a Prometheus registry to serve the meters on a port
+     */
+    public MetricsService(Config config, MeterRegistry registry) {
+        this.port = config.getMetricsPort();
+        this.file = config.getMetricsFile();
+        this.registry = registry;
+    }
+
+    /**
+     * Create the registry of the run
+     * @param config The config
+     * @return A Prometheus registry if metrics are enabled, otherwise a registry discarding all meters
+     */
+    public static MeterRegistry createRegistry(Config config) {
+        if (config.getMetricsPort() > 0 || config.getMetricsFile() != null) {
+            return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        }
+        // Meters of a composite registry without registries are no-op
+        return new CompositeMeterRegistry();
+    }
+
+    /**
+     * Return if metrics are exported
+     * @return True if a port or a file is configured
+     */
+    public boolean isEnabled() {
+        return port > 0 || file != null;
+    }
+
+    /**
+     * Start exporting meters
+     */
+    public synchronized void start() {
+        if (!isEnabled() || started) {
+            return;
+        }
+        if (port > 0) {
+            if (!(registry instanceof PrometheusMeterRegistry prometheusRegistry)) {
+                throw new ModernizerException("Serving metrics on port " + port + " requires a Prometheus registry");
+            }
+            try {
+                server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            } catch (IOException e) {
+                throw new ModernizerException("Unable to serve metrics on port " + port, e);
+            }
+            server.createContext(PROMETHEUS_PATH, exchange -> {
+                byte[] body = prometheusRegistry.scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-endpoint");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+            LOG.info("Serving metrics on http://localhost:{}{}", port, PROMETHEUS_PATH);
+        }
+        if (file != null) {
+            fileWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            fileWriter.scheduleAtFixedRate(
+                    this::writeFile, FILE_INTERVAL_SECONDS, FILE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            LOG.info("Writing metrics to {}", file);
+        }
+        started = true;
+    }
+
+    /**
+     * Stop exporting meters. The JSON file is written a last time with the final values
+     */
+    public synchronized void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (fileWriter != null) {
+            fileWriter.shutdownNow();
+            fileWriter = null;
+            writeFile();
+        }
+    }
+
+    /**
+     * Write the current value of all meters to the JSON file, replacing it atomically for readers
+     */
+    private void writeFile() {
+        List<Map<String, Object>> meters = registry.getMeters().stream()
+                .map(MetricsService::toMap)
+                .toList();
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tempFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                Files.writeString(tempFile, JsonUtils.toJson(meters));
+                try {
+                    Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable to write metrics to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> toMap(Meter meter) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("name", meter.getId().getName());
+        values.put("type", meter.getId().getType().name());
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (Tag tag : meter.getId().getTags()) {
+            tags.put(tag.getKey(), tag.getValue());
+        }
+        values.put("tags", tags);
+        Map<String, Double> measurements = new LinkedHashMap<>();
+        for (Measurement measurement : meter.measure()) {
+            // Gauges of collected objects are NaN, which JSON cannot represent
+            if (Double.isFinite(measurement.getValue())) {
+                measurements.put(measurement.getStatistic().getTagValueRepresentation(), measurement.getValue());
+            }
+        }
+        values.put("measurements", measurements);
+        return values;
+    }
+}
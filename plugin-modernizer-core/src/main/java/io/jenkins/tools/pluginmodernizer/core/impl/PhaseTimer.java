@@ -0,0 +1,81 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import io.jenkins.tools.pluginmodernizer.core.model.PerformanceReport;
+import io.jenkins.tools.pluginmodernizer.core.model.Phase;
+import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Record the time spent by plugins in each processing phase. Safe to use from concurrent plugin workers.
+ */
+public class PhaseTimer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PhaseTimer.class);
+
+    /**
+     * Recorded spans
+     */
+    private final Queue<PerformanceReport.Span> spans = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Start of the run
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Run an action and record its duration as a phase of the plugin
+     * @param plugin The plugin
+     * @param phase The phase
+     * @param action The action
+     */
+    public void run(Plugin plugin, Phase phase, Runnable action) {
+        call(plugin, phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run an action and record its duration as a phase of the plugin, even if it fails
+     * @param plugin The plugin
+     * @param phase The phase
+     * @param action The action
+     * @return The result of the action
+     * @param <T> The result type
+     */
+    public <T> T call(Plugin plugin, Phase phase, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(plugin.getName(), phase, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Record a span
+     * @param plugin The plugin name
+     * @param phase The phase
+     * @param duration The duration
+     */
+    void record(String plugin, Phase phase, Duration duration) {
+        LOG.debug("Plugin {} spent {} ms in phase {}", plugin, duration.toMillis(), phase);
+        spans.add(new PerformanceReport.Span(plugin, phase, duration.toMillis()));
+    }
+
+    /**
+     * Build the report of the spans recorded so far
+     * @param cacheManager The cache manager to store the report
+     * @return The report
+     */
+    public PerformanceReport report(CacheManager cacheManager) {
+        return new PerformanceReport(
+                cacheManager, Duration.ofNanos(System.nanoTime() - startNanos), List.copyOf(spans));
+    }
+}
@@ -0,0 +1,22 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+/**
+ * Stages of the plugin processing pipeline which are limited in concurrency across plugins
+ */
+public enum PipelineStage {
+
+    /**
+     * Git clone and fetch of the plugin repository
+     */
+    FETCH,
+
+    /**
+     * Maven invocations (compile, metadata collection, OpenRewrite, verify)
+     */
+    BUILD,
+
+    /**
+     * GitHub API calls and remote git operations (fork, sync, push, pull request)
+     */
+    GITHUB
+}
@@ -1,22 +1,40 @@
 package io.jenkins.tools.pluginmodernizer.core.impl;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.extractor.MetadataSourceHash;
 import io.jenkins.tools.pluginmodernizer.core.extractor.ModernizationMetadata;
 import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
 import io.jenkins.tools.pluginmodernizer.core.github.GHService;
 import io.jenkins.tools.pluginmodernizer.core.model.DiffStats;
 import io.jenkins.tools.pluginmodernizer.core.model.JDK;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import io.jenkins.tools.pluginmodernizer.core.model.PerformanceReport;
+import io.jenkins.tools.pluginmodernizer.core.model.Phase;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
 import io.jenkins.tools.pluginmodernizer.core.model.PluginProcessingException;
+import io.jenkins.tools.pluginmodernizer.core.model.PluginWarning;
+import io.jenkins.tools.pluginmodernizer.core.model.PreconditionError;
 import io.jenkins.tools.pluginmodernizer.core.model.RepoType;
+import io.jenkins.tools.pluginmodernizer.core.utils.AffectedTests;
+import io.jenkins.tools.pluginmodernizer.core.utils.JdkFetcher;
 import io.jenkins.tools.pluginmodernizer.core.utils.PluginService;
 import io.jenkins.tools.pluginmodernizer.core.utils.StaticPomParser;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.inject.Inject;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +58,40 @@ public class PluginModernizer {
     @Inject
     private CacheManager cacheManager;
 
+    @Inject
+    private JdkFetcher jdkFetcher;
+
+    @Inject
+    private MetricsService metricsService;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Guard the local clone of the metadata repository which is shared by all plugins
+     */
+    private final Object metadataLock = new Object();
+
+    /**
+     * Concurrency limits of the pipeline stages. Unlimited unless plugins are processed concurrently
+     */
+    private StageLimiter stageLimiter = new StageLimiter();
+
+    /**
+     * Time spent by plugins in each phase of the current run
+     */
+    private PhaseTimer phaseTimer = new PhaseTimer();
+
+    /**
+     * Verifier of the JDK matrix of plugins. Null unless the JDK matrix is verified
+     */
+    private JdkMatrixVerifier jdkMatrixVerifier;
+
+    /**
+     * Number of plugins being processed
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
     /**
      * Validate the configuration
      */
@@ -135,6 +187,7 @@ public class PluginModernizer {
      */
     public void cleanCache() {
         cacheManager.wipe();
+        pluginService.invalidate();
     }
 
     /**
@@ -165,19 +218,173 @@ public class PluginModernizer {
         LOG.debug("Dry Run: {}", config.isDryRun());
         LOG.debug("Maven rewrite plugin version: {}", Settings.MAVEN_REWRITE_PLUGIN_VERSION);
 
-        // Fetch plugin versions
-        pluginService.getPluginVersionData();
+        phaseTimer = new PhaseTimer();
+        metricsService.start();
+        meterRegistry.gauge(MetricsService.PLUGINS_IN_FLIGHT, inFlight);
+        if (config.isVerifyJdkMatrix()) {
+            jdkMatrixVerifier = new JdkMatrixVerifier(mavenInvoker, meterRegistry, config.getMaxConcurrentJdkBuilds());
+        }
+        try {
 
-        List<Plugin> plugins = config.getPlugins();
-        plugins.forEach(this::process);
-        printResults(plugins);
+            // Fetch plugin versions
+            pluginService.getPluginVersionData();
+
+            List<Plugin> plugins = config.getPlugins();
+            prefetchRepositories(plugins);
+            prefetchJdks(plugins);
+            processAll(plugins);
+            printResults(plugins);
+            printPerformanceReport(phaseTimer.report(cacheManager));
+            LOG.debug(
+                    "Plugin datasets served from memory: {}, loaded: {}",
+                    pluginService.getDatasetHits(),
+                    pluginService.getDatasetMisses());
+            ghService.logRateLimit();
+        } finally {
+            if (jdkMatrixVerifier != null) {
+                jdkMatrixVerifier.close();
+                jdkMatrixVerifier = null;
+            }
+            metricsService.stop();
+        }
     }
 
     /**
-     * Process a plugin
+     * Resolve the repositories of all plugins at once to save GitHub API calls during processing.
+     * Plugins whose repository name cannot be determined are left out and report the error when processed
+     * @param plugins The list of plugins
+     */
+    private void prefetchRepositories(List<Plugin> plugins) {
+        if (!config.isBulkRepositoryLookup()) {
+            return;
+        }
+        List<Plugin> remotePlugins = new ArrayList<>();
+        for (Plugin plugin : plugins) {
+            if (plugin.isLocal()) {
+                continue;
+            }
+            plugin.withConfig(config);
+            String repositoryName = pluginService.findRepoName(plugin);
+            if (repositoryName == null) {
+                LOG.debug("Unable to determine repository of plugin {}. Skipping bulk lookup", plugin.getName());
+                continue;
+            }
+            remotePlugins.add(plugin.withRepositoryName(repositoryName));
+        }
+        ghService.prefetchRepositories(remotePlugins);
+    }
+
+    /**
+     * Download in the background the JDKs that plugins are known to need from their cached metadata,
+     * so builds don't wait for a JDK download
+     * @param plugins The list of plugins
+     */
+    private void prefetchJdks(List<Plugin> plugins) {
+        if (!config.isJdkPrefetch()) {
+            return;
+        }
+        Set<JDK> jdks = EnumSet.of(JDK.JAVA_25);
+        for (Plugin plugin : plugins) {
+            PluginMetadata cachedMetadata = cacheManager.getIgnoringExpiration(
+                    Path.of(plugin.getName()), CacheManager.PLUGIN_METADATA_CACHE_KEY, PluginMetadata.class);
+            if (cachedMetadata != null && cachedMetadata.getJdks() != null) {
+                jdks.addAll(cachedMetadata.getJdks());
+            }
+        }
+        jdkFetcher.prefetch(jdks.stream()
+                .filter(jdk -> !jdk.isInstalled())
+                .map(JDK::getMajor)
+                .toList());
+    }
+
+    /**
+     * Process all plugins. Plugins are processed concurrently on a bounded worker pool if parallelism is configured
+     * @param plugins The plugins to process
+     */
+    private void processAll(List<Plugin> plugins) {
+        int parallelism = Math.min(config.getParallelism(), plugins.size());
+        if (parallelism <= 1) {
+            plugins.forEach(this::process);
+            return;
+        }
+        LOG.info(
+                "Processing {} plugins with parallelism {} (fetches: {}, builds: {}, GitHub calls: {})",
+                plugins.size(),
+                parallelism,
+                config.getMaxConcurrentFetches(),
+                config.getMaxConcurrentBuilds(),
+                config.getMaxConcurrentGithubCalls());
+        stageLimiter = new StageLimiter(config);
+        AtomicInteger workerCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "plugin-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = plugins.stream()
+                    .<Future<?>>map(plugin -> executor.submit(() -> process(plugin)))
+                    .toList();
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    LOG.error("Unexpected error on plugin worker", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModernizerException("Interrupted while processing plugins", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Process a plugin and record its outcome
      * @param plugin The plugin to process
      */
     private void process(Plugin plugin) {
+        inFlight.incrementAndGet();
+        try {
+            processPlugin(plugin);
+        } finally {
+            inFlight.decrementAndGet();
+            recordOutcome(plugin);
+        }
+    }
+
+    /**
+     * Count the processed plugin and its failures by precondition error or exception type
+     * @param plugin The processed plugin
+     */
+    private void recordOutcome(Plugin plugin) {
+        String outcome;
+        if (plugin.hasErrors() || plugin.hasPreconditionErrors()) {
+            outcome = "failure";
+        } else if (plugin.getMetadata() == null) {
+            outcome = "skipped";
+        } else {
+            outcome = "success";
+        }
+        meterRegistry.counter(MetricsService.PLUGINS_PROCESSED, "outcome", outcome).increment();
+        if (plugin.hasPreconditionErrors()) {
+            for (PreconditionError error : plugin.getPreconditionErrors()) {
+                meterRegistry.counter(MetricsService.PLUGIN_FAILURES, "type", error.name()).increment();
+            }
+        }
+        for (PluginProcessingException error : plugin.getErrors()) {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            meterRegistry.counter(MetricsService.PLUGIN_FAILURES, "type", cause.getClass().getSimpleName()).increment();
+        }
+    }
+
+    /**
+     * Process a plugin. Each step runs within its pipeline stage so that fetches, builds and GitHub operations of
+     * different plugins overlap without exceeding the configured stage limits
+     * @param plugin The plugin to process
+     */
+    private void processPlugin(Plugin plugin) {
         boolean earlySkip = false;
         try {
 
@@ -194,177 +401,260 @@ public class PluginModernizer {
                 return;
             }
 
-            // Determine repo name
-            plugin.withRepositoryName(pluginService.extractRepoName(plugin));
-
-            LOG.debug("Repository name: {}", plugin.getRepositoryName());
-            LOG.debug("Plugin {} latest version: {}", plugin.getName(), pluginService.extractVersion(plugin));
-            LOG.debug("Plugin {} health score: {}", plugin.getName(), pluginService.extractScore(plugin));
-            LOG.debug("Is API plugin {} : {}", plugin.getName(), plugin.isApiPlugin(pluginService));
-            if (plugin.isDeprecated(pluginService) && !config.isAllowDeprecatedPlugins()) {
-                LOG.info("Plugin {} is deprecated. Skipping.", plugin.getName());
-                plugin.addError("Plugin is deprecated. Modernization is blocked by default for deprecated plugins.\n"
-                        + "If you are a maintainer or understand the risks, you can bypass this restriction by adding:\n"
-                        + "  --allow-deprecated-plugins\n"
-                        + "Example:\n"
-                        + "  java -jar ./plugin-modernizer-cli/target/jenkins-plugin-modernizer-999999-SNAPSHOT.jar run --plugins="
-                        + plugin.getName() + " --recipe=<your-recipe> --allow-deprecated-plugins");
+            if (!checkPlugin(plugin)) {
                 return;
             }
-            if (plugin.isArchived(ghService)) {
-                LOG.info("Plugin {} is archived. Skipping.", plugin.getName());
-                plugin.addError("Plugin is archived");
+            fetchPlugin(plugin);
+            if (!preparePlugin(plugin)) {
                 return;
             }
-            if (config.isSkipVerification()) {
-                LOG.info("Skipping verification for plugin {}", plugin.getName());
+            if (!modernizePlugin(plugin)) {
+                return;
+            }
+            if (!config.isFetchMetadataOnly()) {
+                publishPlugin(plugin);
             }
 
-            if (config.isRemoveForks()) {
-                plugin.deleteFork(ghService);
+        }
+        // Uncatched plugin processing errors
+        catch (PluginProcessingException e) {
+            if (!plugin.hasErrors()) {
+                plugin.addError("Plugin processing error. Check the logs at " + plugin.getLogFile(), e);
+            }
+        }
+        // Catch any unexpected exception here
+        catch (Exception e) {
+            if (!plugin.hasErrors()) {
+                plugin.addError("Unexpected processing error. Check the logs at " + plugin.getLogFile(), e);
+            }
+        } finally {
+            if (!config.isSkipMetadata() && !earlySkip) {
+                try {
+                    // collect the modernization metadata and push it to metadata repository if valid
+                    collectModernizationMetadata(plugin);
+                    validateModernizationMetadata(plugin);
+                    // Only proceed with metadata operations if modernization metadata was successfully created
+                    // The metadata repository is a single local clone, so only one plugin can use it at a time
+                    if (plugin.getModernizationMetadata() != null) {
+                        synchronized (metadataLock) {
+                            run(plugin, PipelineStage.GITHUB, Phase.PUBLISH_METADATA, () -> {
+                                plugin.fetchMetadata(ghService);
+                                plugin.forkMetadata(ghService);
+                                plugin.syncMetadata(ghService);
+                                plugin.checkoutMetadataBranch(ghService);
+                                plugin.copyMetadataToLocalMetadataRepo(cacheManager);
+                                plugin.commitMetadata(ghService);
+                                plugin.pushMetadata(ghService);
+                                plugin.openMetadataPullRequest(ghService);
+                            });
+                        }
+                    }
+                } catch (Exception e) {
+                    plugin.addError("Failed to collect modernization metadata for plugin " + plugin.getName(), e);
+                }
             }
-            plugin.fetch(ghService);
+        }
+    }
 
-            // Adjust for multi-module projects after fetching
-            plugin.adjustForMultiModule();
+    /**
+     * Check if the plugin is eligible for modernization
+     * @param plugin The plugin
+     * @return True if the plugin can be processed
+     */
+    private boolean checkPlugin(Plugin plugin) {
+
+        // Determine repo name
+        plugin.withRepositoryName(pluginService.extractRepoName(plugin));
+
+        LOG.debug("Repository name: {}", plugin.getRepositoryName());
+        LOG.debug("Plugin {} latest version: {}", plugin.getName(), pluginService.extractVersion(plugin));
+        LOG.debug("Plugin {} health score: {}", plugin.getName(), pluginService.extractScore(plugin));
+        LOG.debug("Is API plugin {} : {}", plugin.getName(), plugin.isApiPlugin(pluginService));
+        if (plugin.isDeprecated(pluginService) && !config.isAllowDeprecatedPlugins()) {
+            LOG.info("Plugin {} is deprecated. Skipping.", plugin.getName());
+            plugin.addError("Plugin is deprecated. Modernization is blocked by default for deprecated plugins.\n"
+                    + "If you are a maintainer or understand the risks, you can bypass this restriction by adding:\n"
+                    + "  --allow-deprecated-plugins\n"
+                    + "Example:\n"
+                    + "  java -jar ./plugin-modernizer-cli/target/jenkins-plugin-modernizer-999999-SNAPSHOT.jar run --plugins="
+                    + plugin.getName() + " --recipe=<your-recipe> --allow-deprecated-plugins");
+            return false;
+        }
+        if (stageLimiter.call(PipelineStage.GITHUB, () -> plugin.isArchived(ghService))) {
+            LOG.info("Plugin {} is archived. Skipping.", plugin.getName());
+            plugin.addError("Plugin is archived");
+            return false;
+        }
+        if (config.isSkipVerification()) {
+            LOG.info("Skipping verification for plugin {}", plugin.getName());
+        }
+        return true;
+    }
 
-            if (plugin.hasErrors()) {
-                LOG.info("Plugin {} has errors. Will not process this plugin.", plugin.getName());
+    /**
+     * Fetch the plugin repository
+     * @param plugin The plugin
+     */
+    private void fetchPlugin(Plugin plugin) {
+        if (config.isRemoveForks()) {
+            run(plugin, PipelineStage.GITHUB, Phase.FORK, () -> plugin.deleteFork(ghService));
+        }
+        run(plugin, PipelineStage.FETCH, Phase.FETCH, () -> plugin.fetch(ghService));
+
+        // Adjust for multi-module projects after fetching
+        plugin.adjustForMultiModule();
+
+        if (plugin.hasErrors()) {
+            LOG.info("Plugin {} has errors. Will not process this plugin.", plugin.getName());
+        }
+    }
+
+    /**
+     * Compile the plugin, collect its metadata and remediate precondition errors
+     * @param plugin The plugin
+     * @return True if the plugin can be modernized
+     */
+    private boolean preparePlugin(Plugin plugin) {
+
+        // Set the metadata from cache if available
+        plugin.loadMetadata(cacheManager);
+
+        // Compile only if we are able to find metadata
+        // For the moment it's local cache only but later will fetch on remote storage
+        if (!config.isFetchMetadataOnly() && !config.isSkipVerification()) {
+            if (plugin.getMetadata() != null && !plugin.hasPreconditionErrors()) {
+                JDK jdk = call(plugin, PipelineStage.BUILD, Phase.COMPILE, () -> compilePlugin(plugin));
+                LOG.debug("Plugin {} compiled successfully with JDK {}", plugin.getName(), jdk.getMajor());
+            } else {
+                LOG.debug(
+                        "No metadata or precondition errors found for plugin {}. Skipping initial compilation.",
+                        plugin.getName());
             }
+        }
 
-            // Set the metadata from cache if available
-            plugin.loadMetadata(cacheManager);
+        plugin.checkoutBranch(ghService);
+
+        // Minimum JDK to run openrewrite
+        plugin.withJDK(JDK.JAVA_25);
+
+        // Collect metadata and move metadata from the target directory of the plugin to the common cache
+        if (!plugin.hasMetadata() || config.isFetchMetadataOnly()) {
+            run(plugin, PipelineStage.BUILD, Phase.METADATA, () -> collectMetadata(plugin, true, true));
+
+        } else {
+            LOG.debug("Metadata already computed for plugin {}. Using cached metadata.", plugin.getName());
+        }
 
-            // Compile only if we are able to find metadata
-            // For the moment it's local cache only but later will fetch on remote storage
-            if (!config.isFetchMetadataOnly() && !config.isSkipVerification()) {
-                if (plugin.getMetadata() != null && !plugin.hasPreconditionErrors()) {
-                    JDK jdk = compilePlugin(plugin);
-                    LOG.debug("Plugin {} compiled successfully with JDK {}", plugin.getName(), jdk.getMajor());
+        if (plugin.hasPreconditionErrors()) {
+            plugin.getPreconditionErrors().forEach(preconditionError -> {
+                if (preconditionError.remediate(plugin)) {
+                    plugin.removePreconditionError(preconditionError);
+                    LOG.info("Precondition error {} was remediated for plugin {}", preconditionError, plugin.getName());
                 } else {
-                    LOG.debug(
-                            "No metadata or precondition errors found for plugin {}. Skipping initial compilation.",
+                    LOG.info(
+                            "Precondition error {} was not remediated for plugin {}",
+                            preconditionError,
                             plugin.getName());
                 }
-            }
+            });
 
-            plugin.checkoutBranch(ghService);
-
-            // Minimum JDK to run openrewrite
-            plugin.withJDK(JDK.JAVA_25);
+            // Retry to collect metadata after remediation to get up-to-date results
+            if (!config.isFetchMetadataOnly()) {
+                run(plugin, PipelineStage.BUILD, Phase.METADATA, () -> collectMetadata(plugin, true, false));
+            }
+        }
 
-            // Collect metadata and move metadata from the target directory of the plugin to the common cache
-            if (!plugin.hasMetadata() || config.isFetchMetadataOnly()) {
-                collectMetadata(plugin, true);
+        // Check if we still have errors and abort if not remediation is possible
+        if (plugin.hasErrors() || plugin.hasPreconditionErrors()) {
+            plugin.addPreconditionErrors(plugin.getMetadata());
+            LOG.info(
+                    "Skipping plugin {} due to metadata/precondition errors. Check logs for more details.",
+                    plugin.getName());
+            return false;
+        }
 
-            } else {
-                LOG.debug("Metadata already computed for plugin {}. Using cached metadata.", plugin.getName());
+        // Handle outdated plugin or unparsable Jenkinsfile
+        if (plugin.getMetadata().getJdks().stream().allMatch(jdk -> jdk.equals(JDK.getImplicit()))) {
+            LOG.info(
+                    "Plugin look outdated or without Jenkinsfile. Or fail it's parsing, falling back to jenkins.version");
+            StaticPomParser parser = new StaticPomParser(
+                    plugin.getLocalRepository().resolve("pom.xml").toString());
+            String jenkinsVersion = parser.getJenkinsVersion();
+            String baseline = parser.getBaseline();
+            if (baseline != null && jenkinsVersion != null && jenkinsVersion.contains("${jenkins.baseline}")) {
+                jenkinsVersion = jenkinsVersion.replace("${jenkins.baseline}", baseline);
             }
-
-            if (plugin.hasPreconditionErrors()) {
-                plugin.getPreconditionErrors().forEach(preconditionError -> {
-                    if (preconditionError.remediate(plugin)) {
-                        plugin.removePreconditionError(preconditionError);
-                        LOG.info(
-                                "Precondition error {} was remediated for plugin {}",
-                                preconditionError,
-                                plugin.getName());
+            JDK jdk = JDK.get(jenkinsVersion).stream().findFirst().orElse(JDK.min());
+            LOG.info("Found jenkins version {} from pom which support Java {}", jenkinsVersion, jdk.getMajor());
+            plugin.getMetadata().setJdks(Set.of(jdk));
+            plugin.getMetadata().save();
+            LOG.debug("Metadata after fallback: {}", plugin.getMetadata().toJson());
+            if (jdk.getMajor() <= 8) {
+                LOG.info("Need a first compile to generate classes due to Java 8 and lower");
+                run(plugin, PipelineStage.BUILD, Phase.COMPILE, () -> plugin.verifyQuickBuild(mavenInvoker, jdk));
+                if (plugin.hasErrors()) {
+                    if (!config.isSkipVerification()) {
+                        plugin.raiseLastError();
                     } else {
                         LOG.info(
-                                "Precondition error {} was not remediated for plugin {}",
-                                preconditionError,
+                                "Quick build failed for plugin {}. Skip verification is enabled, trying to run recipe any.",
                                 plugin.getName());
+                        plugin.removeErrors();
                     }
-                });
-
-                // Retry to collect metadata after remediation to get up-to-date results
-                if (!config.isFetchMetadataOnly()) {
-                    collectMetadata(plugin, true);
                 }
-            }
 
-            // Check if we still have errors and abort if not remediation is possible
-            if (plugin.hasErrors() || plugin.hasPreconditionErrors()) {
-                plugin.addPreconditionErrors(plugin.getMetadata());
-                LOG.info(
-                        "Skipping plugin {} due to metadata/precondition errors. Check logs for more details.",
-                        plugin.getName());
-                return;
+                // Ensure we recollect metadata
+                run(plugin, PipelineStage.BUILD, Phase.METADATA, () -> collectMetadata(plugin, false, false));
             }
 
-            // Handle outdated plugin or unparsable Jenkinsfile
-            if (plugin.getMetadata().getJdks().stream().allMatch(jdk -> jdk.equals(JDK.getImplicit()))) {
-                LOG.info(
-                        "Plugin look outdated or without Jenkinsfile. Or fail it's parsing, falling back to jenkins.version");
-                StaticPomParser parser = new StaticPomParser(
-                        plugin.getLocalRepository().resolve("pom.xml").toString());
-                String jenkinsVersion = parser.getJenkinsVersion();
-                String baseline = parser.getBaseline();
-                if (baseline != null && jenkinsVersion != null && jenkinsVersion.contains("${jenkins.baseline}")) {
-                    jenkinsVersion = jenkinsVersion.replace("${jenkins.baseline}", baseline);
-                }
-                JDK jdk = JDK.get(jenkinsVersion).stream().findFirst().orElse(JDK.min());
-                LOG.info("Found jenkins version {} from pom which support Java {}", jenkinsVersion, jdk.getMajor());
-                plugin.getMetadata().setJdks(Set.of(jdk));
-                plugin.getMetadata().save();
-                LOG.debug("Metadata after fallback: {}", plugin.getMetadata().toJson());
-                if (jdk.getMajor() <= 8) {
-                    LOG.info("Need a first compile to generate classes due to Java 8 and lower");
-                    plugin.verifyQuickBuild(mavenInvoker, jdk);
-                    if (plugin.hasErrors()) {
-                        if (!config.isSkipVerification()) {
-                            plugin.raiseLastError();
-                        } else {
-                            LOG.info(
-                                    "Quick build failed for plugin {}. Skip verification is enabled, trying to run recipe any.",
-                                    plugin.getName());
-                            plugin.removeErrors();
-                        }
-                    }
-
-                    // Ensure we recollect metadata
-                    collectMetadata(plugin, false);
-                }
-
-                // Reset the repo to not keep changes for build-metadata
-                // and try to set the right JDK and jenkins version
-                if (config.isFetchMetadataOnly()) {
-                    plugin.fetch(ghService);
-                }
+            // Reset the repo to not keep changes for build-metadata
+            // and try to set the right JDK and jenkins version
+            if (config.isFetchMetadataOnly()) {
+                run(plugin, PipelineStage.FETCH, Phase.FETCH, () -> plugin.fetch(ghService));
             }
+        }
 
-            plugin.setJenkinsBaseline(plugin.getMetadata().getProperties().get("jenkins.baseline"));
-            plugin.setJenkinsVersion(plugin.getMetadata().getJenkinsVersion());
-            plugin.setEffectiveBaseline(
-                    plugin.getMetadata().getJenkinsVersion().replaceAll("(\\d+\\.\\d+)\\.\\d+", "$1"));
+        plugin.setJenkinsBaseline(plugin.getMetadata().getProperties().get("jenkins.baseline"));
+        plugin.setJenkinsVersion(plugin.getMetadata().getJenkinsVersion());
+        plugin.setEffectiveBaseline(plugin.getMetadata().getJenkinsVersion().replaceAll("(\\d+\\.\\d+)\\.\\d+", "$1"));
+        return true;
+    }
 
-            // Run OpenRewrite
-            plugin.runOpenRewrite(mavenInvoker);
-            if (plugin.hasErrors()) {
-                LOG.warn(
-                        "Skipping plugin {} due to openrewrite recipes errors. Check logs for more details.",
-                        plugin.getName());
-                return;
-            }
+    /**
+     * Run the recipe on the plugin, verify it and recollect metadata
+     * @param plugin The plugin
+     * @return True if the plugin was modernized without errors
+     */
+    private boolean modernizePlugin(Plugin plugin) {
 
-            // Verify plugin
-            if (!config.isFetchMetadataOnly() && !config.isSkipVerification()) {
-                JDK jdk = verifyPlugin(plugin);
-                LOG.info("Plugin {} verified successfully with JDK {}", plugin.getName(), jdk.getMajor());
-            }
+        // Run OpenRewrite
+        run(plugin, PipelineStage.BUILD, Phase.REWRITE, () -> plugin.runOpenRewrite(mavenInvoker));
+        if (plugin.hasErrors()) {
+            LOG.warn(
+                    "Skipping plugin {} due to openrewrite recipes errors. Check logs for more details.",
+                    plugin.getName());
+            return false;
+        }
 
-            if (plugin.hasErrors()) {
-                LOG.warn(
-                        "Skipping plugin {} due to verification errors after modernization. Check logs for more details.",
-                        plugin.getName());
-                return;
-            }
+        // Verify plugin
+        if (!config.isFetchMetadataOnly() && !config.isSkipVerification()) {
+            JDK jdk = call(plugin, PipelineStage.BUILD, Phase.VERIFY, () -> verifyPlugin(plugin));
+            LOG.info("Plugin {} verified successfully with JDK {}", plugin.getName(), jdk.getMajor());
+        }
 
-            // Recollect metadata after modernization
-            if (!config.isFetchMetadataOnly()) {
+        if (plugin.hasErrors()) {
+            LOG.warn(
+                    "Skipping plugin {} due to verification errors after modernization. Check logs for more details.",
+                    plugin.getName());
+            return false;
+        }
+
+        // Recollect metadata after modernization
+        if (!config.isFetchMetadataOnly()) {
+            run(plugin, PipelineStage.BUILD, Phase.METADATA, () -> {
                 plugin.withJDK(JDK.JAVA_25);
                 plugin.clean(mavenInvoker);
-                collectMetadata(plugin, false);
+                collectMetadata(plugin, false, false);
                 LOG.debug(
                         "Plugin {} metadata after modernization: {}",
                         plugin.getName(),
@@ -374,75 +664,100 @@ public class PluginModernizer {
                 if (!config.isDryRun()) {
                     plugin.clean(mavenInvoker);
                 }
-                plugin.commit(ghService);
-
-                boolean isOptOutPlugin = pluginService
-                        .getOptOutPluginsData()
-                        .getOptedOutPlugins()
-                        .contains(plugin.getName());
-                // Only fork/push/PR if we have any changes and the plugin hasn't opted out for receiving PRs or
-                // override the default behaviour
-                if (!plugin.getModifiedFiles().isEmpty() && (!isOptOutPlugin || config.isOverrideOptOutPlugins())) {
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Commit the changes and open the pull request
+     * @param plugin The plugin
+     */
+    private void publishPlugin(Plugin plugin) {
+        phaseTimer.run(plugin, Phase.COMMIT, () -> plugin.commit(ghService));
+
+        boolean isOptOutPlugin =
+                pluginService.getOptOutPluginsData().getOptedOutPlugins().contains(plugin.getName());
+        // Only fork/push/PR if we have any changes and the plugin hasn't opted out for receiving PRs or
+        // override the default behaviour
+        if (!plugin.getModifiedFiles().isEmpty() && (!isOptOutPlugin || config.isOverrideOptOutPlugins())) {
+            stageLimiter.run(PipelineStage.GITHUB, () -> {
+                phaseTimer.run(plugin, Phase.FORK, () -> {
                     plugin.fork(ghService);
                     plugin.sync(ghService);
-                    plugin.push(ghService);
-                    plugin.openPullRequest(ghService);
-                } else {
-                    if (isOptOutPlugin) {
-                        LOG.info(
-                                "Plugin {} has opted out for receiving PRs. See https://github.com/jenkins-infra/metadata-plugin-modernizer/blob/main/opt-out-plugins.json, Use the --override-opt-out-plugins to override the default behaviour",
-                                plugin.getName());
-                    } else {
-                        LOG.info("No changes were made for plugin {}", plugin.getName());
-                    }
-                }
-
-                if (config.isRemoveForks()) {
-                    plugin.deleteFork(ghService);
-                }
-            }
-
-        }
-        // Uncatched plugin processing errors
-        catch (PluginProcessingException e) {
-            if (!plugin.hasErrors()) {
-                plugin.addError("Plugin processing error. Check the logs at " + plugin.getLogFile(), e);
+                });
+                phaseTimer.run(plugin, Phase.PUSH, () -> plugin.push(ghService));
+                phaseTimer.run(plugin, Phase.PULL_REQUEST, () -> plugin.openPullRequest(ghService));
+            });
+        } else {
+            if (isOptOutPlugin) {
+                LOG.info(
+                        "Plugin {} has opted out for receiving PRs. See https://github.com/jenkins-infra/metadata-plugin-modernizer/blob/main/opt-out-plugins.json, Use the --override-opt-out-plugins to override the default behaviour",
+                        plugin.getName());
+            } else {
+                LOG.info("No changes were made for plugin {}", plugin.getName());
             }
         }
-        // Catch any unexpected exception here
-        catch (Exception e) {
-            if (!plugin.hasErrors()) {
-                plugin.addError("Unexpected processing error. Check the logs at " + plugin.getLogFile(), e);
-            }
-        } finally {
-            if (!config.isSkipMetadata() && !earlySkip) {
-                try {
-                    // collect the modernization metadata and push it to metadata repository if valid
-                    collectModernizationMetadata(plugin);
-                    validateModernizationMetadata(plugin);
-                    // Only proceed with metadata operations if modernization metadata was successfully created
-                    if (plugin.getModernizationMetadata() != null) {
-                        plugin.fetchMetadata(ghService);
-                        plugin.forkMetadata(ghService);
-                        plugin.syncMetadata(ghService);
-                        plugin.checkoutMetadataBranch(ghService);
-                        plugin.copyMetadataToLocalMetadataRepo(cacheManager);
-                        plugin.commitMetadata(ghService);
-                        plugin.pushMetadata(ghService);
-                        plugin.openMetadataPullRequest(ghService);
-                    }
-                } catch (Exception e) {
-                    plugin.addError("Failed to collect modernization metadata for plugin " + plugin.getName(), e);
-                }
-            }
+
+        if (config.isRemoveForks()) {
+            run(plugin, PipelineStage.GITHUB, Phase.FORK, () -> plugin.deleteFork(ghService));
         }
     }
 
     /**
-     * Collect metadata for a plugin
+     * Run an action of a plugin within its pipeline stage and record its duration. Waiting for the stage is not
+     * counted in the phase
      * @param plugin The plugin
+     * @param stage The pipeline stage
+     * @param phase The timed phase
+     * @param action The action
      */
-    private void collectMetadata(Plugin plugin, boolean retryAfterFirstCompile) {
+    private void run(Plugin plugin, PipelineStage stage, Phase phase, Runnable action) {
+        stageLimiter.run(stage, () -> phaseTimer.run(plugin, phase, action));
+    }
+
+    /**
+     * Run an action of a plugin within its pipeline stage, record its duration and return its result
+     * @param plugin The plugin
+     * @param stage The pipeline stage
+     * @param phase The timed phase
+     * @param action The action
+     * @return The result of the action
+     * @param <T> The result type
+     */
+    private <T> T call(Plugin plugin, PipelineStage stage, Phase phase, Supplier<T> action) {
+        return stageLimiter.call(stage, () -> phaseTimer.call(plugin, phase, action));
+    }
+
+    /**
+     * Collect metadata for a plugin.
+     * Metadata collected from pristine sources is also kept as a snapshot stamped with the hash of the sources, and
+     * reused instead of collecting it again while the sources don't change. Other collections, for example after the
+     * rewrite, only update the metadata of the plugin and leave the snapshot untouched
+     * @param plugin The plugin
+     * @param retryAfterFirstCompile True to retry after a first compile if the collection fails
+     * @param pristine True if the sources are the unmodified checkout of the plugin
+     */
+    private void collectMetadata(Plugin plugin, boolean retryAfterFirstCompile, boolean pristine) {
+
+        // Skip the OpenRewrite pass if sources didn't change since last collection
+        Path path = Path.of(plugin.getName());
+        String sourceHash =
+                pristine ? MetadataSourceHash.compute(plugin.getLocalRepository(), config.getVersion()) : null;
+        if (sourceHash != null) {
+            PluginMetadata snapshot = cacheManager.getIgnoringExpiration(
+                    path, CacheManager.PLUGIN_SOURCE_METADATA_CACHE_KEY, PluginMetadata.class);
+            if (snapshot != null && sourceHash.equals(snapshot.getSourceHash())) {
+                LOG.info(
+                        "Sources of plugin {} didn't change since last metadata collection. Using it",
+                        plugin.getName());
+                snapshot.setKey(CacheManager.PLUGIN_METADATA_CACHE_KEY);
+                plugin.setMetadata(snapshot);
+                plugin.enrichMetadata(pluginService);
+                return;
+            }
+        }
+
         LOG.trace("Collecting metadata for plugin {}... Please be patient", plugin.getName());
         plugin.withJDK(JDK.JAVA_25);
         try {
@@ -472,7 +787,13 @@ public class PluginModernizer {
         }
         plugin.copyMetadata(cacheManager);
         plugin.loadMetadata(cacheManager);
+        if (plugin.getMetadata() != null) {
+            plugin.getMetadata().setSourceHash(sourceHash);
+        }
         plugin.enrichMetadata(pluginService);
+        if (sourceHash != null) {
+            cacheManager.copy(cacheManager, path, CacheManager.PLUGIN_SOURCE_METADATA_CACHE_KEY, plugin.getMetadata());
+        }
     }
 
     /**
@@ -591,7 +912,16 @@ public class PluginModernizer {
         plugin.withJDK(jdk);
         plugin.clean(mavenInvoker);
         plugin.format(mavenInvoker);
-        plugin.verify(mavenInvoker);
+        Set<String> tests = selectTests(plugin);
+        Set<JDK> matrix = getJdkMatrix(plugin, jdk);
+        if (jdkMatrixVerifier != null && !matrix.isEmpty()) {
+            // Other JDKs build concurrently, so they run the whole suite instead of waiting for the affected tests
+            Set<String> matrixTests =
+                    config.getVerificationMode() == Config.VerificationMode.AFFECTED_THEN_FULL ? null : tests;
+            jdkMatrixVerifier.verify(plugin, matrix, matrixTests, () -> runTests(plugin, tests));
+        } else {
+            runTests(plugin, tests);
+        }
         if (plugin.hasErrors()) {
             LOG.info("Plugin {} failed to verify with JDK {}", plugin.getName(), jdk.getMajor());
             plugin.withoutErrors();
@@ -601,6 +931,63 @@ public class PluginModernizer {
         return jdk;
     }
 
+    /**
+     * Get the other JDKs of the Jenkinsfile supported by the Jenkins version of the plugin
+     * @param plugin The plugin
+     * @param jdk The JDK of the main verification
+     * @return The JDKs to verify concurrently with the main verification
+     */
+    private Set<JDK> getJdkMatrix(Plugin plugin, JDK jdk) {
+        PluginMetadata metadata = plugin.getMetadata();
+        Set<JDK> jdks = EnumSet.noneOf(JDK.class);
+        if (metadata.getJdks() == null) {
+            return jdks;
+        }
+        for (JDK matrixJdk : metadata.getJdks()) {
+            if (matrixJdk != jdk && matrixJdk.supported(metadata.getJenkinsVersion())) {
+                jdks.add(matrixJdk);
+            }
+        }
+        return jdks;
+    }
+
+    /**
+     * Select the tests to run according to the verification mode
+     * @param plugin The plugin to verify
+     * @return The fully qualified names of the test classes to run, or null to run all tests
+     */
+    private @Nullable Set<String> selectTests(Plugin plugin) {
+        Config.VerificationMode mode = config.getVerificationMode();
+        if (mode != Config.VerificationMode.AFFECTED && mode != Config.VerificationMode.AFFECTED_THEN_FULL) {
+            return null;
+        }
+        Path module = plugin.getLocalRepository();
+        Set<String> changedFiles = AffectedTests.getChangedFiles(module, plugin.getModifiedFiles());
+        Set<String> tests = changedFiles != null ? AffectedTests.select(module, changedFiles) : null;
+        if (tests == null) {
+            LOG.info("Unable to select the tests affected by the changes of plugin {}. Running all tests", plugin);
+        }
+        return tests;
+    }
+
+    /**
+     * Verify the plugin running the tests selected by the verification mode
+     * @param plugin The plugin to verify
+     * @param tests The selected test classes, or null to run all tests
+     */
+    private void runTests(Plugin plugin, @Nullable Set<String> tests) {
+        if (tests == null) {
+            plugin.verify(mavenInvoker);
+            return;
+        }
+        LOG.debug("Tests of plugin {} affected by the changes: {}", plugin.getName(), tests);
+        plugin.verifyTests(mavenInvoker, tests);
+        if (config.getVerificationMode() == Config.VerificationMode.AFFECTED_THEN_FULL && !plugin.hasErrors()) {
+            LOG.info("Affected tests of plugin {} passed. Running all tests", plugin.getName());
+            plugin.verify(mavenInvoker);
+        }
+    }
+
     /**
      * Collect results from the plugins and display a summary
      * @param plugins The plugins
@@ -614,6 +1001,9 @@ public class PluginModernizer {
             if (plugin.hasErrors()) {
                 for (PluginProcessingException error : plugin.getErrors()) {
                     LOG.error("Error: {}", error.getMessage());
+                    if (error.getBuildFailure() != null) {
+                        LOG.error("Build log: {}", error.getBuildFailure().logFile());
+                    }
                     if (config.isDebug()) {
                         LOG.error("Stacktrace: ", error);
                         break;
@@ -646,10 +1036,52 @@ public class PluginModernizer {
             else {
                 LOG.info("Plugin {} was skipped", plugin.getName());
             }
+            for (PluginWarning warning : plugin.getWarnings()) {
+                LOG.warn("Warning: {}", warning.message());
+                if (warning.logFile() != null) {
+                    LOG.warn("Build log: {}", warning.logFile());
+                }
+            }
             LOG.info("*************");
         }
     }
 
+    /**
+     * Display the time spent per phase and plugin, and store the report in the cache
+     * @param report The performance report
+     */
+    private void printPerformanceReport(PerformanceReport report) {
+        if (report.getSpans().isEmpty()) {
+            return;
+        }
+        LOG.info("*************");
+        LOG.info("Performance report (wall time {})", formatMillis(report.getWallTimeMillis()));
+        report.getPhases()
+                .forEach((phase, summary) -> LOG.info(
+                        "Phase {}: {} run(s), total {}, p50 {}, p95 {}, max {}",
+                        phase,
+                        summary.count(),
+                        formatMillis(summary.totalMillis()),
+                        formatMillis(summary.p50Millis()),
+                        formatMillis(summary.p95Millis()),
+                        formatMillis(summary.maxMillis())));
+        LOG.info(
+                "Time share: Maven {}%, git {}%, GitHub {}%",
+                Math.round(report.getShare(Phase.Kind.MAVEN) * 100),
+                Math.round(report.getShare(Phase.Kind.GIT) * 100),
+                Math.round(report.getShare(Phase.Kind.GITHUB) * 100));
+        report.getSlowestPlugins()
+                .forEach(summary ->
+                        LOG.info("Slow plugin: {} ({})", summary.plugin(), formatMillis(summary.totalMillis())));
+        cacheManager.put(report);
+        LOG.info("Performance report saved to cache as {}", CacheManager.PERFORMANCE_REPORT_CACHE_KEY);
+        LOG.info("*************");
+    }
+
+    private static String formatMillis(long millis) {
+        return String.format("%.1fs", millis / 1000.0);
+    }
+
     private void printModifiedFiles(Plugin plugin) {
         if (plugin.getModifiedFiles().isEmpty()) {
             LOG.info("Recipe didn't make any change.");
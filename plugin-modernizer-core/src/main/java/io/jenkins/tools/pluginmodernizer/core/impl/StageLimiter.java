@@ -0,0 +1,90 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import io.jenkins.tools.pluginmodernizer.core.config.Config;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Limit the number of plugins that can be in a given pipeline stage at the same time.
+ * Waiting plugins are queued in arrival order. A stage already held by the current thread is re-entered without
+ * taking a new permit.
+ */
+public class StageLimiter {
+
+    /**
+     * Permits per stage. A stage without permits is unlimited
+     */
+    private final Map<PipelineStage, Semaphore> permits = new EnumMap<>(PipelineStage.class);
+
+    /**
+     * Stages held by the current thread
+     */
+    private final ThreadLocal<Set<PipelineStage>> held =
+            ThreadLocal.withInitial(() -> EnumSet.noneOf(PipelineStage.class));
+
+    /**
+     * Create a limiter without any limit
+     */
+    public StageLimiter() {}
+
+    /**
+     * Create a limiter from the configured stage limits
+     * @param config The config
+     */
+    public StageLimiter(Config config) {
+        register(PipelineStage.FETCH, config.getMaxConcurrentFetches());
+        register(PipelineStage.BUILD, config.getMaxConcurrentBuilds());
+        register(PipelineStage.GITHUB, config.getMaxConcurrentGithubCalls());
+    }
+
+    /**
+     * Run an action within the given stage
+     * @param stage The stage
+     * @param action The action
+     */
+    public void run(PipelineStage stage, Runnable action) {
+        call(stage, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run an action within the given stage and return its result
+     * @param stage The stage
+     * @param action The action
+     * @return The result of the action
+     * @param <T> The result type
+     */
+    public <T> T call(PipelineStage stage, Supplier<T> action) {
+        Semaphore semaphore = permits.get(stage);
+        Set<PipelineStage> stages = held.get();
+        if (semaphore == null || stages.contains(stage)) {
+            return action.get();
+        }
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModernizerException("Interrupted while waiting for the " + stage + " stage", e);
+        }
+        stages.add(stage);
+        try {
+            return action.get();
+        } finally {
+            stages.remove(stage);
+            semaphore.release();
+        }
+    }
+
+    private void register(PipelineStage stage, int limit) {
+        if (limit > 0) {
+            permits.put(stage, new Semaphore(limit, true));
+        }
+    }
+}
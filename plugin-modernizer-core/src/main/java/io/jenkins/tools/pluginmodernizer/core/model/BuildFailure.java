@@ -0,0 +1,40 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Failure extracted from the output of a Maven build
+ * @param module The artifact id of the failing module or null if unknown
+ * @param tests The failing tests, as class and method names
+ * @param errors The [ERROR] lines of the build, without prefix
+ * @param logFile The compressed log file of the build
+ */
+public record BuildFailure(String module, List<String> tests, List<String> errors, Path logFile) {
+
+    /**
+     * Maximum number of failing tests shown in the summary
+     */
+    private static final int SUMMARY_TESTS = 5;
+
+    /**
+     * Get a one line summary of the failure
+     * @return The summary
+     */
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder("Build failed");
+        if (module != null) {
+            summary.append(" in module ").append(module);
+        }
+        if (!tests.isEmpty()) {
+            summary.append(". Failing tests: ")
+                    .append(String.join(", ", tests.subList(0, Math.min(tests.size(), SUMMARY_TESTS))));
+            if (tests.size() > SUMMARY_TESTS) {
+                summary.append(" and ").append(tests.size() - SUMMARY_TESTS).append(" more");
+            }
+        } else if (!errors.isEmpty()) {
+            summary.append(": ").append(errors.get(0));
+        }
+        return summary.toString();
+    }
+}
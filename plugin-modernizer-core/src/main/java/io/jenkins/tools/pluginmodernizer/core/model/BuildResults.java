@@ -0,0 +1,59 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Successful Maven builds of a plugin. Each build is identified by a key hashing the revision of the plugin,
+ * the JDK, the goals and the Maven options, so a build with the same key doesn't need to run again.
+ */
+public class BuildResults extends CacheEntry<BuildResults> {
+
+    /**
+     * Maximum number of builds kept, oldest are dropped first
+     */
+    public static final int MAX_BUILDS = 50;
+
+    /**
+     * Keys of the successful builds, oldest first
+     */
+    private List<String> successes = new ArrayList<>();
+
+    public BuildResults(CacheManager cacheManager, Path path) {
+        super(cacheManager, BuildResults.class, CacheManager.BUILD_RESULTS_CACHE_KEY, path);
+    }
+
+    /**
+     * Return if the build already succeeded
+     * @param key The key of the build
+     * @return True if the build succeeded
+     */
+    public boolean isSuccessful(String key) {
+        return successes != null && successes.contains(key);
+    }
+
+    /**
+     * Record a successful build
+     * @param key The key of the build
+     */
+    public void addSuccess(String key) {
+        if (successes == null) {
+            successes = new ArrayList<>();
+        }
+        successes.remove(key);
+        successes.add(key);
+        while (successes.size() > MAX_BUILDS) {
+            successes.remove(0);
+        }
+    }
+
+    /**
+     * Get the keys of the successful builds
+     * @return The keys, oldest first
+     */
+    public List<String> getSuccesses() {
+        return successes != null ? List.copyOf(successes) : List.of();
+    }
+}
@@ -20,6 +20,16 @@ public abstract class CacheEntry<T extends CacheEntry<T>> {
      */
     private String path;
 
+    /**
+     * ETag of the response the object was downloaded from
+     */
+    private String etag;
+
+    /**
+     * Last-Modified date of the response the object was downloaded from
+     */
+    private String lastModified;
+
     /**
      * Cache manager
      */
@@ -189,6 +199,47 @@ public abstract class CacheEntry<T extends CacheEntry<T>> {
         this.path = path.toString();
     }
 
+    /**
+     * Return if the entry is stored as compact JSON instead of pretty printed JSON.
+     * To be enabled by large datasets which are not meant to be read by humans
+     * @return True to store compact JSON
+     */
+    public boolean isCompact() {
+        return false;
+    }
+
+    /**
+     * Return the ETag of the response the object was downloaded from
+     * @return The ETag or null
+     */
+    public final String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Set the ETag of the response the object was downloaded from
+     * @param etag The ETag
+     */
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    /**
+     * Return the Last-Modified date of the response the object was downloaded from
+     * @return The Last-Modified date or null
+     */
+    public final String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Set the Last-Modified date of the response the object was downloaded from
+     * @param lastModified The Last-Modified date
+     */
+    public void setLastModified(String lastModified) {
+        this.lastModified = lastModified;
+    }
+
     /**
      * Return the absolute path of the object
      * @return The absolute path
@@ -132,7 +132,15 @@ public enum JDK {
      * @throws InterruptedException If an error occurs
      */
     public Path getHome(JdkFetcher jdkFetcher) throws IOException, InterruptedException {
-        return Files.isDirectory(getDefaultSdkMan()) ? getDefaultSdkMan() : jdkFetcher.getJdkPath(major);
+        return isInstalled() ? getDefaultSdkMan() : jdkFetcher.getJdkPath(major);
+    }
+
+    /**
+     * Return if the JDK is installed with SDKMAN and doesn't need to be downloaded
+     * @return True if installed
+     */
+    public boolean isInstalled() {
+        return Files.isDirectory(getDefaultSdkMan());
     }
 
     /**
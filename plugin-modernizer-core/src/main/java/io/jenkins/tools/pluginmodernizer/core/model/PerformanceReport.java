@@ -0,0 +1,161 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Timing of a run: every timed phase of every plugin and their aggregation
+ */
+public class PerformanceReport extends CacheEntry<PerformanceReport> {
+
+    /**
+     * Number of plugins listed as slowest
+     */
+    public static final int SLOWEST_PLUGINS = 5;
+
+    /**
+     * Wall time of the run in milliseconds
+     */
+    private long wallTimeMillis;
+
+    /**
+     * Timed phases of all plugins in completion order
+     */
+    private List<Span> spans;
+
+    /**
+     * Statistics of each phase that ran
+     */
+    private Map<Phase, PhaseSummary> phases;
+
+    /**
+     * Total time spent per kind of phase in milliseconds
+     */
+    private Map<Phase.Kind, Long> kinds;
+
+    /**
+     * Plugins which spent the most time in timed phases, slowest first
+     */
+    private List<PluginSummary> slowestPlugins;
+
+    public PerformanceReport(CacheManager cacheManager) {
+        super(cacheManager, PerformanceReport.class, CacheManager.PERFORMANCE_REPORT_CACHE_KEY, Path.of("."));
+    }
+
+    /**
+     * Create the report of a run
+     * @param cacheManager The cache manager
+     * @param wallTime The wall time of the run
+     * @param spans The timed phases
+     */
+    public PerformanceReport(CacheManager cacheManager, Duration wallTime, List<Span> spans) {
+        this(cacheManager);
+        this.wallTimeMillis = wallTime.toMillis();
+        this.spans = List.copyOf(spans);
+        this.phases = new EnumMap<>(Phase.class);
+        this.kinds = new EnumMap<>(Phase.Kind.class);
+        Map<Phase, List<Long>> durations = spans.stream()
+                .collect(Collectors.groupingBy(
+                        Span::phase,
+                        () -> new EnumMap<>(Phase.class),
+                        Collectors.mapping(Span::durationMillis, Collectors.toList())));
+        durations.forEach((phase, values) -> {
+            List<Long> sorted = values.stream().sorted().toList();
+            long total = sorted.stream().mapToLong(Long::longValue).sum();
+            phases.put(
+                    phase,
+                    new PhaseSummary(
+                            sorted.size(),
+                            total,
+                            percentile(sorted, 50),
+                            percentile(sorted, 95),
+                            sorted.getLast()));
+            kinds.merge(phase.getKind(), total, Long::sum);
+        });
+        Map<String, Long> plugins = new LinkedHashMap<>();
+        spans.forEach(span -> plugins.merge(span.plugin(), span.durationMillis(), Long::sum));
+        this.slowestPlugins = plugins.entrySet().stream()
+                .map(entry -> new PluginSummary(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(PluginSummary::totalMillis).reversed())
+                .limit(SLOWEST_PLUGINS)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values
+     */
+    private static long percentile(List<Long> sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(rank, 1) - 1);
+    }
+
+    /**
+     * Get the wall time of the run
+     * @return The wall time in milliseconds
+     */
+    public long getWallTimeMillis() {
+        return wallTimeMillis;
+    }
+
+    /**
+     * Get the timed phases of all plugins
+     * @return The spans
+     */
+    public List<Span> getSpans() {
+        return spans;
+    }
+
+    /**
+     * Get the statistics of each phase that ran
+     * @return The statistics by phase
+     */
+    public Map<Phase, PhaseSummary> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Get the share of the time spent in timed phases for a kind of phase
+     * @param kind The kind
+     * @return The share between 0 and 1
+     */
+    public double getShare(Phase.Kind kind) {
+        long total = kinds.values().stream().mapToLong(Long::longValue).sum();
+        if (total == 0) {
+            return 0;
+        }
+        return (double) kinds.getOrDefault(kind, 0L) / total;
+    }
+
+    /**
+     * Get the plugins which spent the most time in timed phases
+     * @return The slowest plugins, slowest first
+     */
+    public List<PluginSummary> getSlowestPlugins() {
+        return slowestPlugins;
+    }
+
+    /**
+     * A timed phase of a plugin
+     */
+    public record Span(String plugin, Phase phase, long durationMillis) implements Serializable {}
+
+    /**
+     * Statistics of a phase across plugins
+     */
+    public record PhaseSummary(int count, long totalMillis, long p50Millis, long p95Millis, long maxMillis)
+            implements Serializable {}
+
+    /**
+     * Time spent by a plugin in timed phases
+     */
+    public record PluginSummary(String plugin, long totalMillis) implements Serializable {}
+}
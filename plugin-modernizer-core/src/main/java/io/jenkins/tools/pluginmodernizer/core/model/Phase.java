@@ -0,0 +1,80 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+/**
+ * Timed phases of the processing of a plugin
+ */
+public enum Phase {
+
+    /**
+     * Clone or fetch of the plugin repository
+     */
+    FETCH(Kind.GIT),
+
+    /**
+     * Compilation of the plugin before modernization
+     */
+    COMPILE(Kind.MAVEN),
+
+    /**
+     * Collection of the plugin metadata
+     */
+    METADATA(Kind.MAVEN),
+
+    /**
+     * OpenRewrite run of the recipe
+     */
+    REWRITE(Kind.MAVEN),
+
+    /**
+     * Verification of the modernized plugin
+     */
+    VERIFY(Kind.MAVEN),
+
+    /**
+     * Commit of the changes
+     */
+    COMMIT(Kind.GIT),
+
+    /**
+     * Creation, sync or deletion of the fork
+     */
+    FORK(Kind.GITHUB),
+
+    /**
+     * Push of the changes to the fork
+     */
+    PUSH(Kind.GIT),
+
+    /**
+     * Opening of the pull request
+     */
+    PULL_REQUEST(Kind.GITHUB),
+
+    /**
+     * Publication of the modernization metadata to the metadata repository
+     */
+    PUBLISH_METADATA(Kind.GITHUB);
+
+    /**
+     * What a phase spends its time on
+     */
+    public enum Kind {
+        MAVEN,
+        GIT,
+        GITHUB
+    }
+
+    private final Kind kind;
+
+    Phase(Kind kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Return what the phase spends its time on
+     * @return The kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+}
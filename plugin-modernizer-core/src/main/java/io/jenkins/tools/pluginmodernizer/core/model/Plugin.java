@@ -1,10 +1,12 @@
 package io.jenkins.tools.pluginmodernizer.core.model;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
 import io.jenkins.tools.pluginmodernizer.core.extractor.MetadataFlag;
 import io.jenkins.tools.pluginmodernizer.core.extractor.ModernizationMetadata;
 import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
+import io.jenkins.tools.pluginmodernizer.core.extractor.StaticMetadataExtractor;
 import io.jenkins.tools.pluginmodernizer.core.github.GHService;
 import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
 import io.jenkins.tools.pluginmodernizer.core.impl.MavenInvoker;
@@ -140,6 +142,16 @@ public class Plugin {
      */
     private final List<PluginProcessingException> errors = new LinkedList<>();
 
+    /**
+     * Issues that don't fail the processing of the plugin but are reported with its results
+     */
+    private final List<PluginWarning> warnings = new LinkedList<>();
+
+    /**
+     * True if this is a copy of the plugin whose errors are reported by the plugin instead of being logged
+     */
+    private boolean detached;
+
     /**
      * List of modified files(added, modified, deleted) in the plugin
      */
@@ -201,6 +213,17 @@ public class Plugin {
         return this;
     }
 
+    /**
+     * Set if the plugin is a copy whose errors are reported by the plugin it was copied from.
+     * Errors of a detached plugin are only logged at debug level
+     * @param detached Detached flag
+     * @return Plugin object
+     */
+    public Plugin withDetached(boolean detached) {
+        this.detached = detached;
+        return this;
+    }
+
     /**
      * Set the local repository path of the plugin
      * @param localRepository Local repository path
@@ -468,11 +491,15 @@ public class Plugin {
      * @param e The exception
      */
     public void addError(String message, Exception e) {
-        LOG.error(getMarker(), message, e);
-        if (config.isDebug()) {
-            LOG.error(message, e);
+        if (detached) {
+            LOG.debug(message, e);
         } else {
-            LOG.error(message);
+            LOG.error(getMarker(), message, e);
+            if (config.isDebug()) {
+                LOG.error(message, e);
+            } else {
+                LOG.error(message);
+            }
         }
         errors.add(new PluginProcessingException(message, e, this));
     }
@@ -482,10 +509,53 @@ public class Plugin {
      * @param message The message
      */
     public void addError(String message) {
-        LOG.error(message);
+        if (detached) {
+            LOG.debug(message);
+        } else {
+            LOG.error(message);
+        }
         errors.add(new PluginProcessingException(message, this));
     }
 
+    /**
+     * Add the failure of a Maven build to the plugin
+     * @param buildFailure The failure extracted from the build output
+     */
+    public void addError(BuildFailure buildFailure) {
+        PluginProcessingException error = new PluginProcessingException(buildFailure, this);
+        if (detached) {
+            LOG.debug("{}. See {}", error.getMessage(), buildFailure.logFile());
+        } else {
+            LOG.error("{}. See {}", error.getMessage(), buildFailure.logFile());
+        }
+        errors.add(error);
+    }
+
+    /**
+     * Add a warning to the plugin. Warnings are displayed with the results of the plugin
+     * @param warning The warning
+     */
+    public void addWarning(PluginWarning warning) {
+        LOG.warn("Warning for plugin {}: {}", name, warning.message());
+        warnings.add(warning);
+    }
+
+    /**
+     * Get the warnings of the plugin
+     * @return List of warnings
+     */
+    public List<PluginWarning> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    /**
+     * Return if the plugin has any warnings
+     * @return True if the plugin has warnings
+     */
+    public boolean hasWarnings() {
+        return !warnings.isEmpty();
+    }
+
     /**
      * Raise the last error as exception of the plugin
      * Do nothing if no errors
@@ -678,7 +748,7 @@ public class Plugin {
                 "Compiling plugin {} with JDK {} ... Please be patient",
                 name,
                 this.getJDK().getMajor());
-        maven.invokeGoal(this, "compile", "-Dhpi.validate.skip=true", "-Dmaven.antrun.skip=true");
+        maven.invokeBuild(this, true, "compile", "-Dhpi.validate.skip=true", "-Dmaven.antrun.skip=true");
         if (!hasErrors()) {
             LOG.info("Done");
         }
@@ -693,8 +763,10 @@ public class Plugin {
     public void verifyQuickBuild(MavenInvoker maven, JDK jdk) {
         LOG.info("Quick build without tests {} using with JDK {} ... Please be patient", name, jdk.getMajor());
         this.withJDK(jdk);
-        maven.invokeGoal(
+        // Classes of the quick build are needed to collect metadata of outdated plugins, only skip it if they exist
+        maven.invokeBuild(
                 this,
+                Files.isDirectory(getLocalRepository().resolve("target").resolve("classes")),
                 "verify",
                 "-DskipTests",
                 "-Pquick-build",
@@ -719,10 +791,64 @@ public class Plugin {
                 "Verifying plugin {} with JDK {}... Please be patient",
                 name,
                 this.getJDK().getMajor());
-        maven.invokeGoal(this, "verify");
+        maven.invokeBuild(this, true, "verify");
         LOG.info("Done");
     }
 
+    /**
+     * Execute maven verify on this plugin, only running the given test classes
+     * @param maven The maven invoker instance
+     * @param tests The fully qualified names of the test classes to run. If empty, no test is run
+     */
+    public void verifyTests(MavenInvoker maven, Set<String> tests) {
+        if (config.isFetchMetadataOnly()) {
+            LOG.info("Skipping verification for plugin {} as only metadata is required", name);
+            return;
+        }
+        LOG.info(
+                "Verifying plugin {} with JDK {} running {} affected test classes... Please be patient",
+                name,
+                this.getJDK().getMajor(),
+                tests.size());
+        maven.invokeBuild(this, true, getVerifyGoals(tests));
+        LOG.info("Done");
+    }
+
+    /**
+     * Execute maven verify on a copy of this plugin with another JDK, leaving the JDK of the plugin unchanged
+     * @param maven The maven invoker instance
+     * @param directory The directory of the copy
+     * @param jdk The JDK to use
+     * @param tests The fully qualified names of the test classes to run, or null to run all tests
+     * @return True if the copy verified successfully
+     */
+    public boolean verify(MavenInvoker maven, Path directory, JDK jdk, @Nullable Set<String> tests) {
+        if (config.isFetchMetadataOnly()) {
+            LOG.info("Skipping verification for plugin {} as only metadata is required", name);
+            return true;
+        }
+        LOG.info("Verifying plugin {} with JDK {} in {}... Please be patient", name, jdk.getMajor(), directory);
+        boolean success = maven.invokeGoal(this, directory, jdk, getVerifyGoals(tests));
+        LOG.info("Done verifying plugin {} with JDK {}", name, jdk.getMajor());
+        return success;
+    }
+
+    /**
+     * Get the goals verifying the plugin
+     * @param tests The fully qualified names of the test classes to run, or null to run all tests.
+     *              If empty, no test is run
+     * @return The goals and arguments
+     */
+    private static String[] getVerifyGoals(@Nullable Set<String> tests) {
+        if (tests == null) {
+            return new String[] {"verify"};
+        }
+        if (tests.isEmpty()) {
+            return new String[] {"verify", "-DskipTests"};
+        }
+        return new String[] {"verify", "-Dtest=" + String.join(",", tests), "-Dsurefire.failIfNoSpecifiedTests=false"};
+    }
+
     /**
      * Format the plugin using spotless
      * @param maven The maven invoker instance
@@ -788,6 +914,17 @@ public class Plugin {
             return;
         }
 
+        // Collect in process without forking Maven
+        if (config.isStaticMetadata()) {
+            try {
+                new StaticMetadataExtractor(getLocalRepository(), config.getMavenLocalRepo())
+                        .extract(buildPluginTargetDirectoryCacheManager());
+                return;
+            } catch (ModernizerException e) {
+                LOG.warn("Unable to extract metadata of plugin {} in process. Using Maven: {}", name, e.getMessage());
+            }
+        }
+
         // Collect using OpenRewrite
         maven.collectMetadata(this);
     }
@@ -10,6 +10,11 @@ public class PluginProcessingException extends ModernizerException {
      */
     private final Plugin plugin;
 
+    /**
+     * The failure extracted from the Maven build output or null if not a build failure
+     */
+    private final BuildFailure buildFailure;
+
     /**
      * Create a new PluginProcessingException
      * @param message The message
@@ -26,6 +31,18 @@ public class PluginProcessingException extends ModernizerException {
     public PluginProcessingException(String message, Throwable cause, Plugin plugin) {
         super(message, cause);
         this.plugin = plugin;
+        this.buildFailure = null;
+    }
+
+    /**
+     * Create a new PluginProcessingException for a failed Maven build
+     * @param buildFailure The failure extracted from the build output
+     * @param plugin The plugin
+     */
+    public PluginProcessingException(BuildFailure buildFailure, Plugin plugin) {
+        super(buildFailure.getSummary());
+        this.plugin = plugin;
+        this.buildFailure = buildFailure;
     }
 
     /**
@@ -35,4 +52,12 @@ public class PluginProcessingException extends ModernizerException {
     public Plugin getPlugin() {
         return plugin;
     }
+
+    /**
+     * Get the failure extracted from the Maven build output
+     * @return The build failure or null if not a build failure
+     */
+    public BuildFailure getBuildFailure() {
+        return buildFailure;
+    }
 }
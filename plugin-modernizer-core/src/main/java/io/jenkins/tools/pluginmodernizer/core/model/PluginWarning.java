@@ -0,0 +1,11 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.nio.file.Path;
+
+/**
+ * Issue that doesn't fail the processing of a plugin but is reported with its results
+ * @param message The message. Published in the pull request, so it must not refer to local files
+ * @param logFile The local log file with the details or null. Only displayed locally
+ */
+public record PluginWarning(String message, @Nullable Path logFile) {}
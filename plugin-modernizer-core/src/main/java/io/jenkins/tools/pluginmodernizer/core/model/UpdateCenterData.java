@@ -27,6 +27,11 @@ public class UpdateCenterData extends CacheEntry<UpdateCenterData> {
         super(cacheManager, UpdateCenterData.class, CacheManager.UPDATE_CENTER_CACHE_KEY, Path.of("."));
     }
 
+    @Override
+    public boolean isCompact() {
+        return true;
+    }
+
     /**
      * Get the plugins
      * @return Plugins
@@ -35,6 +40,14 @@ public class UpdateCenterData extends CacheEntry<UpdateCenterData> {
         return plugins;
     }
 
+    /**
+     * Set the plugins
+     * @param plugins Plugins
+     */
+    public void setPlugins(Map<String, UpdateCenterPlugin> plugins) {
+        this.plugins = plugins;
+    }
+
     /**
      * Get the deprecations
      * @return Deprecations
@@ -43,6 +56,14 @@ public class UpdateCenterData extends CacheEntry<UpdateCenterData> {
         return deprecations;
     }
 
+    /**
+     * Set the deprecations
+     * @param deprecations Deprecations
+     */
+    public void setDeprecations(Map<String, DeprecatedPlugin> deprecations) {
+        this.deprecations = deprecations;
+    }
+
     /**
      * An update center plugin record with what we need
      * @param name Plugin name
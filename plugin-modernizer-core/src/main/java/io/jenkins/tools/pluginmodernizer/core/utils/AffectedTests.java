@@ -0,0 +1,234 @@
+package io.jenkins.tools.pluginmodernizer.core.utils;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Select the test classes of a plugin affected by changes of its sources.
+ * A test class is affected if it changed, or if it is in the package of a changed class, or imports a changed class.
+ * Changes of POM files or resources can affect any test, so the whole test suite must run.
+ */
+@SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "Only files of the plugin repository are read")
+public class AffectedTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AffectedTests.class);
+
+    /**
+     * Maximum number of affected test classes. Above, the whole test suite is run
+     */
+    public static final int MAX_TESTS = 200;
+
+    /**
+     * Source directories of Java classes
+     */
+    private static final List<String> JAVA_SOURCES = List.of("src/main/java/", "src/test/java/");
+
+    /**
+     * Test classes run by Surefire by default
+     */
+    private static final Pattern TEST_CLASS = Pattern.compile("Test\\w*|\\w*Test|\\w*Tests|\\w*TestCase");
+
+    private AffectedTests() {}
+
+    /**
+     * Get the files with uncommitted changes in the repository of a module, including the given modified files
+     * @param module The directory of the module
+     * @param modifiedFiles Files already known as modified, relative to the root of the repository
+     * @return The changed files relative to the module or null if they cannot be determined
+     */
+    public static @Nullable Set<String> getChangedFiles(Path module, Collection<String> modifiedFiles) {
+        try (Repository repository = new FileRepositoryBuilder().findGitDir(module.toFile()).build();
+                Git git = new Git(repository)) {
+            Path workTree = repository.getWorkTree().toPath();
+            Status status = git.status().call();
+            Set<String> files = new HashSet<>(modifiedFiles);
+            files.addAll(status.getUntracked());
+            files.addAll(status.getAdded());
+            files.addAll(status.getChanged());
+            files.addAll(status.getModified());
+            files.addAll(status.getMissing());
+            files.addAll(status.getRemoved());
+            Set<String> changedFiles = new TreeSet<>();
+            for (String file : files) {
+                changedFiles.add(toRelativePath(module, workTree.resolve(file)));
+            }
+            return changedFiles;
+        } catch (IOException | GitAPIException | IllegalArgumentException e) {
+            LOG.debug("Unable to get changed files of {}", module, e);
+            return null;
+        }
+    }
+
+    /**
+     * Select the test classes affected by the changed files
+     * @param module The directory of the module
+     * @param changedFiles The changed files relative to the module
+     * @return The fully qualified names of the affected test classes, or null if the whole test suite must run
+     */
+    public static @Nullable Set<String> select(Path module, Collection<String> changedFiles) {
+        Set<String> changedClasses = new HashSet<>();
+        Set<String> changedPackages = new HashSet<>();
+        for (String file : changedFiles) {
+            if (file.equals("pom.xml") || file.endsWith("/pom.xml") || file.startsWith(".mvn/")) {
+                LOG.debug("Build file {} changed. All tests are affected", file);
+                return null;
+            }
+            if (!file.startsWith("src/")) {
+                // Outside the sources of the module, like the Jenkinsfile or GitHub workflows
+                continue;
+            }
+            String className = getClassName(file);
+            if (className == null) {
+                LOG.debug("Resource {} changed. All tests are affected", file);
+                return null;
+            }
+            changedClasses.add(className);
+            changedPackages.add(getPackageName(className));
+        }
+        if (changedClasses.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> tests = new TreeSet<>();
+        Path testSources = module.resolve("src/test/java");
+        if (!Files.isDirectory(testSources)) {
+            return tests;
+        }
+        try (Stream<Path> stream = Files.walk(testSources)) {
+            for (Path file : stream.filter(AffectedTests::isTestClass).toList()) {
+                String className = getClassName(toRelativePath(module, file));
+                if (className != null && isAffected(file, className, changedClasses, changedPackages)) {
+                    tests.add(className);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            LOG.debug("Unable to read test classes of {}", module, e);
+            return null;
+        }
+        if (tests.size() > MAX_TESTS) {
+            LOG.debug("{} test classes are affected. Running all tests", tests.size());
+            return null;
+        }
+        return tests;
+    }
+
+    /**
+     * Return if a test class is affected by the changed classes
+     * @param file The source file of the test class
+     * @param className The name of the test class
+     * @param changedClasses The changed classes
+     * @param changedPackages The packages of the changed classes
+     * @return True if the test class is affected
+     */
+    private static boolean isAffected(
+            Path file, String className, Set<String> changedClasses, Set<String> changedPackages) throws IOException {
+        if (changedClasses.contains(className) || changedPackages.contains(getPackageName(className))) {
+            return true;
+        }
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return lines.map(String::trim)
+                    .filter(line -> line.startsWith("import "))
+                    .anyMatch(line -> isAffectedImport(line, changedClasses, changedPackages));
+        }
+    }
+
+    /**
+     * Return if an import refers to a changed class, one of its members or nested classes, or a changed package
+     * @param line The import line
+     * @param changedClasses The changed classes
+     * @param changedPackages The packages of the changed classes
+     * @return True if the import refers to a change
+     */
+    private static boolean isAffectedImport(String line, Set<String> changedClasses, Set<String> changedPackages) {
+        String name = line.substring("import ".length()).replace(";", "").trim();
+        if (name.startsWith("static ")) {
+            name = name.substring("static ".length()).trim();
+        }
+        if (name.endsWith(".*")) {
+            name = name.substring(0, name.length() - 2);
+            if (changedPackages.contains(name)) {
+                return true;
+            }
+        }
+        while (!name.isEmpty()) {
+            if (changedClasses.contains(name)) {
+                return true;
+            }
+            name = getPackageName(name);
+        }
+        return false;
+    }
+
+    /**
+     * Return if the file is a test class run by Surefire by default
+     * @param file The file
+     * @return True for test classes
+     */
+    private static boolean isTestClass(Path file) {
+        String fileName = file.getFileName().toString();
+        if (!fileName.endsWith(".java") || !Files.isRegularFile(file)) {
+            return false;
+        }
+        return TEST_CLASS.matcher(fileName.substring(0, fileName.length() - ".java".length())).matches();
+    }
+
+    /**
+     * Get the class name of a Java source file
+     * @param file The file relative to the module
+     * @return The fully qualified class name or null if not a Java source file
+     */
+    private static @Nullable String getClassName(String file) {
+        if (!file.endsWith(".java")) {
+            return null;
+        }
+        for (String sources : JAVA_SOURCES) {
+            if (file.startsWith(sources)) {
+                return file.substring(sources.length(), file.length() - ".java".length()).replace('/', '.');
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the package of a class, or the enclosing name of any qualified name
+     * @param className The qualified name
+     * @return The package or an empty string for the default package
+     */
+    private static String getPackageName(String className) {
+        int index = className.lastIndexOf('.');
+        return index < 0 ? "" : className.substring(0, index);
+    }
+
+    /**
+     * Get the path of a file relative to the module with forward slashes
+     * @param module The directory of the module
+     * @param file The file
+     * @return The relative path
+     */
+    private static String toRelativePath(Path module, Path file) {
+        return module.toAbsolutePath()
+                .normalize()
+                .relativize(file.toAbsolutePath().normalize())
+                .toString()
+                .replace('\\', '/');
+    }
+}
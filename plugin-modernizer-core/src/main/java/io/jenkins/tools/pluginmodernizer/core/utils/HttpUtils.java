@@ -0,0 +1,117 @@
+package io.jenkins.tools.pluginmodernizer.core.utils;
+
+import io.jenkins.tools.pluginmodernizer.core.model.CacheEntry;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP helpers for remote datasets.
+ * Downloads are conditional when the cached entry carries the ETag or Last-Modified validators of its download,
+ * so an unchanged dataset is not transferred again.
+ */
+public class HttpUtils {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpUtils.class);
+
+    /**
+     * Status of a conditional request when the remote resource did not change
+     */
+    public static final int NOT_MODIFIED = 304;
+
+    private HttpUtils() {
+        // Hide constructor
+    }
+
+    /**
+     * Send a GET request to the URL, conditional if the cached entry has validators
+     * @param url The URL to download from
+     * @param cached The cached entry or null
+     * @return The response with status 200, or 304 for a conditional request
+     */
+    public static HttpResponse<String> get(URL url, CacheEntry<?> cached) {
+        return send(url, cached, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Send a GET request to the URL, conditional if the cached entry has validators, and stream the body.
+     * The caller must close the body
+     * @param url The URL to download from
+     * @param cached The cached entry or null
+     * @return The response with status 200, or 304 for a conditional request
+     */
+    public static HttpResponse<InputStream> getStream(URL url, CacheEntry<?> cached) {
+        return send(url, cached, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    private static <T> HttpResponse<T> send(URL url, CacheEntry<?> cached, HttpResponse.BodyHandler<T> bodyHandler) {
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+            HttpRequest.Builder request = HttpRequest.newBuilder().GET().uri(url.toURI());
+            if (cached != null && cached.getEtag() != null) {
+                request.header("If-None-Match", cached.getEtag());
+            }
+            if (cached != null && cached.getLastModified() != null) {
+                request.header("If-Modified-Since", cached.getLastModified());
+            }
+            LOG.debug("Fetching data from: {}", url);
+            HttpResponse<T> response = client.send(request.build(), bodyHandler);
+            if (isNotModified(response) && isConditional(cached)) {
+                LOG.debug("Data not modified at: {}", url);
+                return response;
+            }
+            if (response.statusCode() != 200) {
+                if (response.body() instanceof Closeable body) {
+                    body.close();
+                }
+                throw new ModernizerException(
+                        "Failed to get data. Received response code: " + response.statusCode() + " from " + url);
+            }
+            LOG.debug("Fetched data from: {}", url);
+            return response;
+        } catch (IOException | URISyntaxException e) {
+            throw new ModernizerException("Unable to fetch data from " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModernizerException("Interrupted while fetching data from " + url, e);
+        }
+    }
+
+    /**
+     * Return if a request for the cached entry is conditional
+     * @param cached The cached entry or null
+     * @return True if the entry has validators
+     */
+    private static boolean isConditional(CacheEntry<?> cached) {
+        return cached != null && (cached.getEtag() != null || cached.getLastModified() != null);
+    }
+
+    /**
+     * Return if the response tells the cached entry is still up to date
+     * @param response The response
+     * @return True if not modified
+     */
+    public static boolean isNotModified(HttpResponse<?> response) {
+        return response.statusCode() == NOT_MODIFIED;
+    }
+
+    /**
+     * Store the validators of the response on the entry for the next conditional download
+     * @param response The response
+     * @param entry The entry built from the response
+     */
+    public static void storeValidators(HttpResponse<?> response, CacheEntry<?> entry) {
+        entry.setEtag(response.headers().firstValue("ETag").orElse(null));
+        entry.setLastModified(response.headers().firstValue("Last-Modified").orElse(null));
+    }
+}
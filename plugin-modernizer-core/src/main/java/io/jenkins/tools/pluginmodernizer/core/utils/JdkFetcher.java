@@ -9,23 +9,44 @@ import io.jenkins.tools.pluginmodernizer.core.config.Settings;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,15 +57,91 @@ import org.slf4j.LoggerFactory;
 public class JdkFetcher {
     private static final Logger LOG = LoggerFactory.getLogger(JdkFetcher.class);
 
+    /**
+     * Number of JDKs downloaded concurrently by a prefetch
+     */
+    private static final int PREFETCH_PARALLELISM = 4;
+
+    /**
+     * Number of attempts of a resumable download
+     */
+    private static final int MAX_DOWNLOAD_ATTEMPTS = 3;
+
     private final Path cacheDir;
 
+    /**
+     * URL of the API listing the releases of each JDK version
+     */
+    private final String releasesApiUrl;
+
+    /**
+     * HTTP client following redirects to the release storage
+     */
+    private final HttpClient httpClient;
+
+    /**
+     * Installations in progress by JDK version. Concurrent callers wait for the same installation
+     */
+    private final Map<Integer, CompletableFuture<Void>> installations = new ConcurrentHashMap<>();
+
     public JdkFetcher(Path cacheDir) {
+        this(cacheDir, Settings.ADOPTIUM_GITHUB_API_URL);
+    }
+
+    /**
+     * Create a JDK fetcher using the given releases API
+     * @param cacheDir The cache directory
+     * @param releasesApiUrl The URL of the API listing the releases of each JDK version
+     */
+    JdkFetcher(Path cacheDir, String releasesApiUrl) {
         this.cacheDir = cacheDir;
+        this.releasesApiUrl = releasesApiUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Download the given JDK versions concurrently in the background if not already installed.
+     * Callers of {@link #getJdkPath(int)} join the running download instead of starting another one.
+     *
+     * @param jdkVersions The versions of the JDK
+     * @return A future completed once all JDKs are installed or failed to install
+     */
+    public CompletableFuture<Void> prefetch(Collection<Integer> jdkVersions) {
+        Set<Integer> missing = jdkVersions.stream()
+                .filter(jdkVersion -> Files.notExists(getJdkDirectoryPath(jdkVersion)))
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        LOG.info("Prefetching JDKs {}", missing);
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(PREFETCH_PARALLELISM, missing.size()), r -> {
+            Thread thread = new Thread(r, "jdk-prefetch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<?>[] futures = missing.stream()
+                .map(jdkVersion -> CompletableFuture.runAsync(
+                        () -> {
+                            try {
+                                getJdkPath(jdkVersion);
+                            } catch (IOException | RuntimeException e) {
+                                LOG.warn("Unable to prefetch JDK {}: {}", jdkVersion, e.getMessage());
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        },
+                        executor))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures).whenComplete((result, error) -> executor.shutdown());
     }
 
     /**
      * Gets the path to the JDK directory for the specified JDK version. If the JDK is not already downloaded,
-     * it triggers the download and setup process.
+     * it triggers the download and setup process. Single flight per version so concurrent plugin workers wait
+     * for the same download, while different versions are downloaded in parallel.
      *
      * @param jdkVersion The version of the JDK (e.g., 8).
      * @return The path to the JDK directory.
@@ -54,7 +151,7 @@ public class JdkFetcher {
     public Path getJdkPath(int jdkVersion) throws IOException, InterruptedException {
         Path jdkPath = getJdkDirectoryPath(jdkVersion);
         if (Files.notExists(jdkPath)) {
-            downloadAndSetupJdk(jdkVersion, jdkPath);
+            install(jdkVersion, jdkPath);
         }
 
         if (!Files.isDirectory(jdkPath.resolve("bin"))) {
@@ -70,30 +167,196 @@ public class JdkFetcher {
     }
 
     /**
-     * Downloads and extracts the JDK for the specified version. The method determines the appropriate extraction
-     * method based on the operating system.
+     * Install the JDK unless another caller is already installing it, in which case wait for that installation
+     *
+     * @param jdkVersion The version of the JDK (e.g., 8).
+     * @param jdkPath The directory of the JDK.
+     * @throws IOException          If an I/O error occurs.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    private void install(int jdkVersion, Path jdkPath) throws IOException, InterruptedException {
+        CompletableFuture<Void> installation = new CompletableFuture<>();
+        CompletableFuture<Void> running = installations.putIfAbsent(jdkVersion, installation);
+        if (running != null) {
+            LOG.debug("Waiting for the running installation of JDK {}", jdkVersion);
+            try {
+                running.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new ModernizerException("Unable to install JDK " + jdkVersion, e.getCause());
+            }
+            return;
+        }
+        try {
+            if (Files.notExists(jdkPath)) {
+                downloadAndSetupJdk(jdkVersion, jdkPath);
+            }
+            installation.complete(null);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            installation.completeExceptionally(e);
+            throw e;
+        } finally {
+            installations.remove(jdkVersion, installation);
+        }
+    }
+
+    /**
+     * Downloads and extracts the JDK for the specified version. The archive is extracted while being downloaded,
+     * without storing it. If the streamed download fails, the archive is downloaded to a partial file that is resumed
+     * on failure, then extracted. The JDK is extracted aside and moved in place once complete, so an interrupted
+     * extraction or another process sharing the cache never sees a partial JDK.
      *
      * @param jdkVersion The version of the JDK (e.g., "8").
-     * @param extractionDir The directory where the JDK will be extracted.
+     * @param jdkPath The directory where the JDK will be installed.
      * @throws IOException          If an I/O error occurs.
      * @throws InterruptedException If the operation is interrupted.
      */
-    private void downloadAndSetupJdk(int jdkVersion, Path extractionDir) throws IOException, InterruptedException {
-        LOG.info("Downloading the JDK...");
-        Path downloadedFile = downloadJdk(jdkVersion);
-        LOG.info("Download successful");
+    private void downloadAndSetupJdk(int jdkVersion, Path jdkPath) throws IOException, InterruptedException {
+        JdkAsset asset = fetchLatestRelease(jdkVersion);
+        if (asset == null) {
+            throw new ModernizerException("No JDK " + jdkVersion + " release found for this platform");
+        }
+        String expectedChecksum = fetchChecksum(asset);
 
-        LOG.info("Extracting...");
-        Files.createDirectories(extractionDir);
-        String os = getOSName();
-        if (os.contains("windows")) {
-            extractZip(downloadedFile, extractionDir);
-        } else if (os.contains("linux") || os.contains("mac")) {
-            extractTarGz(downloadedFile, extractionDir);
-            LOG.info("Setting executable permissions for files in bin directory");
-            setJavaBinariesPermissions(extractionDir);
+        Files.createDirectories(jdkPath.getParent());
+        Path extractionDir = Files.createTempDirectory(jdkPath.getParent(), jdkPath.getFileName() + "-");
+        try {
+            try {
+                LOG.info("Downloading and extracting the JDK {}...", jdkVersion);
+                streamAndExtract(asset, expectedChecksum, extractionDir);
+            } catch (IOException e) {
+                LOG.warn(
+                        "Streamed download of JDK {} failed: {}. Downloading it to disk with resume",
+                        jdkVersion,
+                        e.getMessage());
+                FileUtils.cleanDirectory(extractionDir.toFile());
+                Path archive = downloadResumable(asset, jdkVersion);
+                try {
+                    verifyChecksum(asset, expectedChecksum, sha256(archive));
+                    LOG.info("Extracting JDK {}...", jdkVersion);
+                    try (InputStream in = Files.newInputStream(archive)) {
+                        extract(asset, in, extractionDir);
+                    }
+                } finally {
+                    Files.deleteIfExists(archive);
+                }
+            }
+            if (!getOSName().contains("windows")) {
+                LOG.info("Setting executable permissions for files in bin directory");
+                setJavaBinariesPermissions(extractionDir);
+            }
+            try {
+                Files.move(extractionDir, jdkPath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                LOG.info("JDK {} was installed concurrently by another process", jdkVersion);
+            }
+        } finally {
+            if (Files.exists(extractionDir)) {
+                FileUtils.deleteDirectory(extractionDir.toFile());
+            }
+        }
+        LOG.info("Installation of JDK {} successful", jdkVersion);
+    }
+
+    /**
+     * Download the archive and extract it in a single pass. The checksum is computed on the fly and verified once the
+     * whole archive is read, before the extracted JDK is moved in place.
+     *
+     * @param asset The JDK asset
+     * @param expectedChecksum The expected SHA-256 or null if not published
+     * @param extractionDir The directory to extract the files into
+     * @throws IOException          If an I/O error occurs.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    private void streamAndExtract(JdkAsset asset, String expectedChecksum, Path extractionDir)
+            throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = httpClient.send(
+                HttpRequest.newBuilder().uri(URI.create(asset.url())).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        MessageDigest digest = newSha256();
+        try (InputStream in = new DigestInputStream(response.body(), digest)) {
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP Status Code: " + response.statusCode());
+            }
+            extract(asset, in, extractionDir);
+            // Consume the end of the archive (padding, trailers) so the checksum covers the whole file
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        verifyChecksum(asset, expectedChecksum, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Download the archive to a partial file in the JDK cache directory. The download resumes from the partial file,
+     * including a partial file left by a previous run, using HTTP range requests.
+     *
+     * @param asset The JDK asset
+     * @param jdkVersion The version of the JDK (e.g., "8").
+     * @return The path of the complete archive
+     * @throws IOException          If an I/O error occurs.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    private Path downloadResumable(JdkAsset asset, int jdkVersion) throws IOException, InterruptedException {
+        // Named after the release file so a partial file of another release is never resumed
+        String fileName = asset.url().substring(asset.url().lastIndexOf('/') + 1);
+        Path partFile = cacheDir.resolve(".jdks").resolve(fileName + ".part");
+        IOException lastError = null;
+        for (int attempt = 1; attempt <= MAX_DOWNLOAD_ATTEMPTS; attempt++) {
+            long offset = Files.exists(partFile) ? Files.size(partFile) : 0;
+            HttpRequest.Builder request = HttpRequest.newBuilder().uri(URI.create(asset.url()));
+            if (offset > 0) {
+                request.header("Range", "bytes=" + offset + "-");
+            }
+            try {
+                HttpResponse<InputStream> response =
+                        httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream in = response.body()) {
+                    if (response.statusCode() == 416) {
+                        // Partial file already complete
+                        return partFile;
+                    }
+                    if (response.statusCode() != 200 && response.statusCode() != 206) {
+                        throw new IOException("HTTP Status Code: " + response.statusCode());
+                    }
+                    boolean resume = response.statusCode() == 206;
+                    LOG.debug("Downloading {} from offset {}", asset.url(), resume ? offset : 0);
+                    try (OutputStream out = Files.newOutputStream(
+                            partFile,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE,
+                            resume ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+                        in.transferTo(out);
+                    }
+                }
+                return partFile;
+            } catch (IOException e) {
+                lastError = e;
+                LOG.warn(
+                        "Download of JDK {} failed on attempt {}/{}: {}",
+                        jdkVersion,
+                        attempt,
+                        MAX_DOWNLOAD_ATTEMPTS,
+                        e.getMessage());
+            }
+        }
+        throw lastError;
+    }
+
+    /**
+     * Extract an archive from a stream depending on its type
+     *
+     * @param asset The JDK asset
+     * @param in The archive stream. Not closed
+     * @param extractionDir The directory to extract the files into
+     * @throws IOException If an I/O error occurs.
+     */
+    private void extract(JdkAsset asset, InputStream in, Path extractionDir) throws IOException {
+        if (getExtension(asset.url()).equals(".zip")) {
+            extractZip(in, extractionDir);
+        } else {
+            extractTarGz(in, extractionDir);
         }
-        LOG.info("Extraction successful");
     }
 
     /**
@@ -107,29 +370,73 @@ public class JdkFetcher {
     }
 
     /**
-     * Downloads the JDK for the specified version from the appropriate URL and saves it to the local directory.
+     * Fetch the SHA-256 checksum published with the release
      *
-     * @param jdkVersion The version of the JDK (e.g., "8").
-     * @return The path to the downloaded JDK file.
+     * @param asset The JDK asset
+     * @return The checksum or null if not published
      * @throws IOException          If an I/O error occurs.
      * @throws InterruptedException If the operation is interrupted.
      */
-    @SuppressFBWarnings(value = "URLCONNECTION_SSRF_FD", justification = "false positive")
-    private Path downloadJdk(int jdkVersion) throws IOException, InterruptedException {
-        String downloadUrl = fetchLatestReleaseUrl(jdkVersion);
-        if (downloadUrl != null) {
-            Path downloadPath = cacheDir.resolve(".jdks").resolve("jdk" + jdkVersion + getExtension(downloadUrl));
-            Path parentPath = downloadPath.getParent();
-            if (parentPath != null) {
-                Files.createDirectories(parentPath);
-            }
+    private String fetchChecksum(JdkAsset asset) throws IOException, InterruptedException {
+        if (asset.checksumUrl() == null) {
+            LOG.warn("No checksum published for {}. Skipping verification", asset.url());
+            return null;
+        }
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder().uri(URI.create(asset.checksumUrl())).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new ModernizerException("Unable to fetch checksum of " + asset.url() + ". HTTP Status Code: "
+                    + response.statusCode());
+        }
+        // Format is "<sha256>  <file name>"
+        return response.body().trim().split("\\s+")[0];
+    }
 
-            try (InputStream in = URI.create(downloadUrl).toURL().openStream()) {
-                Files.copy(in, downloadPath, StandardCopyOption.REPLACE_EXISTING);
-            }
-            return downloadPath;
+    /**
+     * Verify the checksum of a downloaded JDK
+     *
+     * @param asset The downloaded asset
+     * @param expected The expected SHA-256 or null if not published
+     * @param sha256 The SHA-256 of the downloaded archive
+     */
+    private void verifyChecksum(JdkAsset asset, String expected, String sha256) {
+        if (expected == null) {
+            return;
+        }
+        if (!expected.equalsIgnoreCase(sha256)) {
+            throw new ModernizerException(
+                    "Checksum mismatch for " + asset.url() + ". Expected " + expected + " but got " + sha256);
+        }
+        LOG.debug("Checksum of {} verified", asset.url());
+    }
+
+    /**
+     * Compute the SHA-256 of a file
+     *
+     * @param file The file
+     * @return The SHA-256 as hex string
+     * @throws IOException If an I/O error occurs.
+     */
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest = newSha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Create a SHA-256 digest
+     *
+     * @return The digest
+     */
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ModernizerException("SHA-256 is not available", e);
         }
-        return null;
     }
 
     /**
@@ -143,29 +450,27 @@ public class JdkFetcher {
     }
 
     /**
-     * Fetches the latest release download URL for a specified JDK version and OS.
+     * Fetches the latest release asset for a specified JDK version and OS.
      *
      * @param jdkVersion The version of the JDK (e.g., "8").
-     * @return The download URL of the latest release, or null if not found.
+     * @return The asset of the latest release, or null if not found.
      * @throws IOException          If an I/O error occurs.
      * @throws InterruptedException If the operation is interrupted.
      */
-    private String fetchLatestReleaseUrl(int jdkVersion) throws IOException, InterruptedException {
-        String latestUrl =
-                String.format("%s/temurin%s-binaries/releases", Settings.ADOPTIUM_GITHUB_API_URL, jdkVersion);
-        HttpClient client = HttpClient.newHttpClient();
+    private JdkAsset fetchLatestRelease(int jdkVersion) throws IOException, InterruptedException {
+        String latestUrl = String.format("%s/temurin%s-binaries/releases", releasesApiUrl, jdkVersion);
         HttpRequest request =
                 HttpRequest.newBuilder().uri(URI.create(latestUrl)).build();
 
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
         if (response.statusCode() == 200) {
             JsonArray releases = JsonParser.parseString(response.body()).getAsJsonArray();
             for (JsonElement releaseElement : releases) {
                 JsonObject release = releaseElement.getAsJsonObject();
                 JsonArray assets = release.getAsJsonArray("assets");
-                String url = getDownloadUrl(assets, jdkVersion);
-                if (url != null) {
-                    return url;
+                JdkAsset asset = getAsset(assets, jdkVersion);
+                if (asset != null) {
+                    return asset;
                 }
             }
         } else {
@@ -175,26 +480,38 @@ public class JdkFetcher {
     }
 
     /**
-     * Finds the download URL for the JDK based on the JDK version and operating system.
+     * Finds the JDK asset based on the JDK version and operating system.
      *
      * @param assets     A JSON array of assets from a GitHub release.
      * @param jdkVersion The version of the JDK (e.g., "8").
-     * @return The download URL if a matching asset is found, otherwise null.
+     * @return The asset with its checksum if a matching asset is found, otherwise null.
      */
-    private String getDownloadUrl(JsonArray assets, int jdkVersion) {
+    private JdkAsset getAsset(JsonArray assets, int jdkVersion) {
         String jdkFileName = buildJDKFileName(jdkVersion);
+        Map<String, String> urls = new LinkedHashMap<>();
         for (JsonElement element : assets) {
             JsonObject asset = element.getAsJsonObject();
-            String name = asset.get("name").getAsString();
-            if (name.toLowerCase().contains(jdkFileName.toLowerCase())
-                    && (name.toLowerCase().endsWith(".zip")
-                            || name.toLowerCase().endsWith(".tar.gz"))) {
-                return asset.get("browser_download_url").getAsString();
+            urls.put(
+                    asset.get("name").getAsString().toLowerCase(),
+                    asset.get("browser_download_url").getAsString());
+        }
+        for (Map.Entry<String, String> entry : urls.entrySet()) {
+            String name = entry.getKey();
+            if (name.contains(jdkFileName.toLowerCase()) && (name.endsWith(".zip") || name.endsWith(".tar.gz"))) {
+                return new JdkAsset(entry.getValue(), urls.get(name + ".sha256.txt"));
             }
         }
         return null;
     }
 
+    /**
+     * A JDK archive of a release
+     *
+     * @param url The download URL of the archive
+     * @param checksumUrl The download URL of the SHA-256 checksum of the archive or null if not published
+     */
+    private record JdkAsset(String url, String checksumUrl) {}
+
     /**
      * Constructs the JDK file name based on the version and operating system.
      *
@@ -255,14 +572,14 @@ public class JdkFetcher {
     }
 
     /**
-     * Extracts a ZIP file to the specified directory without nested directories.
+     * Extracts a ZIP stream to the specified directory without nested directories.
      *
-     * @param zipFile     The path to the ZIP file.
+     * @param in            The ZIP stream. Not closed
      * @param extractionDir The directory to extract the files into.
      * @throws IOException If an I/O error occurs.
      */
-    private void extractZip(Path zipFile, Path extractionDir) throws IOException {
-        try (ZipInputStream zipIn = new ZipInputStream(Files.newInputStream(zipFile))) {
+    private void extractZip(InputStream in, Path extractionDir) throws IOException {
+        try (ZipInputStream zipIn = new ZipInputStream(CloseShieldInputStream.wrap(in))) {
             ZipEntry entry;
             while ((entry = zipIn.getNextEntry()) != null) {
                 if (!entry.isDirectory()) {
@@ -271,19 +588,17 @@ public class JdkFetcher {
                 zipIn.closeEntry();
             }
         }
-        Files.delete(zipFile);
     }
 
     /**
-     * Extracts a TAR.GZ file to the specified directory without nested directories.
+     * Extracts a TAR.GZ stream to the specified directory without nested directories.
      *
-     * @param tarGzFile   The path to the TAR.GZ file.
+     * @param in            The TAR.GZ stream. Not closed
      * @param extractionDir The directory to extract the files into.
      * @throws IOException If an I/O error occurs.
      */
-    private void extractTarGz(Path tarGzFile, Path extractionDir) throws IOException {
-        try (InputStream fileStream = Files.newInputStream(tarGzFile);
-                InputStream gzipStream = new GZIPInputStream(fileStream);
+    private void extractTarGz(InputStream in, Path extractionDir) throws IOException {
+        try (InputStream gzipStream = new GZIPInputStream(CloseShieldInputStream.wrap(in));
                 TarArchiveInputStream tarStream = new TarArchiveInputStream(gzipStream)) {
 
             TarArchiveEntry entry;
@@ -293,7 +608,6 @@ public class JdkFetcher {
                 }
             }
         }
-        Files.delete(tarGzFile);
     }
 
     /**
@@ -7,16 +7,18 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
+import io.jenkins.tools.pluginmodernizer.core.model.CacheEntry;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
 import java.io.IOException;
-import java.net.URISyntaxException;
+import java.io.Reader;
+import java.io.Writer;
 import java.net.URL;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -146,6 +148,20 @@ public class JsonUtils {
         }
     }
 
+    /**
+     * Convert an object to a compact JSON file, streamed without pretty printing
+     * @param object The object to convert
+     * @param path The path to the JSON file
+     */
+    public static void toCompactJsonFile(Object object, Path path) {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            LOG.debug("Writing compact JSON file to {}", path);
+            gson.toJson(object, writer);
+        } catch (IOException | JsonIOException e) {
+            throw new ModernizerException("Unable to write JSON file due to IO error", e);
+        }
+    }
+
     /**
      * Convert a JSON string to an object
      * @param json The JSON string
@@ -157,6 +173,17 @@ public class JsonUtils {
         return gson.fromJson(json, clazz);
     }
 
+    /**
+     * Convert JSON read from a reader to an object
+     * @param reader The reader. Not closed
+     * @param clazz The class of the object
+     * @param <T> The type of the object
+     * @return The object
+     */
+    public static <T> T fromJson(Reader reader, Class<T> clazz) {
+        return gson.fromJson(reader, clazz);
+    }
+
     /**
      * Convert a JSON string to an object
      * @param path The path to the JSON file
@@ -165,8 +192,8 @@ public class JsonUtils {
      * @return The object
      */
     public static <T> T fromJson(Path path, Class<T> clazz) {
-        try {
-            return gson.fromJson(FileUtils.readFileToString(path.toFile(), StandardCharsets.UTF_8), clazz);
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, clazz);
         } catch (IOException e) {
             throw new ModernizerException("Unable to read JSON file due to IO error", e);
         }
@@ -181,21 +208,31 @@ public class JsonUtils {
      */
     public static <T> T fromUrl(URL url, Class<T> clazz) {
         try {
-            HttpClient client = HttpClient.newBuilder()
-                    .followRedirects(HttpClient.Redirect.NORMAL)
-                    .build();
-            HttpRequest request =
-                    HttpRequest.newBuilder().GET().uri(url.toURI()).build();
-            LOG.debug("Fetching data from: {}", url);
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() != 200) {
-                throw new ModernizerException(
-                        "Failed to get JSON data. Received response code: " + response.statusCode());
-            }
-            LOG.debug("Fetched data from: {}", url);
-            return JsonUtils.fromJson(response.body(), clazz);
-        } catch (IOException | JsonSyntaxException | URISyntaxException | InterruptedException e) {
-            throw new ModernizerException("Unable to fetch data from " + url, e);
+            return JsonUtils.fromJson(HttpUtils.get(url, null).body(), clazz);
+        } catch (JsonSyntaxException e) {
+            throw new ModernizerException("Unable to parse data from " + url, e);
+        }
+    }
+
+    /**
+     * Download JSON data from a URL unless the cached entry is still up to date
+     * @param url The URL to download from
+     * @param clazz The class of the object
+     * @param cached The cached entry or null
+     * @return The object with the validators of the response, or null if the cached entry was not modified
+     * @param <T> The type of the object
+     */
+    public static <T extends CacheEntry<T>> T fromUrl(URL url, Class<T> clazz, T cached) {
+        HttpResponse<String> response = HttpUtils.get(url, cached);
+        if (HttpUtils.isNotModified(response)) {
+            return null;
+        }
+        try {
+            T data = JsonUtils.fromJson(response.body(), clazz);
+            HttpUtils.storeValidators(response, data);
+            return data;
+        } catch (JsonSyntaxException e) {
+            throw new ModernizerException("Unable to parse data from " + url, e);
         }
     }
 
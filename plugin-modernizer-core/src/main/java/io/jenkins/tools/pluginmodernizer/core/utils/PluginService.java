@@ -4,6 +4,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
 import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import io.jenkins.tools.pluginmodernizer.core.model.CacheEntry;
 import io.jenkins.tools.pluginmodernizer.core.model.HealthScoreData;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
 import io.jenkins.tools.pluginmodernizer.core.model.OptOutPluginsData;
@@ -12,12 +13,29 @@ import io.jenkins.tools.pluginmodernizer.core.model.PluginInstallationStatsData;
 import io.jenkins.tools.pluginmodernizer.core.model.PluginVersionData;
 import io.jenkins.tools.pluginmodernizer.core.model.UpdateCenterData;
 import jakarta.inject.Inject;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Utility class for Jenkins plugin center
+ * Utility class for Jenkins plugin center.
+ * Datasets are parsed once and kept in memory for the whole run. Loading is synchronized so concurrent plugin workers
+ * do not download or write the same cache entry twice.
  */
 public class PluginService {
 
@@ -29,6 +47,35 @@ public class PluginService {
     @Inject
     private CacheManager cacheManager;
 
+    /**
+     * Parsed datasets by cache key
+     */
+    private final Map<String, CacheEntry<?>> datasets = new ConcurrentHashMap<>();
+
+    /**
+     * Number of dataset lookups served from memory
+     */
+    private final AtomicLong datasetHits = new AtomicLong();
+
+    /**
+     * Number of dataset lookups that needed to read the cache or download the dataset
+     */
+    private final AtomicLong datasetMisses = new AtomicLong();
+
+    /**
+     * Cache keys of datasets being refreshed in the background
+     */
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Refresh expired datasets in the background
+     */
+    private final ExecutorService revalidator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dataset-revalidator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * Extract the repository name for a plugin
      * @param plugin Plugin
@@ -72,9 +119,9 @@ public class PluginService {
             return null;
         }
         String scmUrl = updateCenterPlugin.scm();
-        int lastSlashIndex = scmUrl.lastIndexOf('/');
-        if (lastSlashIndex != -1 && lastSlashIndex < scmUrl.length() - 1) {
-            return scmUrl.substring(lastSlashIndex + 1).replaceAll(".git$", "");
+        String repoName = toRepoName(scmUrl);
+        if (repoName != null) {
+            return repoName;
         } else {
             plugin.addError("Invalid SCM URL format");
             plugin.raiseLastError();
@@ -82,6 +129,36 @@ public class PluginService {
         throw new ModernizerException("Invalid SCM URL format: " + scmUrl);
     }
 
+    /**
+     * Find the repository name of a remote plugin from the update center without reporting errors on the plugin
+     * @param plugin Plugin
+     * @return Repository name or null if the plugin is not in the update center or has an invalid SCM URL
+     */
+    public String findRepoName(Plugin plugin) {
+        UpdateCenterData.UpdateCenterPlugin updateCenterPlugin =
+                getUpdateCenterData().getPlugins().get(plugin.getName());
+        if (updateCenterPlugin == null) {
+            return null;
+        }
+        return toRepoName(updateCenterPlugin.scm());
+    }
+
+    /**
+     * Extract the repository name from an SCM URL
+     * @param scmUrl The SCM URL
+     * @return Repository name or null if the URL is missing or invalid
+     */
+    private static String toRepoName(String scmUrl) {
+        if (scmUrl == null) {
+            return null;
+        }
+        int lastSlashIndex = scmUrl.lastIndexOf('/');
+        if (lastSlashIndex != -1 && lastSlashIndex < scmUrl.length() - 1) {
+            return scmUrl.substring(lastSlashIndex + 1).replaceAll(".git$", "");
+        }
+        return null;
+    }
+
     /**
      * Check if a plugin exists in the update center
      * @param plugin Plugin
@@ -167,16 +244,7 @@ public class PluginService {
      * @return Update center data
      */
     public UpdateCenterData getUpdateCenterData() {
-        UpdateCenterData updateCenterData =
-                cacheManager.get(cacheManager.root(), CacheManager.UPDATE_CENTER_CACHE_KEY, UpdateCenterData.class);
-        // Download and update cache
-        if (updateCenterData == null) {
-            updateCenterData = downloadUpdateCenterData();
-            updateCenterData.setKey(CacheManager.UPDATE_CENTER_CACHE_KEY);
-            updateCenterData.setPath(cacheManager.root());
-            cacheManager.put(updateCenterData);
-        }
-        return updateCenterData;
+        return getDataset(CacheManager.UPDATE_CENTER_CACHE_KEY, UpdateCenterData.class, this::downloadUpdateCenterData);
     }
 
     /**
@@ -184,16 +252,7 @@ public class PluginService {
      * @return Health score data
      */
     public HealthScoreData getHealthScoreData() {
-        HealthScoreData healthScoreData =
-                cacheManager.get(cacheManager.root(), CacheManager.HEALTH_SCORE_KEY, HealthScoreData.class);
-        // Download and update cache
-        if (healthScoreData == null) {
-            healthScoreData = downloadHealthScoreData();
-            healthScoreData.setKey(CacheManager.HEALTH_SCORE_KEY);
-            healthScoreData.setPath(cacheManager.root());
-            cacheManager.put(healthScoreData);
-        }
-        return healthScoreData;
+        return getDataset(CacheManager.HEALTH_SCORE_KEY, HealthScoreData.class, this::downloadHealthScoreData);
     }
 
     /**
@@ -201,16 +260,8 @@ public class PluginService {
      * @return Opt out plugins data
      */
     public OptOutPluginsData getOptOutPluginsData() {
-        OptOutPluginsData optOutPluginsData =
-                cacheManager.get(cacheManager.root(), CacheManager.OPT_OUT_PLUGINS_CACHE_KEY, OptOutPluginsData.class);
-        // Download and update cache
-        if (optOutPluginsData == null) {
-            optOutPluginsData = downloadOptOutPluginsData();
-            optOutPluginsData.setKey(CacheManager.OPT_OUT_PLUGINS_CACHE_KEY);
-            optOutPluginsData.setPath(cacheManager.root());
-            cacheManager.put(optOutPluginsData);
-        }
-        return optOutPluginsData;
+        return getDataset(
+                CacheManager.OPT_OUT_PLUGINS_CACHE_KEY, OptOutPluginsData.class, this::downloadOptOutPluginsData);
     }
 
     /**
@@ -218,7 +269,27 @@ public class PluginService {
      * @return Update center data
      */
     public UpdateCenterData downloadUpdateCenterData() {
-        return JsonUtils.fromUrl(config.getJenkinsUpdateCenter(), UpdateCenterData.class);
+        return downloadUpdateCenterData(null);
+    }
+
+    /**
+     * Download update center data unless the cached data is still up to date
+     * @param cached The cached data or null
+     * @return Update center data or null if not modified
+     */
+    public UpdateCenterData downloadUpdateCenterData(UpdateCenterData cached) {
+        HttpResponse<InputStream> response = HttpUtils.getStream(config.getJenkinsUpdateCenter(), cached);
+        try (Reader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            if (HttpUtils.isNotModified(response)) {
+                return null;
+            }
+            UpdateCenterData updateCenterData = UpdateCenterDataReader.read(reader, cacheManager);
+            HttpUtils.storeValidators(response, updateCenterData);
+            return updateCenterData;
+        } catch (IOException e) {
+            throw new ModernizerException(
+                    "Unable to read update center data from " + config.getJenkinsUpdateCenter(), e);
+        }
     }
 
     /**
@@ -226,7 +297,16 @@ public class PluginService {
      * @return Health score data
      */
     public HealthScoreData downloadHealthScoreData() {
-        return JsonUtils.fromUrl(config.getPluginHealthScore(), HealthScoreData.class);
+        return downloadHealthScoreData(null);
+    }
+
+    /**
+     * Download health score data unless the cached data is still up to date
+     * @param cached The cached data or null
+     * @return Health score data or null if not modified
+     */
+    public HealthScoreData downloadHealthScoreData(HealthScoreData cached) {
+        return JsonUtils.fromUrl(config.getPluginHealthScore(), HealthScoreData.class, cached);
     }
 
     /**
@@ -234,16 +314,38 @@ public class PluginService {
      * @return Opt out plugins data
      */
     public OptOutPluginsData downloadOptOutPluginsData() {
-        return JsonUtils.fromUrl(config.getOptOutPlugins(), OptOutPluginsData.class);
+        return downloadOptOutPluginsData(null);
+    }
+
+    /**
+     * Download opt out plugins data unless the cached data is still up to date
+     * @param cached The cached data or null
+     * @return Opt out plugins data or null if not modified
+     */
+    public OptOutPluginsData downloadOptOutPluginsData(OptOutPluginsData cached) {
+        return JsonUtils.fromUrl(config.getOptOutPlugins(), OptOutPluginsData.class, cached);
     }
 
     /**
      * Retrieve installation stats data from the given URL
      */
     public PluginInstallationStatsData downloadInstallationStatsData() {
-        String data = CSVUtils.fromUrl(config.getPluginStatsInstallations());
+        return downloadInstallationStatsData(null);
+    }
+
+    /**
+     * Retrieve installation stats data from the given URL unless the cached data is still up to date
+     * @param cached The cached data or null
+     * @return Installation stats data or null if not modified
+     */
+    public PluginInstallationStatsData downloadInstallationStatsData(PluginInstallationStatsData cached) {
+        HttpResponse<String> response = HttpUtils.get(config.getPluginStatsInstallations(), cached);
+        if (HttpUtils.isNotModified(response)) {
+            return null;
+        }
         PluginInstallationStatsData pluginInstallationStatsData = new PluginInstallationStatsData(cacheManager);
-        pluginInstallationStatsData.setPlugins(CSVUtils.parseStats(data));
+        pluginInstallationStatsData.setPlugins(CSVUtils.parseStats(response.body()));
+        HttpUtils.storeValidators(response, pluginInstallationStatsData);
         return pluginInstallationStatsData;
     }
 
@@ -310,16 +412,10 @@ public class PluginService {
      * @return Plugin version data
      */
     public PluginVersionData getPluginVersionData() {
-        PluginVersionData pluginVersionData =
-                cacheManager.get(cacheManager.root(), CacheManager.PLUGIN_VERSIONS_CACHE_KEY, PluginVersionData.class);
-        // Download and update cache
-        if (pluginVersionData == null) {
-            pluginVersionData = downloadPluginVersionData(config);
-            pluginVersionData.setKey(CacheManager.PLUGIN_VERSIONS_CACHE_KEY);
-            pluginVersionData.setPath(cacheManager.root());
-            cacheManager.put(pluginVersionData);
-        }
-        return pluginVersionData;
+        return getDataset(
+                CacheManager.PLUGIN_VERSIONS_CACHE_KEY,
+                PluginVersionData.class,
+                cached -> downloadPluginVersionData(config, cached));
     }
 
     /**
@@ -327,16 +423,10 @@ public class PluginService {
      * @return Plugin installation stats data
      */
     public PluginInstallationStatsData getPluginInstallationStatsData() {
-        PluginInstallationStatsData pluginInstallationStatsData = cacheManager.get(
-                cacheManager.root(), CacheManager.INSTALLATION_STATS_KEY, PluginInstallationStatsData.class);
-        // Download and update cache
-        if (pluginInstallationStatsData == null) {
-            pluginInstallationStatsData = downloadInstallationStatsData();
-            pluginInstallationStatsData.setKey(CacheManager.INSTALLATION_STATS_KEY);
-            pluginInstallationStatsData.setPath(cacheManager.root());
-            cacheManager.put(pluginInstallationStatsData);
-        }
-        return pluginInstallationStatsData;
+        return getDataset(
+                CacheManager.INSTALLATION_STATS_KEY,
+                PluginInstallationStatsData.class,
+                this::downloadInstallationStatsData);
     }
 
     /**
@@ -345,6 +435,148 @@ public class PluginService {
      * @return Update center data
      */
     public PluginVersionData downloadPluginVersionData(Config config) {
-        return JsonUtils.fromUrl(config.getJenkinsPluginVersions(), PluginVersionData.class);
+        return downloadPluginVersionData(config, null);
+    }
+
+    /**
+     * Download plugin version data unless the cached data is still up to date
+     * @param config Configuration
+     * @param cached The cached data or null
+     * @return Plugin version data or null if not modified
+     */
+    public PluginVersionData downloadPluginVersionData(Config config, PluginVersionData cached) {
+        return JsonUtils.fromUrl(config.getJenkinsPluginVersions(), PluginVersionData.class, cached);
+    }
+
+    /**
+     * Drop all parsed datasets from memory. Next lookups will read the cache again
+     */
+    public void invalidate() {
+        datasets.clear();
+    }
+
+    /**
+     * Drop a parsed dataset from memory. Next lookup will read the cache again
+     * @param cacheKey The cache key of the dataset
+     */
+    public void invalidate(String cacheKey) {
+        datasets.remove(cacheKey);
+    }
+
+    /**
+     * Return the number of dataset lookups served from memory
+     * @return Number of hits
+     */
+    public long getDatasetHits() {
+        return datasetHits.get();
+    }
+
+    /**
+     * Return the number of dataset lookups that needed to read the cache or download the dataset
+     * @return Number of misses
+     */
+    public long getDatasetMisses() {
+        return datasetMisses.get();
+    }
+
+    /**
+     * Download a dataset and update the cache.
+     * An expired entry is revalidated instead of downloaded again when possible
+     * @param cacheKey The cache key
+     * @param download Download the dataset
+     * @param expired The expired entry or null
+     * @return The dataset
+     * @param <T> The dataset type
+     */
+    private <T extends CacheEntry<T>> T refresh(String cacheKey, UnaryOperator<T> download, T expired) {
+        T data = download.apply(expired);
+        if (data == null && expired != null) {
+            LOG.debug("Cached {} is still up to date", cacheKey);
+            cacheManager.touch(cacheManager.root(), cacheKey);
+            return expired;
+        }
+        data.setKey(cacheKey);
+        data.setPath(cacheManager.root());
+        cacheManager.put(data);
+        return data;
+    }
+
+    /**
+     * Refresh an expired dataset in the background. Lookups get the refreshed dataset once done
+     * @param cacheKey The cache key
+     * @param download Download the dataset
+     * @param expired The expired entry
+     * @param <T> The dataset type
+     */
+    private <T extends CacheEntry<T>> void revalidateInBackground(
+            String cacheKey, UnaryOperator<T> download, T expired) {
+        if (!revalidating.add(cacheKey)) {
+            return;
+        }
+        revalidator.execute(() -> {
+            try {
+                T data = refresh(cacheKey, download, expired);
+                datasets.put(cacheKey, data);
+                LOG.debug("Refreshed {} in the background", cacheKey);
+            } catch (RuntimeException e) {
+                LOG.warn("Unable to refresh {} in the background: {}", cacheKey, e.getMessage());
+                LOG.debug("Error while refreshing {}", cacheKey, e);
+            } finally {
+                revalidating.remove(cacheKey);
+            }
+        });
+    }
+
+    /**
+     * Return if an expired dataset is recent enough to be served while being refreshed in the background
+     * @param cacheKey The cache key
+     * @return True if the dataset expired less than the maximum staleness ago
+     */
+    private boolean isServableStale(String cacheKey) {
+        Duration age = cacheManager.getAge(cacheManager.root(), cacheKey);
+        if (age == null || age.compareTo(cacheManager.getTimeToLive(cacheKey).plus(config.getMaxStale())) >= 0) {
+            LOG.debug("Cached {} is too stale to be served. Refreshing it before use", cacheKey);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Retrieve a dataset from memory, then from cache, then from the remote service
+     * @param cacheKey The cache key
+     * @param clazz The dataset class
+     * @param download Download the dataset if not found in cache. Receives the expired entry, if any, to revalidate
+     *                 it and returns null when that entry is still up to date. An expired entry is served as is while
+     *                 being refreshed in the background in stale-while-revalidate mode
+     * @return The dataset
+     * @param <T> The dataset type
+     */
+    private <T extends CacheEntry<T>> T getDataset(String cacheKey, Class<T> clazz, UnaryOperator<T> download) {
+        CacheEntry<?> dataset = datasets.get(cacheKey);
+        if (clazz.isInstance(dataset)) {
+            datasetHits.incrementAndGet();
+            return clazz.cast(dataset);
+        }
+        synchronized (this) {
+            dataset = datasets.get(cacheKey);
+            if (clazz.isInstance(dataset)) {
+                datasetHits.incrementAndGet();
+                return clazz.cast(dataset);
+            }
+            datasetMisses.incrementAndGet();
+            T data = cacheManager.get(cacheManager.root(), cacheKey, clazz);
+            if (data == null) {
+                T expired = cacheManager.getIgnoringExpiration(cacheManager.root(), cacheKey, clazz);
+                if (expired != null && config.isStaleWhileRevalidate() && isServableStale(cacheKey)) {
+                    LOG.debug("Serving expired {} while refreshing it in the background", cacheKey);
+                    revalidateInBackground(cacheKey, download, expired);
+                    data = expired;
+                } else {
+                    data = refresh(cacheKey, download, expired);
+                }
+            }
+            datasets.put(cacheKey, data);
+            return data;
+        }
     }
 }
@@ -30,18 +30,24 @@ public class TemplateUtils {
     }
 
     /**
-     * Render the pull request body
+     * Render the pull request body. Warnings of the plugin are appended to the body of the recipe
      *
      * @param plugin Plugin to modernize
      * @param recipe Recipe to apply
      * @return The rendered pull request body
      */
     public static String renderPullRequestBody(Plugin plugin, Recipe recipe) {
+        String body;
         if (hasBodyTemplate(recipe)) {
-            return renderTemplate(
+            body = renderTemplate(
                     getTemplateNameForRecipe("pr-body", recipe), Map.of("plugin", plugin, "recipe", recipe));
+        } else {
+            body = renderTemplate("pr-body.jte", Map.of("plugin", plugin, "recipe", recipe));
+        }
+        if (plugin.hasWarnings()) {
+            body += "\n\n" + renderTemplate("warnings.jte", Map.of("plugin", plugin));
         }
-        return renderTemplate("pr-body.jte", Map.of("plugin", plugin, "recipe", recipe));
+        return body;
     }
 
     /**
@@ -0,0 +1,166 @@
+package io.jenkins.tools.pluginmodernizer.core.utils;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import io.jenkins.tools.pluginmodernizer.core.model.UpdateCenterData;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming reader of the update center JSON.
+ * Only the fields of {@link UpdateCenterData.UpdateCenterPlugin} and the deprecations are kept, everything else
+ * (dependencies, developers, warnings, signature...) is skipped token by token without building a JSON tree.
+ */
+public class UpdateCenterDataReader {
+
+    /**
+     * Expected number of plugins in the update center, to avoid rehashing while reading
+     */
+    private static final int EXPECTED_PLUGINS = 2048;
+
+    private UpdateCenterDataReader() {
+        // Hide constructor
+    }
+
+    /**
+     * Read the update center data
+     * @param reader The reader of the update center JSON. Not closed
+     * @param cacheManager The cache manager of the data
+     * @return The update center data
+     */
+    public static UpdateCenterData read(Reader reader, CacheManager cacheManager) {
+        UpdateCenterData updateCenterData = new UpdateCenterData(cacheManager);
+        Map<String, UpdateCenterData.UpdateCenterPlugin> plugins = new HashMap<>(EXPECTED_PLUGINS * 4 / 3);
+        Map<String, UpdateCenterData.DeprecatedPlugin> deprecations = new HashMap<>();
+        // Labels are shared by many plugins
+        Map<String, String> labels = new HashMap<>();
+        try {
+            JsonReader json = new JsonReader(reader);
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "plugins" -> {
+                        json.beginObject();
+                        while (json.hasNext()) {
+                            String name = json.nextName();
+                            plugins.put(name, readPlugin(json, name, labels));
+                        }
+                        json.endObject();
+                    }
+                    case "deprecations" -> {
+                        json.beginObject();
+                        while (json.hasNext()) {
+                            String name = json.nextName();
+                            deprecations.put(name, readDeprecation(json));
+                        }
+                        json.endObject();
+                    }
+                    default -> json.skipValue();
+                }
+            }
+            json.endObject();
+        } catch (IOException | IllegalStateException | JsonParseException e) {
+            throw new ModernizerException("Unable to read update center data", e);
+        }
+        updateCenterData.setPlugins(plugins);
+        updateCenterData.setDeprecations(deprecations);
+        return updateCenterData;
+    }
+
+    /**
+     * Read a plugin of the update center
+     * @param json The JSON reader positioned on the plugin object
+     * @param key The key of the plugin
+     * @param labels The labels already read
+     * @return The plugin
+     * @throws IOException If the JSON cannot be read
+     */
+    private static UpdateCenterData.UpdateCenterPlugin readPlugin(
+            JsonReader json, String key, Map<String, String> labels) throws IOException {
+        String name = key;
+        String version = null;
+        String scm = null;
+        String defaultBranch = null;
+        String gav = null;
+        List<String> pluginLabels = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "name" -> name = nextString(json);
+                case "version" -> version = nextString(json);
+                case "scm" -> scm = nextString(json);
+                case "defaultBranch" -> defaultBranch = nextString(json);
+                case "gav" -> gav = nextString(json);
+                case "labels" -> pluginLabels = readLabels(json, labels);
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+        return new UpdateCenterData.UpdateCenterPlugin(name, version, scm, defaultBranch, gav, pluginLabels);
+    }
+
+    /**
+     * Read a deprecation of the update center
+     * @param json The JSON reader positioned on the deprecation object
+     * @return The deprecation
+     * @throws IOException If the JSON cannot be read
+     */
+    private static UpdateCenterData.DeprecatedPlugin readDeprecation(JsonReader json) throws IOException {
+        String url = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            if (json.nextName().equals("url")) {
+                url = nextString(json);
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        return new UpdateCenterData.DeprecatedPlugin(url);
+    }
+
+    /**
+     * Read the labels of a plugin, reusing labels already read
+     * @param json The JSON reader positioned on the labels array
+     * @param labels The labels already read
+     * @return The labels or null
+     * @throws IOException If the JSON cannot be read
+     */
+    private static List<String> readLabels(JsonReader json, Map<String, String> labels) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        List<String> result = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            String label = nextString(json);
+            if (label != null) {
+                result.add(labels.computeIfAbsent(label, l -> l));
+            }
+        }
+        json.endArray();
+        return List.copyOf(result);
+    }
+
+    /**
+     * Read a string value that can be null
+     * @param json The JSON reader
+     * @return The string or null
+     * @throws IOException If the JSON cannot be read
+     */
+    private static String nextString(JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        return json.nextString();
+    }
+}
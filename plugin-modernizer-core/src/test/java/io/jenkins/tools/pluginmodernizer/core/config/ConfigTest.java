@@ -8,7 +8,9 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
@@ -112,4 +114,71 @@ public class ConfigTest {
 
         assertTrue(config.isDryRun());
     }
+
+    @Test
+    public void testConfigBuilderParallelism() {
+        assertEquals(1, Config.builder().build().getParallelism());
+        assertEquals(4, Config.builder().withParallelism(4).build().getParallelism());
+        assertEquals(1, Config.builder().withParallelism(0).build().getParallelism());
+    }
+
+    @Test
+    public void testConfigBuilderMavenDaemon() {
+        assertFalse(Config.builder().build().isMavenDaemon());
+        assertTrue(Config.builder().withMavenDaemon(true).build().isMavenDaemon());
+    }
+
+    @Test
+    public void testConfigBuilderGitOptions() {
+        Config config = Config.builder().build();
+        assertFalse(config.isSharedGitObjects());
+        assertFalse(config.isShallowClone());
+        assertTrue(config.isBulkRepositoryLookup());
+        assertTrue(config.isStaleWhileRevalidate());
+        assertEquals(Duration.ofDays(1), config.getMaxStale());
+        assertEquals(Map.of(), config.getCacheTimeToLives());
+        assertTrue(config.isJdkPrefetch());
+        config = Config.builder()
+                .withSharedGitObjects(true)
+                .withShallowClone(true)
+                .withBulkRepositoryLookup(false)
+                .withStaleWhileRevalidate(false)
+                .withJdkPrefetch(false)
+                .build();
+        assertTrue(config.isSharedGitObjects());
+        assertTrue(config.isShallowClone());
+        assertFalse(config.isBulkRepositoryLookup());
+        assertFalse(config.isStaleWhileRevalidate());
+        assertFalse(config.isJdkPrefetch());
+    }
+
+    @Test
+    public void testConfigBuilderBuildCache() {
+        assertTrue(Config.builder().build().isBuildCache());
+        assertFalse(Config.builder().withBuildCache(false).build().isBuildCache());
+    }
+
+    @Test
+    public void testConfigBuilderVerificationMode() {
+        assertEquals(Config.VerificationMode.FULL, Config.builder().build().getVerificationMode());
+        assertEquals(
+                Config.VerificationMode.AFFECTED,
+                Config.builder().withVerificationMode(Config.VerificationMode.AFFECTED).build().getVerificationMode());
+        assertEquals(
+                Config.VerificationMode.FULL,
+                Config.builder().withVerificationMode(null).build().getVerificationMode());
+    }
+
+    @Test
+    public void testConfigBuilderJdkMatrix() {
+        Config defaults = Config.builder().build();
+        assertFalse(defaults.isVerifyJdkMatrix());
+        assertEquals(2, defaults.getMaxConcurrentJdkBuilds());
+        Config config = Config.builder()
+                .withVerifyJdkMatrix(true)
+                .withMaxConcurrentJdkBuilds(3)
+                .build();
+        assertTrue(config.isVerifyJdkMatrix());
+        assertEquals(3, config.getMaxConcurrentJdkBuilds());
+    }
 }
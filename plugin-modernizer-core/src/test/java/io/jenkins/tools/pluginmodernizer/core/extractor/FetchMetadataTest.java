@@ -7,10 +7,13 @@ import static org.openrewrite.maven.Assertions.pomXml;
 import static org.openrewrite.test.SourceSpecs.text;
 import static org.openrewrite.yaml.Assertions.yaml;
 
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
 import io.jenkins.tools.pluginmodernizer.core.model.JDK;
 import io.jenkins.tools.pluginmodernizer.core.model.Platform;
 import io.jenkins.tools.pluginmodernizer.core.recipes.DeclarativeRecipesTest;
 import io.jenkins.tools.pluginmodernizer.core.recipes.FetchMetadata;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -20,6 +23,7 @@ import java.util.Set;
 import org.intellij.lang.annotations.Language;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.openrewrite.Issue;
@@ -820,4 +824,29 @@ public class FetchMetadataTest implements RewriteTest {
         assertTrue(pluginMetadata.isUseContainerAgent());
         assertEquals("1C", pluginMetadata.getForkCount());
     }
+
+    @Test
+    void testStaticExtraction(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve("pom.xml"), POM_XML);
+        Files.writeString(tempDir.resolve("Jenkinsfile"), "buildPlugin(useContainerAgent: true, forkCount: '1C')");
+        Path test = tempDir.resolve("src/test/java/io/jenkins/FooTest.java");
+        Files.createDirectories(test.getParent());
+        Files.writeString(test, "package io.jenkins;\nimport org.testcontainers.containers.GenericContainer;\n");
+
+        PluginMetadata pluginMetadata =
+                new StaticMetadataExtractor(tempDir, null).extract(new CacheManager(tempDir.resolve("target")));
+
+        assertTrue(pluginMetadata.hasFile(ArchetypeCommonFile.POM), "POM file is missing");
+        assertTrue(pluginMetadata.hasFile(ArchetypeCommonFile.JENKINSFILE), "Jenkinsfile is missing");
+        assertEquals(EXPECTED_METADATA.getParentVersion(), pluginMetadata.getParentVersion());
+        assertEquals(EXPECTED_METADATA.getPluginName(), pluginMetadata.getPluginName());
+        assertEquals(EXPECTED_METADATA.getJenkinsVersion(), pluginMetadata.getJenkinsVersion());
+        assertEquals(EXPECTED_METADATA.getBomVersion(), pluginMetadata.getBomVersion());
+        assertEquals(EXPECTED_METADATA.getProperties(), pluginMetadata.getProperties());
+        assertEquals(EXPECTED_METADATA.getFlags(), pluginMetadata.getFlags());
+        assertTrue(pluginMetadata.isUseContainerAgent());
+        assertEquals("1C", pluginMetadata.getForkCount());
+        assertTrue(pluginMetadata.isUseContainerTests());
+        assertTrue(Files.isRegularFile(tempDir.resolve("target").resolve(CacheManager.PLUGIN_METADATA_CACHE_KEY)));
+    }
 }
@@ -0,0 +1,63 @@
+package io.jenkins.tools.pluginmodernizer.core.extractor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MetadataSourceHashTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private Path javaFile;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Files.writeString(tempDir.resolve("pom.xml"), "<project/>");
+        Files.writeString(tempDir.resolve("Jenkinsfile"), "buildPlugin()");
+        javaFile = tempDir.resolve("src/main/java/io/jenkins/Foo.java");
+        Files.createDirectories(javaFile.getParent());
+        Files.writeString(javaFile, "package io.jenkins;\nimport java.util.List;\nclass Foo {}\n");
+    }
+
+    @Test
+    public void shouldReturnNullWithoutPom() throws Exception {
+        Files.delete(tempDir.resolve("pom.xml"));
+        assertNull(MetadataSourceHash.compute(tempDir, "1.0"));
+        assertNull(MetadataSourceHash.compute(null, "1.0"));
+    }
+
+    @Test
+    public void shouldBeStableForSameSources() {
+        String hash = MetadataSourceHash.compute(tempDir, "1.0");
+        assertNotNull(hash);
+        assertEquals(hash, MetadataSourceHash.compute(tempDir, "1.0"));
+        assertNotEquals(hash, MetadataSourceHash.compute(tempDir, "2.0"));
+    }
+
+    @Test
+    public void shouldIgnoreJavaCodeAndBuildOutput() throws Exception {
+        String hash = MetadataSourceHash.compute(tempDir, "1.0");
+        Files.writeString(javaFile, "package io.jenkins;\nimport java.util.List;\nclass Foo { int bar; }\n");
+        Files.createDirectories(tempDir.resolve("target"));
+        Files.writeString(tempDir.resolve("target/pom.xml"), "<project><modelVersion/></project>");
+        assertEquals(hash, MetadataSourceHash.compute(tempDir, "1.0"));
+    }
+
+    @Test
+    public void shouldChangeWithInputs() throws Exception {
+        String hash = MetadataSourceHash.compute(tempDir, "1.0");
+        Files.writeString(javaFile, "package io.jenkins;\nimport org.testcontainers.containers.GenericContainer;\n");
+        String importHash = MetadataSourceHash.compute(tempDir, "1.0");
+        assertNotEquals(hash, importHash);
+        Files.writeString(tempDir.resolve("Jenkinsfile"), "buildPlugin(useContainerAgent: true)");
+        String jenkinsfileHash = MetadataSourceHash.compute(tempDir, "1.0");
+        assertNotEquals(importHash, jenkinsfileHash);
+        Files.writeString(tempDir.resolve("README.md"), "# Foo");
+        assertNotEquals(jenkinsfileHash, MetadataSourceHash.compute(tempDir, "1.0"));
+    }
+}
@@ -1,6 +1,7 @@
 package io.jenkins.tools.pluginmodernizer.core.github;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -30,12 +31,15 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
 import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.PushResult;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -1030,6 +1034,85 @@ public class GHServiceTest {
         }
     }
 
+    @Test
+    public void shouldShallowCloneWhenEnabled() throws Exception {
+
+        // Mock
+        GHRepository repository = Mockito.mock(GHRepository.class);
+        Git git = Mockito.mock(Git.class);
+        CloneCommand cloneCommand = Mockito.mock(CloneCommand.class);
+
+        doReturn(true).when(config).isShallowClone();
+        doReturn(repository).when(plugin).getRemoteRepository(eq(service));
+        doReturn(git).when(cloneCommand).call();
+        doReturn("fake-url").when(repository).getHttpTransportUrl();
+        doReturn(cloneCommand).when(cloneCommand).setRemote(eq("origin"));
+        doReturn(cloneCommand).when(cloneCommand).setURI(eq("fake-url"));
+        doReturn(cloneCommand).when(cloneCommand).setCredentialsProvider(any(CredentialsProvider.class));
+        doReturn(cloneCommand).when(cloneCommand).setDirectory(any(File.class));
+        doReturn(cloneCommand).when(cloneCommand).setDepth(eq(1));
+
+        // Directory doesn't exists
+        doReturn(Path.of("not-existing-dir")).when(plugin).getLocalRepository();
+
+        // Test
+        try (MockedStatic<Git> mockStaticGit = mockStatic(Git.class)) {
+            mockStaticGit.when(Git::cloneRepository).thenReturn(cloneCommand);
+            service.fetch(plugin, RepoType.PLUGIN);
+            verify(cloneCommand, times(1)).setDepth(1);
+            verify(cloneCommand, times(1)).call();
+        }
+    }
+
+    @Test
+    public void shouldPushShallowCloneWithoutFetchingHistory() throws Exception {
+
+        // Remote with some history
+        Path source = pluginDir.resolve("source");
+        try (Git git = Git.init().setDirectory(source.toFile()).setInitialBranch("main").call()) {
+            for (int i = 0; i < 3; i++) {
+                Files.writeString(source.resolve("file.txt"), "content " + i);
+                git.add().addFilepattern("file.txt").call();
+                git.commit().setMessage("Commit " + i).setSign(false).call();
+            }
+        }
+        Path remote = pluginDir.resolve("remote.git");
+        Git.cloneRepository()
+                .setURI(source.toUri().toString())
+                .setDirectory(remote.toFile())
+                .setBare(true)
+                .call()
+                .close();
+
+        // Shallow clone with a new commit
+        Path clone = pluginDir.resolve("clone");
+        try (Git git = Git.cloneRepository()
+                .setURI(remote.toUri().toString())
+                .setDirectory(clone.toFile())
+                .setDepth(1)
+                .call()) {
+            assertTrue(Files.isRegularFile(clone.resolve(".git").resolve("shallow")));
+            git.checkout().setCreateBranch(true).setName("modernize").call();
+            Files.writeString(clone.resolve("file.txt"), "modernized");
+            git.add().addFilepattern("file.txt").call();
+            git.commit().setMessage("Modernize").setSign(false).call();
+
+            // Test
+            List<PushResult> results = service.push(git, clone, "modernize");
+
+            // Verify
+            assertSame(
+                    RemoteRefUpdate.Status.OK,
+                    results.get(0).getRemoteUpdate("refs/heads/modernize").getStatus());
+        }
+        assertTrue(
+                Files.isRegularFile(clone.resolve(".git").resolve("shallow")),
+                "Full history should not be fetched");
+        try (Git git = Git.open(remote.toFile())) {
+            assertNotNull(git.getRepository().exactRef("refs/heads/modernize"));
+        }
+    }
+
     @Test
     public void shouldSshFetchOriginalRepoInMetaDataOnlyModeToNewFolder() throws Exception {
 
@@ -0,0 +1,92 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.MetricsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.http.HttpHeaders;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class GitHubRateLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final GitHubRateLimiter limiter = new GitHubRateLimiter(50, Clock.systemUTC(), meterRegistry);
+
+    private final Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    public void shouldNotDelayWithEnoughQuota() {
+        assertEquals(0, limiter.computeDelay(4000, 5000, now.plusSeconds(600), now));
+        assertEquals(0, limiter.computeDelay(-1, -1, now, now));
+    }
+
+    @Test
+    public void shouldPaceCallsWhenQuotaIsLow() {
+        // 500 calls left over the reserve for 600s
+        assertEquals(1200, limiter.computeDelay(550, 5000, now.plusSeconds(600), now));
+        // Capped delay
+        assertEquals(10_000, limiter.computeDelay(60, 5000, now.plusSeconds(3600), now));
+    }
+
+    @Test
+    public void shouldWaitForResetWhenReserveIsReached() {
+        assertEquals(61_000, limiter.computeDelay(50, 5000, now.plusSeconds(60), now));
+        assertEquals(0, limiter.computeDelay(10, 5000, now.minusSeconds(1), now));
+    }
+
+    @Test
+    public void shouldExposeUnknownQuota() {
+        assertEquals(-1, limiter.getRemaining());
+        assertEquals(-1, limiter.getLimit());
+        assertEquals(0, limiter.getThrottledCalls());
+    }
+
+    @Test
+    public void shouldRegisterQuotaGaugesOnce() {
+        assertEquals(-1, meterRegistry.get(MetricsService.GITHUB_QUOTA_REMAINING).gauge().value());
+        assertEquals(-1, meterRegistry.get(MetricsService.GITHUB_QUOTA_LIMIT).gauge().value());
+        assertEquals(1, meterRegistry.find(MetricsService.GITHUB_QUOTA_REMAINING).gauges().size());
+    }
+
+    @Test
+    public void shouldCountGraphQLCalls() throws InterruptedException {
+        limiter.checkGraphQLRateLimit();
+        limiter.updateGraphQLRateLimit(headers("4990", "5000", "0"));
+        limiter.checkGraphQLRateLimit();
+        assertEquals(2, meterRegistry.get(MetricsService.GITHUB_CALLS).counter().count());
+        assertEquals(0, limiter.getThrottledCalls());
+    }
+
+    @Test
+    public void shouldPaceGraphQLCallsOnTheirOwnQuota() throws InterruptedException {
+        long reset = Instant.now().plusSeconds(10).getEpochSecond();
+        limiter.updateGraphQLRateLimit(headers("550", "5000", String.valueOf(reset)));
+        limiter.checkGraphQLRateLimit();
+        assertEquals(1, limiter.getThrottledCalls());
+        // The REST quota is left untouched
+        assertEquals(-1, limiter.getRemaining());
+        assertEquals(-1, limiter.getLimit());
+    }
+
+    @Test
+    public void shouldIgnoreInvalidGraphQLHeaders() throws InterruptedException {
+        limiter.updateGraphQLRateLimit(headers("none", "5000", "0"));
+        limiter.checkGraphQLRateLimit();
+        assertEquals(0, limiter.getThrottledCalls());
+    }
+
+    private static HttpHeaders headers(String remaining, String limit, String reset) {
+        return HttpHeaders.of(
+                Map.of(
+                        "x-ratelimit-remaining", List.of(remaining),
+                        "x-ratelimit-limit", List.of(limit),
+                        "x-ratelimit-reset", List.of(reset)),
+                (name, value) -> true);
+    }
+}
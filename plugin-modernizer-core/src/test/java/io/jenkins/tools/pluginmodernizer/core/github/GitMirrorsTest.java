@@ -0,0 +1,76 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.transport.URIish;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GitMirrorsTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void shouldUseSameMirrorForSshAndHttps() throws Exception {
+        GitMirrors mirrors = new GitMirrors(tempDir);
+        Path https = mirrors.getMirror(new URIish("https://github.com/jenkinsci/foo-plugin.git"));
+        Path ssh = mirrors.getMirror(new URIish("ssh://git@github.com:22/jenkinsci/foo-plugin.git"));
+        assertEquals(https, ssh);
+        assertEquals(
+                tempDir.resolve(GitMirrors.MIRRORS_DIRECTORY).resolve("github.com/jenkinsci/foo-plugin.git"), https);
+    }
+
+    @Test
+    public void shouldCheckoutFromMirror() throws Exception {
+        Path source = tempDir.resolve("source");
+        try (Git git = Git.init().setDirectory(source.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(source.resolve("pom.xml"), "<project/>");
+            git.add().addFilepattern("pom.xml").call();
+            git.commit().setMessage("Initial commit").setSign(false).call();
+        }
+        URIish remoteUri = new URIish(source.toUri().toURL());
+        GitMirrors mirrors = new GitMirrors(tempDir.resolve("cache"));
+
+        Path checkout = tempDir.resolve("checkout");
+        mirrors.checkout(remoteUri, null, checkout.toFile(), "main");
+
+        assertTrue(Files.isRegularFile(checkout.resolve("pom.xml")));
+        assertTrue(mirrors.isBorrowing(checkout));
+        assertTrue(Files.isDirectory(mirrors.getMirror(remoteUri)));
+        try (Git git = Git.open(checkout.toFile())) {
+            assertEquals("main", git.getRepository().getBranch());
+            assertEquals(remoteUri.toString(), git.getRepository().getConfig().getString("remote", "origin", "url"));
+        }
+    }
+
+    @Test
+    public void shouldKeepDeletedBranchesAndDisablePruning() throws Exception {
+        Path source = tempDir.resolve("source");
+        try (Git git = Git.init().setDirectory(source.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(source.resolve("pom.xml"), "<project/>");
+            git.add().addFilepattern("pom.xml").call();
+            git.commit().setMessage("Initial commit").setSign(false).call();
+            git.branchCreate().setName("feature").call();
+        }
+        URIish remoteUri = new URIish(source.toUri().toURL());
+        GitMirrors mirrors = new GitMirrors(tempDir.resolve("cache"));
+        Path mirror = mirrors.update(remoteUri, null);
+
+        try (Git git = Git.open(source.toFile())) {
+            git.branchDelete().setBranchNames("feature").setForce(true).call();
+        }
+        mirrors.update(remoteUri, null);
+
+        try (Git git = Git.open(mirror.toFile())) {
+            assertNotNull(git.getRepository().exactRef("refs/heads/feature"));
+            StoredConfig config = git.getRepository().getConfig();
+            assertEquals(0, config.getInt("gc", "auto", -1));
+            assertEquals("never", config.getString("gc", null, "pruneExpire"));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class GraphQLRepositoryResolverTest {
+
+    @Test
+    public void shouldComputeEndpoint() throws Exception {
+        assertEquals(
+                URI.create("https://api.github.com/graphql"),
+                GraphQLRepositoryResolver.getEndpoint(URI.create("https://api.github.com").toURL()));
+        assertEquals(
+                URI.create("https://github.example.com/api/graphql"),
+                GraphQLRepositoryResolver.getEndpoint(URI.create("https://github.example.com/api/v3/").toURL()));
+    }
+
+    @Test
+    public void shouldBuildQueryWithAliases() {
+        String query = GraphQLRepositoryResolver.buildQuery(
+                "jenkinsci", "fake-owner", List.of("foo-plugin", "bar-plugin"), Map.of("foo-plugin", "my-branch"));
+        assertTrue(query.contains("r0: repository(owner: \"jenkinsci\", name: \"foo-plugin\")"));
+        assertTrue(query.contains("r1: repository(owner: \"jenkinsci\", name: \"bar-plugin\")"));
+        assertTrue(query.contains("f1: repository(owner: \"fake-owner\", name: \"bar-plugin\")"));
+        assertTrue(query.contains("headRefName: \"my-branch\""));
+    }
+
+    @Test
+    public void shouldParseResponse() {
+        String response = """
+                {
+                  "data": {
+                    "r0": {
+                      "isArchived": false,
+                      "defaultBranchRef": { "name": "main" },
+                      "pullRequests": { "nodes": [
+                        { "baseRefName": "main", "headRepositoryOwner": { "login": "Fake-Owner" } },
+                        { "baseRefName": "other", "headRepositoryOwner": { "login": "someone" } }
+                      ] }
+                    },
+                    "f0": { "id": "R_1" },
+                    "r1": null,
+                    "f1": null
+                  },
+                  "errors": [ { "type": "NOT_FOUND" } ]
+                }
+                """;
+        Map<String, RepositoryInfo> infos = GraphQLRepositoryResolver.parse(
+                response,
+                "jenkinsci",
+                "fake-owner",
+                List.of("foo-plugin", "bar-plugin"),
+                Map.of("foo-plugin", "my-branch", "bar-plugin", "my-branch"));
+        assertEquals(1, infos.size());
+        RepositoryInfo info = infos.get("jenkinsci/foo-plugin");
+        assertFalse(info.archived());
+        assertEquals("main", info.defaultBranch());
+        assertTrue(info.forked());
+        assertTrue(info.hasOpenPullRequest("fake-owner:my-branch"));
+        assertFalse(info.hasOpenPullRequest("someone:my-branch"));
+    }
+
+    @Test
+    public void shouldFailWithoutData() {
+        assertThrows(
+                IllegalStateException.class,
+                () -> GraphQLRepositoryResolver.parse(
+                        "{\"errors\": []}", "jenkinsci", null, List.of("foo-plugin"), Map.of()));
+    }
+}
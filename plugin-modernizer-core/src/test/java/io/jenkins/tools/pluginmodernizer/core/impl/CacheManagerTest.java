@@ -4,7 +4,10 @@ import static java.time.Clock.systemUTC;
 import static java.time.temporal.ChronoUnit.MINUTES;
 import static org.junit.jupiter.api.Assertions.*;
 
+import io.jenkins.tools.pluginmodernizer.core.model.BuildResults;
 import io.jenkins.tools.pluginmodernizer.core.model.CacheEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -12,6 +15,15 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -31,6 +43,20 @@ public class CacheManagerTest {
         }
     }
 
+    private static class TestCompactEntry extends CacheEntry<TestCompactEntry> {
+
+        private String value;
+
+        public TestCompactEntry(CacheManager cacheManager, String key, Path path) {
+            super(cacheManager, TestCompactEntry.class, key, path);
+        }
+
+        @Override
+        public boolean isCompact() {
+            return true;
+        }
+    }
+
     @BeforeEach
     void setUp() {
         cachePath = tempDir.resolve("cache");
@@ -47,6 +73,78 @@ public class CacheManagerTest {
         assertTrue(Files.exists(fileToCache));
     }
 
+    @Test
+    void testCompactRoundTrip() throws IOException {
+        String cacheKey = "compactKey";
+        TestCompactEntry value = new TestCompactEntry(cacheManager, cacheKey, cacheManager.root());
+        value.value = "some value";
+        cacheManager.put(value);
+
+        // Plain JSON on a single line
+        String json = Files.readString(cachePath.resolve(cacheKey));
+        assertTrue(json.startsWith("{"));
+        assertFalse(json.contains("\n"));
+        TestCompactEntry entry = cacheManager.get(cacheManager.root(), cacheKey, TestCompactEntry.class);
+        assertNotNull(entry);
+        assertEquals("some value", entry.value);
+        assertSame(cacheManager, entry.getCacheManager());
+    }
+
+    @Test
+    void testCorruptedEntryIsIgnored() throws IOException {
+        String cacheKey = "compactKey";
+        TestCompactEntry value = new TestCompactEntry(cacheManager, cacheKey, cacheManager.root());
+        value.value = "some value";
+        cacheManager.put(value);
+
+        // Truncated
+        Path file = cachePath.resolve(cacheKey);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        assertNull(cacheManager.get(cacheManager.root(), cacheKey, TestCompactEntry.class));
+
+        // Not JSON
+        Files.write(file, new byte[] {'P', 'M', 'C', 'S', 0, 0, 0, 1});
+        assertNull(cacheManager.get(cacheManager.root(), cacheKey, TestCompactEntry.class));
+    }
+
+    @Test
+    void testConcurrentWritesAreNeverSeenTorn() throws Exception {
+        String cacheKey = "sharedKey";
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int worker = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        TestCompactEntry value = new TestCompactEntry(cacheManager, cacheKey, cacheManager.root());
+                        // Values of different sizes so a torn read would be detected
+                        value.value = String.valueOf(worker).repeat(1 + j * worker);
+                        cacheManager.put(value);
+                        TestCompactEntry entry =
+                                cacheManager.get(cacheManager.root(), cacheKey, TestCompactEntry.class);
+                        assertNotNull(entry);
+                        assertEquals(1, entry.value.chars().distinct().count());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Only the entry and the lock file are left
+        try (Stream<Path> files = Files.list(cachePath)) {
+            assertEquals(
+                    Set.of(cacheKey, CacheManager.LOCK_FILE),
+                    files.map(path -> path.getFileName().toString()).collect(Collectors.toSet()));
+        }
+    }
+
     @Test
     public void cacheReturnsNullWhenJsonWasPutIntoCacheMoreThanAnHourAgo() {
         String cacheKey = "testKey";
@@ -58,6 +156,40 @@ public class CacheManagerTest {
         assertNull(jsonStr);
     }
 
+    @Test
+    public void cacheReturnsExpiredEntryWhenIgnoringExpiration() {
+        String cacheKey = "testKey";
+        CacheManager managerWithExpiredEntries = cacheManagerWithExpiredEntries();
+        TestCacheEntry value = new TestCacheEntry(cacheManager, TestCacheEntry.class, cacheKey, cachePath);
+        managerWithExpiredEntries.put(value);
+        assertNull(managerWithExpiredEntries.get(cacheManager.root(), cacheKey, TestCacheEntry.class));
+        assertNotNull(
+                managerWithExpiredEntries.getIgnoringExpiration(cacheManager.root(), cacheKey, TestCacheEntry.class));
+    }
+
+    @Test
+    public void cacheAppliesTimeToLiveOfKey() {
+        CacheManager managerWithExpiredEntries = cacheManagerWithExpiredEntries();
+        String cacheKey = CacheManager.PLUGIN_VERSIONS_CACHE_KEY;
+        managerWithExpiredEntries.put(new TestCacheEntry(cacheManager, TestCacheEntry.class, cacheKey, cachePath));
+        assertNotNull(managerWithExpiredEntries.get(cacheManager.root(), cacheKey, TestCacheEntry.class));
+
+        managerWithExpiredEntries.setTimeToLive(cacheKey, Duration.ofMinutes(30));
+        assertNull(managerWithExpiredEntries.get(cacheManager.root(), cacheKey, TestCacheEntry.class));
+        assertEquals(CacheManager.DEFAULT_TIME_TO_LIVE, managerWithExpiredEntries.getTimeToLive("testKey"));
+    }
+
+    @Test
+    public void cacheReturnsAgeOfEntry() {
+        CacheManager managerWithExpiredEntries = cacheManagerWithExpiredEntries();
+        String cacheKey = "testKey";
+        assertNull(managerWithExpiredEntries.getAge(cacheManager.root(), cacheKey));
+        managerWithExpiredEntries.put(new TestCacheEntry(cacheManager, TestCacheEntry.class, cacheKey, cachePath));
+        Duration age = managerWithExpiredEntries.getAge(cacheManager.root(), cacheKey);
+        assertNotNull(age);
+        assertTrue(age.compareTo(Duration.ofMinutes(60)) > 0);
+    }
+
     @Test
     public void cacheReturnsJsonStringWhenJsonWasPutIntoCacheLessThanAnHourAgo() {
         String cacheKey = "testKey";
@@ -119,6 +251,19 @@ public class CacheManagerTest {
         assertNotNull(cacheManager.get(cacheManager.root(), cacheKey, TestCacheEntry.class));
     }
 
+    @Test
+    void testRequestsAreCounted() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CacheManager cacheManager = new CacheManager(cachePath, meterRegistry);
+        String cacheKey = "testKey";
+        assertNull(cacheManager.get(cacheManager.root(), cacheKey, TestCacheEntry.class));
+        cacheManager.put(new TestCacheEntry(cacheManager, TestCacheEntry.class, cacheKey, cachePath));
+        assertNotNull(cacheManager.get(cacheManager.root(), cacheKey, TestCacheEntry.class));
+
+        assertEquals(1, meterRegistry.get(MetricsService.CACHE_REQUESTS).tag("result", "miss").counter().count());
+        assertEquals(1, meterRegistry.get(MetricsService.CACHE_REQUESTS).tag("result", "hit").counter().count());
+    }
+
     @Test
     void testRemove() {
         Path cachePath = tempDir.resolve("cache");
@@ -150,4 +295,24 @@ public class CacheManagerTest {
         cacheManager.remove(cacheManager.root(), cacheKey);
         assertFalse(Files.exists(fileToRemove));
     }
+
+    @Test
+    void testBuildResultsRoundTrip() {
+        BuildResults results = new BuildResults(cacheManager, Path.of("example"));
+        for (int i = 0; i <= BuildResults.MAX_BUILDS; i++) {
+            results.addSuccess("build-" + i);
+        }
+        results.addSuccess("build-1");
+        results.save();
+
+        BuildResults cached =
+                cacheManager.get(Path.of("example"), CacheManager.BUILD_RESULTS_CACHE_KEY, BuildResults.class);
+        assertNotNull(cached);
+        assertEquals(BuildResults.MAX_BUILDS, cached.getSuccesses().size());
+        assertFalse(cached.isSuccessful("build-0"));
+        assertTrue(cached.isSuccessful("build-1"));
+        assertTrue(cached.isSuccessful("build-" + BuildResults.MAX_BUILDS));
+        assertEquals("build-1", cached.getSuccesses().get(BuildResults.MAX_BUILDS - 1));
+        assertEquals(Duration.ofDays(7), cacheManager.getTimeToLive(CacheManager.BUILD_RESULTS_CACHE_KEY));
+    }
 }
@@ -0,0 +1,71 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jenkins.tools.pluginmodernizer.core.model.BuildFailure;
+import io.jenkins.tools.pluginmodernizer.core.model.JDK;
+import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
+import io.jenkins.tools.pluginmodernizer.core.model.PluginWarning;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class JdkMatrixVerifierTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testCopySkipsBuildOutputs() throws IOException {
+        Path source = tempDir.resolve("source");
+        Files.createDirectories(source.resolve("src/main/java/org/example"));
+        Files.writeString(source.resolve("pom.xml"), "<project/>", StandardCharsets.UTF_8);
+        Files.writeString(source.resolve("src/main/java/org/example/Foo.java"), "class Foo {}", StandardCharsets.UTF_8);
+        Files.createDirectories(source.resolve(".git"));
+        Files.writeString(source.resolve(".git/HEAD"), "ref: refs/heads/main", StandardCharsets.UTF_8);
+        Files.createDirectories(source.resolve("module/target/classes"));
+        Files.writeString(source.resolve("module/pom.xml"), "<project/>", StandardCharsets.UTF_8);
+        Files.writeString(source.resolve("module/target/classes/Foo.class"), "", StandardCharsets.UTF_8);
+
+        Path copy = tempDir.resolve("copy");
+        JdkMatrixVerifier.copy(source, copy);
+
+        assertEquals("<project/>", Files.readString(copy.resolve("pom.xml")));
+        assertEquals("class Foo {}", Files.readString(copy.resolve("src/main/java/org/example/Foo.java")));
+        assertTrue(Files.isRegularFile(copy.resolve("module/pom.xml")));
+        assertFalse(Files.exists(copy.resolve(".git")));
+        assertFalse(Files.exists(copy.resolve("module/target")));
+    }
+
+    @Test
+    void testDescribeFailureOfDetachedPlugin() {
+        Path copy = tempDir.resolve("jdk-matrix").resolve("17");
+        Plugin detached = Plugin.build("example").withDetached(true);
+        assertNull(JdkMatrixVerifier.describeFailure(detached, JDK.JAVA_17, copy, true));
+        assertEquals(
+                new PluginWarning("Failed to verify with JDK 17. Build failed", null),
+                JdkMatrixVerifier.describeFailure(detached, JDK.JAVA_17, copy, false));
+
+        // Log file is kept apart from the message
+        Path logFile = tempDir.resolve("maven-1.log.gz");
+        detached.addError(new BuildFailure("example", List.of("org.example.FooTest.testFoo"), List.of(), logFile));
+        assertEquals(
+                new PluginWarning(
+                        "Failed to verify with JDK 17. Build failed in module example. "
+                                + "Failing tests: org.example.FooTest.testFoo",
+                        logFile),
+                JdkMatrixVerifier.describeFailure(detached, JDK.JAVA_17, copy, false));
+
+        // Paths of the copy are relative
+        String error = copy.resolve("src/main/java/Foo.java") + ":[3,1] cannot find symbol";
+        detached.addError(new BuildFailure(null, List.of(), List.of(error), logFile));
+        assertEquals(
+                "Failed to verify with JDK 17. Build failed: "
+                        + Path.of("src/main/java/Foo.java") + ":[3,1] cannot find symbol",
+                JdkMatrixVerifier.describeFailure(detached, JDK.JAVA_17, copy, false).message());
+    }
+}
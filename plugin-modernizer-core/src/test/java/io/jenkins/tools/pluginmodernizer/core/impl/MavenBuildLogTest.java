@@ -0,0 +1,106 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jenkins.tools.pluginmodernizer.core.model.BuildFailure;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MavenBuildLogTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testWritesCompressedOutput() throws IOException {
+        Path file = tempDir.resolve("logs").resolve("maven.log.gz");
+        try (MavenBuildLog log = new MavenBuildLog(file)) {
+            log.consumeLine("[INFO] Scanning for projects...");
+            log.consumeLine("[INFO] BUILD SUCCESS");
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            assertEquals(
+                    "[INFO] Scanning for projects...\n[INFO] BUILD SUCCESS\n",
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testExtractsFailingModuleAndTests() throws IOException {
+        Path file = tempDir.resolve("maven.log.gz");
+        try (MavenBuildLog log = new MavenBuildLog(file)) {
+            log.consumeLine("[INFO] Running org.example.FooTest");
+            log.consumeLine(
+                    "[ERROR] Tests run: 2, Failures: 1, Errors: 0, Skipped: 0, Time elapsed: 0.1 s <<< FAILURE! -- in org.example.FooTest");
+            log.consumeLine("[ERROR] org.example.FooTest.testBar -- Time elapsed: 0.01 s <<< FAILURE!");
+            log.consumeLine("[ERROR] testBaz(org.example.BazTest)  Time elapsed: 0.02 sec  <<< ERROR!");
+            log.consumeLine("[ERROR] ");
+            log.consumeLine(
+                    "[ERROR] Failed to execute goal org.apache.maven.plugins:maven-surefire-plugin:3.5.2:test (default-test) on project foo: There are test failures.");
+            log.consumeLine("[INFO] BUILD FAILURE");
+
+            BuildFailure failure = log.getFailure();
+            assertEquals("foo", failure.module());
+            assertEquals(List.of("org.example.FooTest.testBar", "org.example.BazTest.testBaz"), failure.tests());
+            assertEquals(4, failure.errors().size());
+            assertEquals(file, failure.logFile());
+            assertEquals(
+                    "Build failed in module foo. Failing tests: org.example.FooTest.testBar, org.example.BazTest.testBaz",
+                    failure.getSummary());
+        }
+    }
+
+    @Test
+    void testKeepsBoundedErrorBlock() throws IOException {
+        try (MavenBuildLog log = new MavenBuildLog(tempDir.resolve("maven.log.gz"))) {
+            for (int i = 0; i < MavenBuildLog.MAX_ERROR_LINES * 2; i++) {
+                log.consumeLine("[ERROR] line " + i);
+            }
+            BuildFailure failure = log.getFailure();
+            assertEquals(MavenBuildLog.MAX_ERROR_LINES, failure.errors().size());
+            assertNull(failure.module());
+            assertEquals("Build failed: line 0", failure.getSummary());
+        }
+    }
+
+    @Test
+    void testPrunesOldestLogFiles() throws IOException {
+        Path logs = Files.createDirectories(tempDir.resolve("logs"));
+        for (int i = 0; i < 5; i++) {
+            Files.createFile(logs.resolve("maven-170000000000%d-clean.log.gz".formatted(i)));
+        }
+        Path other = Files.createFile(logs.resolve("notes.txt"));
+
+        MavenBuildLog.prune(logs, 2);
+
+        try (Stream<Path> files = Files.list(logs)) {
+            assertEquals(
+                    List.of("maven-1700000000003-clean.log.gz", "maven-1700000000004-clean.log.gz", "notes.txt"),
+                    files.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+        assertTrue(Files.exists(other));
+    }
+
+    @Test
+    void testPruneIgnoresMissingDirectory() {
+        assertDoesNotThrow(() -> MavenBuildLog.prune(tempDir.resolve("missing"), 2));
+    }
+
+    @Test
+    void testNewFileSortsAfterExistingFiles() throws IOException {
+        Path logs = Files.createDirectories(tempDir.resolve("logs"));
+        Path old = Files.createFile(logs.resolve("maven-1000000000000-verify.log.gz"));
+        Path file = MavenBuildLog.newFile(logs, "verify-jdk21");
+        assertTrue(file.getFileName().toString().startsWith("maven-"));
+        assertTrue(file.getFileName().toString().endsWith("-verify-jdk21.log.gz"));
+        assertTrue(file.getFileName().toString().compareTo(old.getFileName().toString()) > 0);
+    }
+}
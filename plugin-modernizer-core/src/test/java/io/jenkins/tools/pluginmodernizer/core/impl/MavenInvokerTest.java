@@ -0,0 +1,376 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import io.jenkins.tools.pluginmodernizer.core.config.Config;
+import io.jenkins.tools.pluginmodernizer.core.model.BuildResults;
+import io.jenkins.tools.pluginmodernizer.core.model.JDK;
+import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
+import io.jenkins.tools.pluginmodernizer.core.utils.JdkFetcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.Invoker;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+public class MavenInvokerTest {
+
+    @Mock
+    private Config config;
+
+    @Mock
+    private JdkFetcher jdkFetcher;
+
+    @Mock
+    private Invoker invoker;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private MavenInvoker mavenInvoker;
+
+    @TempDir
+    private Path tempDir;
+
+    private Plugin plugin;
+
+    private Path daemon;
+
+    /**
+     * Maven executable of each invocation, null for forked Maven
+     */
+    private final List<File> executables = new ArrayList<>();
+
+    /**
+     * Build results stored in the cache
+     */
+    private final AtomicReference<BuildResults> buildResults = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        Path mavenHome = tempDir.resolve("maven");
+        createExecutable(mavenHome.resolve("bin").resolve("mvn"));
+        createExecutable(mavenHome.resolve("bin").resolve("mvn.cmd"));
+        daemon = createExecutable(tempDir.resolve("mvnd").resolve("bin").resolve("mvnd"));
+        Path sources = Files.createDirectories(tempDir.resolve("sources"));
+        Files.writeString(sources.resolve("pom.xml"), "<project/>");
+        when(config.getConfiguredMavenHome()).thenReturn(mavenHome);
+        when(config.getCachePath()).thenReturn(tempDir.resolve("cache"));
+        when(config.isMavenDaemon()).thenReturn(true);
+        plugin = Plugin.build("example", sources).withConfig(config);
+    }
+
+    @Test
+    void testDetectMavenDaemonFromMvndHome() {
+        assertEquals(
+                daemon.toAbsolutePath(),
+                MavenInvoker.detectMavenDaemon(tempDir.resolve("mvnd").toString(), null));
+    }
+
+    @Test
+    void testDetectMavenDaemonFromPath() throws IOException {
+        Path empty = Files.createDirectories(tempDir.resolve("empty"));
+        String path = String.join(
+                File.pathSeparator,
+                tempDir.resolve("missing").toString(),
+                empty.toString(),
+                daemon.getParent().toString());
+        assertEquals(daemon.toAbsolutePath(), MavenInvoker.detectMavenDaemon(null, path));
+        assertEquals(daemon.toAbsolutePath(), MavenInvoker.detectMavenDaemon(" ", path));
+    }
+
+    @Test
+    void testDetectMavenDaemonNotFound() throws IOException {
+        Path notExecutable = tempDir.resolve("other").resolve("mvnd");
+        Files.createDirectories(notExecutable.getParent());
+        Files.writeString(notExecutable, "");
+        notExecutable.toFile().setExecutable(false);
+        assertNull(MavenInvoker.detectMavenDaemon(null, notExecutable.getParent().toString()));
+        assertNull(MavenInvoker.detectMavenDaemon(tempDir.resolve("missing").toString(), null));
+        assertNull(MavenInvoker.detectMavenDaemon(null, null));
+    }
+
+    @Test
+    void testForksMavenWhenDaemonDisabled() throws Exception {
+        when(config.isMavenDaemon()).thenReturn(false);
+        mavenInvoker.setMavenDaemon(daemon);
+        respond(new Run(0, "[INFO] BUILD SUCCESS"));
+
+        mavenInvoker.invokeGoal(plugin, "clean");
+
+        assertEquals(Arrays.asList((File) null), executables);
+        assertFalse(plugin.hasErrors());
+    }
+
+    @Test
+    void testFallsBackWhenDaemonCannotBeInvoked() throws Exception {
+        mavenInvoker.setMavenDaemon(daemon);
+        respond(Run.UNAVAILABLE, new Run(0, "[INFO] BUILD SUCCESS"), new Run(0, "[INFO] BUILD SUCCESS"));
+
+        mavenInvoker.invokeGoal(plugin, "clean");
+        mavenInvoker.invokeGoal(plugin, "clean");
+
+        assertEquals(Arrays.asList(daemon.toFile(), null, null), executables);
+        assertFalse(plugin.hasErrors());
+    }
+
+    @Test
+    void testRetriesDaemonFailureWithForkedMaven() throws Exception {
+        mavenInvoker.setMavenDaemon(daemon);
+        respond(
+                new Run(1, "[ERROR] Daemon terminated unexpectedly"),
+                new Run(0, "[INFO] BUILD SUCCESS"),
+                new Run(0, "[INFO] BUILD SUCCESS"));
+
+        mavenInvoker.invokeGoal(plugin, "clean");
+        mavenInvoker.invokeGoal(plugin, "clean");
+
+        // The retry succeeded, so the daemon is not used anymore
+        assertEquals(Arrays.asList(daemon.toFile(), null, null), executables);
+        assertFalse(plugin.hasErrors());
+    }
+
+    @Test
+    void testKeepsDaemonWhenRetryAlsoFails() throws Exception {
+        mavenInvoker.setMavenDaemon(daemon);
+        respond(
+                new Run(1, "[ERROR] Non-parseable POM"),
+                new Run(1, "[ERROR] Non-parseable POM"),
+                new Run(0, "[INFO] BUILD SUCCESS"));
+
+        mavenInvoker.invokeGoal(plugin, "clean");
+        assertEquals(1, plugin.getErrors().size());
+        plugin.removeErrors();
+        mavenInvoker.invokeGoal(plugin, "clean");
+
+        assertEquals(Arrays.asList(daemon.toFile(), null, daemon.toFile()), executables);
+        assertFalse(plugin.hasErrors());
+    }
+
+    @Test
+    void testDoesNotRetryBuildFailureOnDaemon() throws Exception {
+        mavenInvoker.setMavenDaemon(daemon);
+        respond(
+                new Run(
+                        1,
+                        "[ERROR] Failed to execute goal org.apache.maven.plugins:maven-surefire-plugin:3.5.2:test (default-test) on project example: There are test failures.",
+                        "[INFO] BUILD FAILURE"),
+                new Run(0, "[INFO] BUILD SUCCESS"));
+
+        mavenInvoker.invokeGoal(plugin, "verify");
+        assertEquals(1, plugin.getErrors().size());
+        assertEquals(
+                "Build failed in module example: Failed to execute goal org.apache.maven.plugins:maven-surefire-plugin:3.5.2:test (default-test) on project example: There are test failures.",
+                plugin.getErrors().get(0).getMessage());
+        plugin.removeErrors();
+        mavenInvoker.invokeGoal(plugin, "verify");
+
+        assertEquals(Arrays.asList(daemon.toFile(), daemon.toFile()), executables);
+        assertFalse(plugin.hasErrors());
+    }
+
+    @Test
+    void testSkipsBuildThatSucceededForRevision() throws Exception {
+        enableBuildCache();
+        respond(new Run(0, "[INFO] BUILD SUCCESS"), new Run(0, "[INFO] BUILD SUCCESS"));
+
+        mavenInvoker.invokeBuild(plugin, true, "verify");
+        mavenInvoker.invokeBuild(plugin, true, "verify");
+
+        assertEquals(1, executables.size());
+        assertEquals(1, buildResults.get().getSuccesses().size());
+    }
+
+    @Test
+    void testRunsBuildWhenSkipDisabled() throws Exception {
+        enableBuildCache();
+        respond(new Run(0, "[INFO] BUILD SUCCESS"), new Run(0, "[INFO] BUILD SUCCESS"));
+
+        mavenInvoker.invokeBuild(plugin, true, "verify");
+        mavenInvoker.invokeBuild(plugin, false, "verify");
+
+        assertEquals(2, executables.size());
+        assertEquals(1, buildResults.get().getSuccesses().size());
+    }
+
+    @Test
+    void testDoesNotSkipBuildOfDirtyTree() throws Exception {
+        enableBuildCache();
+        respond(
+                new Run(0, "[INFO] BUILD SUCCESS"),
+                new Run(0, "[INFO] BUILD SUCCESS"),
+                new Run(0, "[INFO] BUILD SUCCESS"));
+
+        mavenInvoker.invokeBuild(plugin, true, "verify");
+        Files.writeString(plugin.getLocalRepository().resolve("pom.xml"), "<project><!-- changed --></project>");
+        mavenInvoker.invokeBuild(plugin, true, "verify");
+        mavenInvoker.invokeBuild(plugin, true, "verify");
+
+        assertEquals(3, executables.size());
+        // Builds of a dirty tree are not recorded
+        assertEquals(1, buildResults.get().getSuccesses().size());
+    }
+
+    @Test
+    void testDoesNotSkipBuildWithOtherJdk() throws Exception {
+        enableBuildCache();
+        when(jdkFetcher.getJdkPath(anyInt())).thenReturn(tempDir.resolve("jdk"));
+        respond(
+                new Run(0, "[INFO] BUILD SUCCESS"),
+                new Run(0, "[INFO] BUILD SUCCESS"),
+                new Run(0, "[INFO] BUILD SUCCESS"));
+
+        mavenInvoker.invokeBuild(plugin.withJDK(JDK.JAVA_17), true, "verify");
+        mavenInvoker.invokeBuild(plugin.withJDK(JDK.JAVA_21), true, "verify");
+        mavenInvoker.invokeBuild(plugin.withJDK(JDK.JAVA_17), true, "verify");
+
+        assertEquals(2, executables.size());
+        assertEquals(2, buildResults.get().getSuccesses().size());
+    }
+
+    @Test
+    void testDoesNotSkipBuildWithOtherGoals() throws Exception {
+        enableBuildCache();
+        respond(new Run(0, "[INFO] BUILD SUCCESS"), new Run(0, "[INFO] BUILD SUCCESS"));
+
+        mavenInvoker.invokeBuild(plugin, true, "verify");
+        mavenInvoker.invokeBuild(plugin, true, "verify", "-DskipTests");
+
+        assertEquals(2, executables.size());
+        assertEquals(2, buildResults.get().getSuccesses().size());
+    }
+
+    @Test
+    void testRecordsOnlySuccessfulBuilds() throws Exception {
+        enableBuildCache();
+        respond(
+                new Run(1, "[ERROR] There are test failures.", "[INFO] BUILD FAILURE"),
+                new Run(0, "[INFO] BUILD SUCCESS"),
+                new Run(0, "[INFO] BUILD SUCCESS"));
+
+        mavenInvoker.invokeBuild(plugin, true, "verify");
+        assertTrue(plugin.hasErrors());
+        assertNull(buildResults.get());
+        plugin.removeErrors();
+
+        mavenInvoker.invokeBuild(plugin, true, "verify");
+        mavenInvoker.invokeBuild(plugin, true, "verify");
+
+        assertEquals(2, executables.size());
+        assertEquals(1, buildResults.get().getSuccesses().size());
+        assertFalse(plugin.hasErrors());
+    }
+
+    @Test
+    void testDoesNotRecordBuildsWhenCacheDisabled() throws Exception {
+        enableBuildCache();
+        when(config.isBuildCache()).thenReturn(false);
+        respond(new Run(0, "[INFO] BUILD SUCCESS"), new Run(0, "[INFO] BUILD SUCCESS"));
+
+        mavenInvoker.invokeBuild(plugin, true, "verify");
+        mavenInvoker.invokeBuild(plugin, true, "verify");
+
+        assertEquals(2, executables.size());
+        assertNull(buildResults.get());
+    }
+
+    /**
+     * Commit the sources of the plugin and keep build results in memory
+     */
+    private void enableBuildCache() throws Exception {
+        when(config.isMavenDaemon()).thenReturn(false);
+        when(config.isBuildCache()).thenReturn(true);
+        when(config.getMavenLocalRepo()).thenReturn(tempDir.resolve("m2"));
+        when(config.getVersion()).thenReturn("1.0");
+        try (Git git = Git.init()
+                .setDirectory(plugin.getLocalRepository().toFile())
+                .setInitialBranch("main")
+                .call()) {
+            git.add().addFilepattern("pom.xml").call();
+            git.commit().setMessage("Initial commit").setSign(false).call();
+        }
+        when(cacheManager.getLocation()).thenReturn(tempDir.resolve("cache"));
+        doAnswer(invocation -> {
+                    buildResults.set(invocation.getArgument(0));
+                    return null;
+                })
+                .when(cacheManager)
+                .put(any());
+        when(cacheManager.get(any(), eq(CacheManager.BUILD_RESULTS_CACHE_KEY), eq(BuildResults.class)))
+                .thenAnswer(invocation -> buildResults.get());
+    }
+
+    /**
+     * Outcome of an invocation
+     * @param exitCode The exit code, or -1 to fail the invocation
+     * @param lines The output lines
+     */
+    private record Run(int exitCode, String... lines) {
+        private static final Run UNAVAILABLE = new Run(-1);
+    }
+
+    /**
+     * Answer the invocations with the given outcomes, in order
+     * @param runs The outcomes
+     */
+    private void respond(Run... runs) throws MavenInvocationException {
+        Iterator<Run> iterator = List.of(runs).iterator();
+        when(invoker.execute(any(InvocationRequest.class))).thenAnswer(invocation -> {
+            InvocationRequest request = invocation.getArgument(0);
+            executables.add(request.getMavenExecutable());
+            Run run = iterator.next();
+            if (run.exitCode() < 0) {
+                throw new MavenInvocationException("Cannot run program");
+            }
+            for (String line : run.lines()) {
+                request.getOutputHandler(null).consumeLine(line);
+            }
+            return new InvocationResult() {
+                @Override
+                public CommandLineException getExecutionException() {
+                    return null;
+                }
+
+                @Override
+                public int getExitCode() {
+                    return run.exitCode();
+                }
+            };
+        });
+    }
+
+    private static Path createExecutable(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "#!/bin/sh\n");
+        file.toFile().setExecutable(true);
+        return file;
+    }
+}
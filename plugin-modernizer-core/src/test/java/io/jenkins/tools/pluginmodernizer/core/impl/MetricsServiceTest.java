@@ -0,0 +1,55 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jenkins.tools.pluginmodernizer.core.config.Config;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MetricsServiceTest {
+
+    @Test
+    void testDisabledByDefault() {
+        Config config = Config.builder().build();
+        MeterRegistry registry = MetricsService.createRegistry(config);
+        MetricsService service = new MetricsService(config, registry);
+        assertFalse(service.isEnabled());
+        service.start();
+        try {
+            // Meters are discarded
+            registry.counter(MetricsService.PLUGINS_PROCESSED, "outcome", "success").increment(3);
+            assertEquals(0.0, registry.counter(MetricsService.PLUGINS_PROCESSED, "outcome", "success").count());
+        } finally {
+            service.stop();
+        }
+    }
+
+    @Test
+    void testPrometheusRegistryIfEnabled(@TempDir Path tempDir) {
+        Config config = Config.builder().withMetricsFile(tempDir.resolve("metrics.json")).build();
+        assertInstanceOf(PrometheusMeterRegistry.class, MetricsService.createRegistry(config));
+    }
+
+    @Test
+    void testWriteMetricsFileOnStop(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("metrics").resolve("metrics.json");
+        MeterRegistry registry = new SimpleMeterRegistry();
+        MetricsService service = new MetricsService(Config.builder().withMetricsFile(file).build(), registry);
+        assertTrue(service.isEnabled());
+        service.start();
+        try {
+            registry.counter(MetricsService.PLUGINS_PROCESSED, "outcome", "success").increment(3);
+        } finally {
+            service.stop();
+        }
+        String json = Files.readString(file);
+        assertTrue(json.contains("\"name\":\"" + MetricsService.PLUGINS_PROCESSED + "\""), json);
+        assertTrue(json.contains("\"outcome\":\"success\""), json);
+        assertTrue(json.contains("\"count\":3.0"), json);
+    }
+}
@@ -0,0 +1,60 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import io.jenkins.tools.pluginmodernizer.core.model.PerformanceReport;
+import io.jenkins.tools.pluginmodernizer.core.model.Phase;
+import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class PhaseTimerTest {
+
+    @Test
+    void testCallRecordsPhaseEvenOnFailure() {
+        PhaseTimer timer = new PhaseTimer();
+        Plugin plugin = Plugin.build("plugin-1");
+        assertEquals("done", timer.call(plugin, Phase.COMPILE, () -> "done"));
+        assertThrows(IllegalStateException.class, () -> timer.run(plugin, Phase.VERIFY, () -> {
+            throw new IllegalStateException("failed");
+        }));
+        List<PerformanceReport.Span> spans = timer.report(mock(CacheManager.class)).getSpans();
+        assertEquals(2, spans.size());
+        assertEquals(Phase.COMPILE, spans.get(0).phase());
+        assertEquals(Phase.VERIFY, spans.get(1).phase());
+        assertEquals("plugin-1", spans.get(1).plugin());
+    }
+
+    @Test
+    void testReportAggregatesPhasesAndPlugins() {
+        PhaseTimer timer = new PhaseTimer();
+        for (int i = 1; i <= 20; i++) {
+            timer.record("plugin-" + i, Phase.VERIFY, Duration.ofMillis(i * 100L));
+        }
+        timer.record("plugin-1", Phase.FETCH, Duration.ofMillis(500));
+        timer.record("plugin-1", Phase.PULL_REQUEST, Duration.ofMillis(500));
+
+        PerformanceReport report = timer.report(mock(CacheManager.class));
+
+        PerformanceReport.PhaseSummary verify = report.getPhases().get(Phase.VERIFY);
+        assertEquals(20, verify.count());
+        assertEquals(21000, verify.totalMillis());
+        assertEquals(1000, verify.p50Millis());
+        assertEquals(1900, verify.p95Millis());
+        assertEquals(2000, verify.maxMillis());
+        assertEquals(1, report.getPhases().get(Phase.FETCH).count());
+        assertNull(report.getPhases().get(Phase.COMMIT));
+
+        assertEquals(21000.0 / 22000, report.getShare(Phase.Kind.MAVEN), 0.0001);
+        assertEquals(500.0 / 22000, report.getShare(Phase.Kind.GIT), 0.0001);
+        assertEquals(500.0 / 22000, report.getShare(Phase.Kind.GITHUB), 0.0001);
+
+        List<PerformanceReport.PluginSummary> slowest = report.getSlowestPlugins();
+        assertEquals(PerformanceReport.SLOWEST_PLUGINS, slowest.size());
+        assertEquals("plugin-20", slowest.get(0).plugin());
+        assertEquals(2000, slowest.get(0).totalMillis());
+        assertEquals("plugin-19", slowest.get(1).plugin());
+    }
+}
@@ -1,6 +1,8 @@
 package io.jenkins.tools.pluginmodernizer.core.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -8,12 +10,18 @@ import static org.mockito.Mockito.*;
 
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
 import io.jenkins.tools.pluginmodernizer.core.github.GHService;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
 import io.jenkins.tools.pluginmodernizer.core.model.PluginVersionData;
 import io.jenkins.tools.pluginmodernizer.core.model.Recipe;
 import io.jenkins.tools.pluginmodernizer.core.utils.PluginService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
@@ -21,9 +29,11 @@ import java.util.List;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.slf4j.Logger;
 
 class PluginModernizerTest {
@@ -42,6 +52,12 @@ class PluginModernizerTest {
     @Mock
     private CacheManager cacheManager;
 
+    @Mock
+    private MetricsService metricsService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private Logger LOG;
 
@@ -222,6 +238,31 @@ class PluginModernizerTest {
         verify(pluginService).existsInUpdateCenter(plugin);
     }
 
+    @Test
+    void testStartProcessesAllPluginsWithParallelism() throws Exception {
+        List<Plugin> plugins = List.of(
+                Plugin.build("plugin-1"), Plugin.build("plugin-2"), Plugin.build("plugin-3"), Plugin.build("plugin-4"));
+        when(config.getPlugins()).thenReturn(plugins);
+        when(config.getParallelism()).thenReturn(2);
+        for (Plugin plugin : plugins) {
+            when(pluginService.existsInUpdateCenter(plugin)).thenReturn(false);
+        }
+
+        Recipe mockRecipe = mock(Recipe.class);
+        when(mockRecipe.getName()).thenReturn("MockRecipe");
+        when(config.getRecipe()).thenReturn(mockRecipe);
+
+        PluginModernizer pluginModernizerSpy = spy(pluginModernizer);
+        doNothing().when(pluginModernizerSpy).validate();
+        doNothing().when(cacheManager).init();
+
+        pluginModernizerSpy.start();
+
+        // Every plugin is processed exactly once
+        plugins.forEach(plugin -> verify(pluginService).existsInUpdateCenter(plugin));
+        verify(pluginService, never()).extractRepoName(any());
+    }
+
     @Test
     void testProcessContinuesForPluginInUpdateCenter() throws Exception {
         // Setup
@@ -361,6 +402,96 @@ class PluginModernizerTest {
         verify(plugin, never()).openMetadataPullRequest(any());
     }
 
+    @Test
+    void testPrefetchRepositoriesSkipsPluginsWithoutRepository() throws Exception {
+        Plugin valid = Plugin.build("valid");
+        Plugin invalid = Plugin.build("invalid");
+        Plugin local = Plugin.build("local", Path.of("local"));
+        when(config.isBulkRepositoryLookup()).thenReturn(true);
+        when(pluginService.findRepoName(valid)).thenReturn("valid-plugin");
+        when(pluginService.findRepoName(invalid)).thenReturn(null);
+
+        Method prefetchRepositories = PluginModernizer.class.getDeclaredMethod("prefetchRepositories", List.class);
+        prefetchRepositories.setAccessible(true);
+        prefetchRepositories.invoke(pluginModernizer, List.of(valid, invalid, local));
+
+        assertEquals("valid-plugin", valid.getRepositoryName());
+        assertEquals(config, valid.getConfig());
+        assertFalse(invalid.hasErrors());
+        verify(pluginService, never()).findRepoName(local);
+        verify(pluginService, never()).extractRepoName(any());
+        verify(ghService).prefetchRepositories(List.of(valid));
+    }
+
+    @Test
+    void testMetadataOfPristineSourcesReusedAfterModernization(@TempDir Path tempDir) throws Exception {
+        // Use a real cache
+        CacheManager cache = new CacheManager(tempDir.resolve("cache"));
+        cache.init();
+        Field cacheField = PluginModernizer.class.getDeclaredField("cacheManager");
+        cacheField.setAccessible(true);
+        cacheField.set(pluginModernizer, cache);
+        Method collectMetadata =
+                PluginModernizer.class.getDeclaredMethod("collectMetadata", Plugin.class, boolean.class, boolean.class);
+        collectMetadata.setAccessible(true);
+
+        Path sources = Files.createDirectories(tempDir.resolve("sources"));
+        Path pom = sources.resolve("pom.xml");
+        Files.writeString(pom, "<project><version>1.0</version></project>");
+
+        // First collection on pristine sources
+        Plugin plugin = metadataCollectingPlugin(sources, cache, "pristine");
+        collectMetadata.invoke(pluginModernizer, plugin, false, true);
+        verify(plugin).collectMetadata(mavenInvoker);
+        assertEquals("pristine", plugin.getMetadata().getPluginName());
+
+        // Collection after the rewrite changed the sources
+        Files.writeString(pom, "<project><version>2.0</version></project>");
+        plugin = metadataCollectingPlugin(sources, cache, "modernized");
+        collectMetadata.invoke(pluginModernizer, plugin, false, false);
+        verify(plugin).collectMetadata(mavenInvoker);
+        assertEquals("modernized", plugin.getMetadata().getPluginName());
+        assertNull(plugin.getMetadata().getSourceHash());
+
+        // Next run on a fresh checkout reuses the metadata of the pristine sources
+        Files.writeString(pom, "<project><version>1.0</version></project>");
+        plugin = metadataCollectingPlugin(sources, cache, "collected-again");
+        collectMetadata.invoke(pluginModernizer, plugin, false, true);
+        verify(plugin, never()).collectMetadata(mavenInvoker);
+        assertEquals("pristine", plugin.getMetadata().getPluginName());
+        assertEquals(
+                "pristine",
+                cache.get(Path.of("example"), CacheManager.PLUGIN_METADATA_CACHE_KEY, PluginMetadata.class)
+                        .getPluginName());
+    }
+
+    /**
+     * Create a plugin whose metadata collection stores metadata with the given name in the cache
+     * @param sources The sources of the plugin
+     * @param cache The cache
+     * @param pluginName The plugin name of the collected metadata
+     * @return The plugin
+     */
+    private Plugin metadataCollectingPlugin(Path sources, CacheManager cache, String pluginName) {
+        Plugin plugin = spy(Plugin.build("example", sources).withConfig(config));
+        doNothing().when(plugin).collectMetadata(mavenInvoker);
+        doAnswer(invocation -> {
+                    PluginMetadata metadata = new PluginMetadata(cache, plugin);
+                    metadata.setPluginName(pluginName);
+                    metadata.save();
+                    return null;
+                })
+                .when(plugin)
+                .copyMetadata(cache);
+        doAnswer(invocation -> {
+                    plugin.getMetadata().save();
+                    return null;
+                })
+                .when(plugin)
+                .enrichMetadata(pluginService);
+        return plugin;
+    }
+
     private Recipe createMockRecipe(String name, String description) {
         Recipe recipe = mock(Recipe.class);
         when(recipe.getName()).thenReturn(name);
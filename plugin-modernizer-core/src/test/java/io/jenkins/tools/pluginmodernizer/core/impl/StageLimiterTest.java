@@ -0,0 +1,58 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jenkins.tools.pluginmodernizer.core.config.Config;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class StageLimiterTest {
+
+    @Test
+    void testCallReturnsResult() {
+        StageLimiter limiter = new StageLimiter();
+        assertEquals("done", limiter.call(PipelineStage.BUILD, () -> "done"));
+    }
+
+    @Test
+    void testReentrantStage() {
+        Config config = Config.builder().withMaxConcurrentBuilds(1).build();
+        StageLimiter limiter = new StageLimiter(config);
+        String result = limiter.call(PipelineStage.BUILD, () -> limiter.call(PipelineStage.BUILD, () -> "nested"));
+        assertEquals("nested", result);
+    }
+
+    @Test
+    void testLimitConcurrentStage() throws Exception {
+        Config config = Config.builder().withMaxConcurrentBuilds(2).build();
+        StageLimiter limiter = new StageLimiter(config);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(6);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                limiter.run(PipelineStage.BUILD, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                });
+                done.countDown();
+            }));
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(maxRunning.get() <= 2);
+        assertEquals(0, running.get());
+    }
+}
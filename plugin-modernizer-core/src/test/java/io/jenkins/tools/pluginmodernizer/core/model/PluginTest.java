@@ -10,6 +10,8 @@ import io.jenkins.tools.pluginmodernizer.core.impl.MavenInvoker;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
@@ -135,7 +137,8 @@ public class PluginTest {
         doReturn(false).when(config).isFetchMetadataOnly();
         plugin.withJDK(JDK.JAVA_21);
         plugin.compile(mavenInvoker);
-        verify(mavenInvoker).invokeGoal(plugin, "compile", "-Dhpi.validate.skip=true", "-Dmaven.antrun.skip=true");
+        verify(mavenInvoker)
+                .invokeBuild(plugin, true, "compile", "-Dhpi.validate.skip=true", "-Dmaven.antrun.skip=true");
         verifyNoMoreInteractions(mavenInvoker);
     }
 
@@ -146,7 +149,7 @@ public class PluginTest {
         doReturn(true).when(config).isFetchMetadataOnly();
         plugin.withJDK(JDK.JAVA_21);
         plugin.compile(mavenInvoker);
-        verify(mavenInvoker, times(0)).invokeGoal(plugin, "compile");
+        verify(mavenInvoker, times(0)).invokeBuild(plugin, true, "compile");
         verifyNoMoreInteractions(mavenInvoker);
     }
 
@@ -157,10 +160,43 @@ public class PluginTest {
         doReturn(false).when(config).isFetchMetadataOnly();
         plugin.withJDK(JDK.JAVA_21);
         plugin.verify(mavenInvoker);
-        verify(mavenInvoker).invokeGoal(plugin, "verify");
+        verify(mavenInvoker).invokeBuild(plugin, true, "verify");
         verifyNoMoreInteractions(mavenInvoker);
     }
 
+    @Test
+    public void testVerifyTests() {
+        Plugin plugin = Plugin.build("example");
+        plugin.withConfig(config);
+        doReturn(false).when(config).isFetchMetadataOnly();
+        plugin.withJDK(JDK.JAVA_21);
+        plugin.verifyTests(mavenInvoker, new TreeSet<>(Set.of("org.example.FooTest", "org.example.BarTest")));
+        verify(mavenInvoker)
+                .invokeBuild(
+                        plugin,
+                        true,
+                        "verify",
+                        "-Dtest=org.example.BarTest,org.example.FooTest",
+                        "-Dsurefire.failIfNoSpecifiedTests=false");
+        plugin.verifyTests(mavenInvoker, Set.of());
+        verify(mavenInvoker).invokeBuild(plugin, true, "verify", "-DskipTests");
+        verifyNoMoreInteractions(mavenInvoker);
+    }
+
+    @Test
+    public void testVerifyCopyWithJdk() {
+        Plugin plugin = Plugin.build("example");
+        plugin.withConfig(config);
+        doReturn(false).when(config).isFetchMetadataOnly();
+        plugin.withJDK(JDK.JAVA_21);
+        Path copy = Path.of("jdk-matrix", "17");
+        doReturn(true).when(mavenInvoker).invokeGoal(plugin, copy, JDK.JAVA_17, "verify");
+        assertTrue(plugin.verify(mavenInvoker, copy, JDK.JAVA_17, null));
+        verify(mavenInvoker).invokeGoal(plugin, copy, JDK.JAVA_17, "verify");
+        verifyNoMoreInteractions(mavenInvoker);
+        assertEquals(JDK.JAVA_21, plugin.getJDK());
+    }
+
     @Test
     public void shouldNotVerifyInFetchMetadataMode() {
         Plugin plugin = Plugin.build("example");
@@ -168,7 +204,7 @@ public class PluginTest {
         doReturn(true).when(config).isFetchMetadataOnly();
         plugin.withJDK(JDK.JAVA_21);
         plugin.verify(mavenInvoker);
-        verify(mavenInvoker, times(0)).invokeGoal(plugin, "verify");
+        verify(mavenInvoker, times(0)).invokeBuild(plugin, true, "verify");
         verifyNoMoreInteractions(mavenInvoker);
     }
 
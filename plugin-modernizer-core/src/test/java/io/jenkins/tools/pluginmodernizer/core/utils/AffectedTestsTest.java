@@ -0,0 +1,85 @@
+package io.jenkins.tools.pluginmodernizer.core.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AffectedTestsTest {
+
+    @TempDir
+    private Path module;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        write("src/main/java/org/example/Foo.java", "package org.example;\nclass Foo {}");
+        write("src/main/java/org/example/util/Bar.java", "package org.example.util;\npublic class Bar {}");
+        write("src/test/java/org/example/FooTest.java", "package org.example;\nclass FooTest {}");
+        write(
+                "src/test/java/org/example/other/BarTest.java",
+                "package org.example.other;\nimport org.example.util.Bar;\nclass BarTest {}");
+        write(
+                "src/test/java/org/example/other/StaticBarTest.java",
+                "package org.example.other;\nimport static org.example.util.Bar.*;\nclass StaticBarTest {}");
+        write(
+                "src/test/java/org/example/other/WildcardTest.java",
+                "package org.example.other;\nimport org.example.util.*;\nclass WildcardTest {}");
+        write(
+                "src/test/java/org/example/other/UnrelatedTest.java",
+                "package org.example.other;\nclass UnrelatedTest {}");
+        write("src/test/java/org/example/other/Helper.java", "package org.example.other;\nclass Helper {}");
+    }
+
+    @Test
+    void testSelectTestsOfChangedPackage() {
+        Set<String> tests = AffectedTests.select(module, List.of("src/main/java/org/example/Foo.java"));
+        assertEquals(Set.of("org.example.FooTest"), tests);
+    }
+
+    @Test
+    void testSelectTestsImportingChangedClass() {
+        Set<String> tests = AffectedTests.select(module, List.of("src/main/java/org/example/util/Bar.java"));
+        assertEquals(
+                Set.of(
+                        "org.example.other.BarTest",
+                        "org.example.other.StaticBarTest",
+                        "org.example.other.WildcardTest"),
+                tests);
+    }
+
+    @Test
+    void testSelectTestsOfChangedTestHelper() {
+        Set<String> tests = AffectedTests.select(module, List.of("src/test/java/org/example/other/Helper.java"));
+        assertEquals(
+                Set.of(
+                        "org.example.other.BarTest",
+                        "org.example.other.StaticBarTest",
+                        "org.example.other.UnrelatedTest",
+                        "org.example.other.WildcardTest"),
+                tests);
+    }
+
+    @Test
+    void testNoTestsForChangesOutsideSources() {
+        assertEquals(Set.of(), AffectedTests.select(module, List.of("Jenkinsfile", ".github/dependabot.yml")));
+    }
+
+    @Test
+    void testAllTestsForBuildAndResourceChanges() {
+        assertNull(AffectedTests.select(module, List.of("pom.xml")));
+        assertNull(AffectedTests.select(module, List.of("../pom.xml")));
+        assertNull(AffectedTests.select(module, List.of("src/main/resources/index.jelly")));
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = module.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,310 @@
+package io.jenkins.tools.pluginmodernizer.core.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class JdkFetcherTest {
+
+    private static final int VERSION = 21;
+
+    @TempDir
+    private Path cacheDir;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private JdkFetcher fetcher;
+
+    /**
+     * Name of the archive of the release
+     */
+    private String fileName;
+
+    private byte[] archive;
+
+    /**
+     * Checksum published with the release
+     */
+    private volatile String publishedChecksum;
+
+    /**
+     * Range header of each archive request, empty if not a range request
+     */
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+
+    /**
+     * Number of next archive responses closed after half of the body
+     */
+    private final AtomicInteger truncatedResponses = new AtomicInteger();
+
+    /**
+     * Counted down when the archive is requested, if set
+     */
+    private volatile CountDownLatch archiveRequested;
+
+    /**
+     * Awaited before sending the archive, if set
+     */
+    private volatile CountDownLatch archiveReleased;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fileName = new JdkFetcher(cacheDir).buildJDKFileName(VERSION) + ".0.5_11.tar.gz";
+        archive = createArchive();
+        publishedChecksum = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(archive));
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/temurin" + VERSION + "-binaries/releases", this::releases);
+        server.createContext("/download/", this::download);
+        server.start();
+        fetcher = new JdkFetcher(cacheDir, baseUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallersShareOneDownload() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Path>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> fetcher.getJdkPath(VERSION)));
+            }
+            for (Future<Path> future : futures) {
+                assertEquals(jdkPath(), future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of(""), ranges);
+        assertInstalled();
+    }
+
+    @Test
+    void testChecksumMismatchFailsWaitingCallers() throws Exception {
+        publishedChecksum = "0".repeat(64);
+        archiveRequested = new CountDownLatch(1);
+        archiveReleased = new CountDownLatch(1);
+        CompletableFuture<Path> first = CompletableFuture.supplyAsync(this::getJdkPath);
+        assertTrue(archiveRequested.await(30, TimeUnit.SECONDS));
+
+        // Second caller waits for the running installation
+        FutureTask<Path> second = new FutureTask<>(() -> fetcher.getJdkPath(VERSION));
+        Thread thread = new Thread(second);
+        thread.start();
+        while (!isWaitingForInstallation(thread)) {
+            Thread.sleep(10);
+        }
+        archiveReleased.countDown();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> first.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(ModernizerException.class, error.getCause());
+        assertTrue(error.getCause().getMessage().contains("Checksum mismatch"));
+        error = assertThrows(ExecutionException.class, () -> second.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(ModernizerException.class, error.getCause());
+        assertTrue(error.getCause().getCause().getMessage().contains("Checksum mismatch"));
+
+        // Downloaded once and nothing published
+        assertEquals(List.of(""), ranges);
+        assertEquals(List.of(), listJdksDirectory());
+    }
+
+    @Test
+    void testTruncatedStreamFallsBackToResumableDownload() throws Exception {
+        // Streamed download and first download to disk are truncated
+        truncatedResponses.set(2);
+        assertEquals(jdkPath(), fetcher.getJdkPath(VERSION));
+        assertEquals(3, ranges.size());
+        assertEquals("", ranges.get(0));
+        assertEquals("", ranges.get(1));
+        assertTrue(ranges.get(2).matches("bytes=[1-9][0-9]*-"), ranges.get(2));
+        assertInstalled();
+    }
+
+    @Test
+    void testCompletePartialFileIsReused() throws Exception {
+        Files.createDirectories(cacheDir.resolve(".jdks"));
+        Files.write(cacheDir.resolve(".jdks").resolve(fileName + ".part"), archive);
+        truncatedResponses.set(1);
+        assertEquals(jdkPath(), fetcher.getJdkPath(VERSION));
+        assertEquals(List.of("", "bytes=" + archive.length + "-"), ranges);
+        assertInstalled();
+    }
+
+    @Test
+    void testPartialFileOfAnotherReleaseIsIgnored() throws Exception {
+        Path stale = cacheDir.resolve(".jdks").resolve(fileName.replace(".0.5_11", ".0.4_7") + ".part");
+        Files.createDirectories(stale.getParent());
+        Files.write(stale, new byte[1024]);
+        truncatedResponses.set(1);
+        assertEquals(jdkPath(), fetcher.getJdkPath(VERSION));
+        assertEquals(List.of("", ""), ranges);
+        assertTrue(Files.isRegularFile(jdkPath().resolve("bin").resolve("java")));
+        assertFalse(Files.exists(cacheDir.resolve(".jdks").resolve(fileName + ".part")));
+    }
+
+    private Path getJdkPath() {
+        try {
+            return fetcher.getJdkPath(VERSION);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Path jdkPath() {
+        return cacheDir.resolve(".jdks").resolve("plugin-modernizer-jdk-" + VERSION);
+    }
+
+    /**
+     * Assert the JDK is published and nothing else is left in the JDK directory
+     */
+    private void assertInstalled() throws IOException {
+        assertTrue(Files.isRegularFile(jdkPath().resolve("bin").resolve("java")));
+        assertArrayEquals(
+                "JAVA_VERSION=\"21.0.5\"".getBytes(StandardCharsets.UTF_8),
+                Files.readAllBytes(jdkPath().resolve("release")));
+        assertEquals(List.of(jdkPath().getFileName().toString()), listJdksDirectory());
+    }
+
+    private List<String> listJdksDirectory() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir.resolve(".jdks"))) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static boolean isWaitingForInstallation(Thread thread) {
+        return thread.getState() == Thread.State.WAITING
+                && Arrays.stream(thread.getStackTrace())
+                        .anyMatch(frame -> frame.getClassName().equals(CompletableFuture.class.getName())
+                                && frame.getMethodName().equals("get"));
+    }
+
+    private String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private void releases(HttpExchange exchange) throws IOException {
+        String url = baseUrl() + "/download/" + fileName;
+        // language=json
+        String json = """
+                [{"assets": [
+                  {"name": "%s", "browser_download_url": "%s"},
+                  {"name": "%s.sha256.txt", "browser_download_url": "%s.sha256.txt"}
+                ]}]
+                """.formatted(fileName, url, fileName, url);
+        send(exchange, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void download(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestURI().getPath().endsWith(".sha256.txt")) {
+            send(exchange, (publishedChecksum + "  " + fileName).getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        ranges.add(range == null ? "" : range);
+        if (archiveRequested != null) {
+            archiveRequested.countDown();
+            try {
+                archiveReleased.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+        }
+        int offset = range == null ? 0 : Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+        if (offset >= archive.length) {
+            exchange.sendResponseHeaders(416, -1);
+            exchange.close();
+            return;
+        }
+        int length = archive.length - offset;
+        if (range != null) {
+            exchange.getResponseHeaders()
+                    .add("Content-Range", "bytes %d-%d/%d".formatted(offset, archive.length - 1, archive.length));
+        }
+        exchange.sendResponseHeaders(range == null ? 200 : 206, length);
+        OutputStream out = exchange.getResponseBody();
+        if (truncatedResponses.getAndDecrement() > 0) {
+            // Connection is closed before the announced length is sent
+            out.write(archive, offset, length / 2);
+            out.flush();
+        } else {
+            out.write(archive, offset, length);
+        }
+        exchange.close();
+    }
+
+    private static void send(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Create a JDK archive with a top directory like Temurin releases
+     * @return The tar.gz archive
+     */
+    private static byte[] createArchive() throws IOException {
+        // Incompressible content so truncated responses stop in the middle of the archive
+        byte[] modules = new byte[256 * 1024];
+        new Random(42).nextBytes(modules);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GZIPOutputStream(bytes))) {
+            addEntry(tar, "jdk-21.0.5+11/bin/java", "#!/bin/sh\n".getBytes(StandardCharsets.UTF_8));
+            addEntry(tar, "jdk-21.0.5+11/lib/modules", modules);
+            addEntry(tar, "jdk-21.0.5+11/release", "JAVA_VERSION=\"21.0.5\"".getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void addEntry(TarArchiveOutputStream tar, String name, byte[] content) throws IOException {
+        TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(content.length);
+        tar.putArchiveEntry(entry);
+        tar.write(content);
+        tar.closeArchiveEntry();
+    }
+}
@@ -1,8 +1,13 @@
 package io.jenkins.tools.pluginmodernizer.core.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
@@ -21,7 +26,9 @@ import java.lang.reflect.Field;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.tuple.Triple;
 import org.junit.jupiter.api.Test;
@@ -156,6 +163,104 @@ class PluginServiceTest {
         assertEquals("valid-git-repo", result);
     }
 
+    @Test
+    public void shouldKeepParsedDatasetInMemory() throws Exception {
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Path cacheRoot = Mockito.mock(Path.class);
+        Config config = Mockito.mock(Config.class);
+        UpdateCenterData updateCenterData =
+                setup(config, cacheManager, cacheRoot).getLeft();
+        setupUpdateCenterMocks(updateCenterData, cacheManager, cacheRoot);
+        PluginService service = getService(config, cacheManager);
+
+        assertSame(updateCenterData, service.getUpdateCenterData());
+        assertSame(updateCenterData, service.getUpdateCenterData());
+        assertEquals(1, service.getDatasetHits());
+        assertEquals(1, service.getDatasetMisses());
+        verify(cacheManager, times(1)).get(cacheRoot, CacheManager.UPDATE_CENTER_CACHE_KEY, UpdateCenterData.class);
+
+        // Read again the cache after invalidation
+        service.invalidate(CacheManager.UPDATE_CENTER_CACHE_KEY);
+        service.getUpdateCenterData();
+        assertEquals(2, service.getDatasetMisses());
+        verify(cacheManager, times(2)).get(cacheRoot, CacheManager.UPDATE_CENTER_CACHE_KEY, UpdateCenterData.class);
+    }
+
+    @Test
+    public void shouldServeExpiredDatasetWhileRefreshingIt(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
+
+        WireMock wireMock = wmRuntimeInfo.getWireMock();
+        int portNumber = wmRuntimeInfo.getHttpPort();
+
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Path cacheRoot = Mockito.mock(Path.class);
+        Config config = Mockito.mock(Config.class);
+        UpdateCenterData expired = setup(config, cacheManager, cacheRoot).getLeft();
+        UpdateCenterData refreshed = new UpdateCenterData(cacheManager);
+        refreshed.setPlugins(Map.of());
+        refreshed.setDeprecations(Map.of());
+
+        wireMock.register(WireMock.get(WireMock.urlEqualTo("/update-center.json"))
+                .willReturn(WireMock.okJson(JsonUtils.toJson(refreshed))));
+        doReturn(new URL("http://localhost:%d/update-center.json".formatted(portNumber)))
+                .when(config)
+                .getJenkinsUpdateCenter();
+        doReturn(true).when(config).isStaleWhileRevalidate();
+        doReturn(Duration.ofDays(1)).when(config).getMaxStale();
+        doReturn(cacheRoot).when(cacheManager).root();
+        doReturn(Duration.ofHours(1)).when(cacheManager).getTimeToLive(CacheManager.UPDATE_CENTER_CACHE_KEY);
+        doReturn(Duration.ofHours(2)).when(cacheManager).getAge(cacheRoot, CacheManager.UPDATE_CENTER_CACHE_KEY);
+        doReturn(expired)
+                .when(cacheManager)
+                .getIgnoringExpiration(cacheRoot, CacheManager.UPDATE_CENTER_CACHE_KEY, UpdateCenterData.class);
+        PluginService service = getService(config, cacheManager);
+
+        // Expired data is served without waiting for the download
+        assertSame(expired, service.getUpdateCenterData());
+
+        // Then replaced by the refreshed data
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (service.getUpdateCenterData() == expired && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, service.getUpdateCenterData().getPlugins().size());
+        verify(cacheManager).put(Mockito.any(UpdateCenterData.class));
+    }
+
+    @Test
+    public void shouldRefreshTooStaleDatasetBeforeUse(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
+
+        WireMock wireMock = wmRuntimeInfo.getWireMock();
+        int portNumber = wmRuntimeInfo.getHttpPort();
+
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Path cacheRoot = Mockito.mock(Path.class);
+        Config config = Mockito.mock(Config.class);
+        UpdateCenterData expired = setup(config, cacheManager, cacheRoot).getLeft();
+        UpdateCenterData refreshed = new UpdateCenterData(cacheManager);
+        refreshed.setPlugins(Map.of());
+        refreshed.setDeprecations(Map.of());
+
+        wireMock.register(WireMock.get(WireMock.urlEqualTo("/update-center.json"))
+                .willReturn(WireMock.okJson(JsonUtils.toJson(refreshed))));
+        doReturn(new URL("http://localhost:%d/update-center.json".formatted(portNumber)))
+                .when(config)
+                .getJenkinsUpdateCenter();
+        doReturn(true).when(config).isStaleWhileRevalidate();
+        doReturn(Duration.ofDays(1)).when(config).getMaxStale();
+        doReturn(cacheRoot).when(cacheManager).root();
+        doReturn(Duration.ofHours(1)).when(cacheManager).getTimeToLive(CacheManager.UPDATE_CENTER_CACHE_KEY);
+        doReturn(Duration.ofDays(3)).when(cacheManager).getAge(cacheRoot, CacheManager.UPDATE_CENTER_CACHE_KEY);
+        doReturn(expired)
+                .when(cacheManager)
+                .getIgnoringExpiration(cacheRoot, CacheManager.UPDATE_CENTER_CACHE_KEY, UpdateCenterData.class);
+        PluginService service = getService(config, cacheManager);
+
+        // Expired for longer than the maximum staleness, so downloaded before use
+        assertEquals(0, service.getUpdateCenterData().getPlugins().size());
+        verify(cacheManager).put(Mockito.any(UpdateCenterData.class));
+    }
+
     @Test
     public void shouldDownloadPluginVersionDataUpdateCenterData(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
 
@@ -182,6 +287,39 @@ class PluginServiceTest {
         assertEquals(result.getPlugins().size(), updateCenterData.getPlugins().size());
     }
 
+    @Test
+    public void shouldRevalidateUpdateCenterDataWithETag(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
+
+        WireMock wireMock = wmRuntimeInfo.getWireMock();
+        int portNumber = wmRuntimeInfo.getHttpPort();
+
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Path cacheRoot = Mockito.mock(Path.class);
+        Config config = Mockito.mock(Config.class);
+        UpdateCenterData updateCenterData =
+                setup(config, cacheManager, cacheRoot).getLeft();
+
+        wireMock.register(WireMock.get(WireMock.urlEqualTo("/update-center.json"))
+                .withHeader("If-None-Match", WireMock.equalTo("\"v1\""))
+                .willReturn(WireMock.status(304)));
+        wireMock.register(WireMock.get(WireMock.urlEqualTo("/update-center.json"))
+                .withHeader("If-None-Match", WireMock.absent())
+                .willReturn(WireMock.okJson(JsonUtils.toJson(updateCenterData))
+                        .withHeader("ETag", "\"v1\"")));
+
+        doReturn(new URL("http://localhost:%d/update-center.json".formatted(portNumber)))
+                .when(config)
+                .getJenkinsUpdateCenter();
+
+        // Validators are kept from the first download
+        PluginService service = getService(config, cacheManager);
+        UpdateCenterData result = service.downloadUpdateCenterData();
+        assertEquals("\"v1\"", result.getEtag());
+
+        // Not modified
+        assertNull(service.downloadUpdateCenterData(result));
+    }
+
     @Test
     public void shouldThrowExceptionIfNotFound() throws Exception {
 
@@ -218,6 +356,44 @@ class PluginServiceTest {
         assertEquals("Invalid SCM URL format", exception.getMessage());
     }
 
+    @Test
+    public void shouldFailIfSCMIsMissing() throws Exception {
+
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Path cacheRoot = Mockito.mock(Path.class);
+        Config config = Mockito.mock(Config.class);
+        UpdateCenterData updateCenterData =
+                setup(config, cacheManager, cacheRoot).getLeft();
+
+        setupUpdateCenterMocks(updateCenterData, cacheManager, cacheRoot);
+
+        PluginService service = getService(config, cacheManager);
+        Exception exception = assertThrows(ModernizerException.class, () -> {
+            service.extractRepoName(Plugin.build("no-scm-plugin").withConfig(config));
+        });
+        assertEquals("Invalid SCM URL format", exception.getMessage());
+    }
+
+    @Test
+    public void shouldFindRepoNameWithoutErrors() throws Exception {
+
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Path cacheRoot = Mockito.mock(Path.class);
+        Config config = Mockito.mock(Config.class);
+        UpdateCenterData updateCenterData =
+                setup(config, cacheManager, cacheRoot).getLeft();
+
+        setupUpdateCenterMocks(updateCenterData, cacheManager, cacheRoot);
+
+        PluginService service = getService(config, cacheManager);
+        assertEquals("valid-url", service.findRepoName(Plugin.build("valid-plugin").withConfig(config)));
+        for (String name : List.of("not-present", "invalid-plugin", "invalid-plugin-2", "no-scm-plugin")) {
+            Plugin plugin = Plugin.build(name).withConfig(config);
+            assertNull(service.findRepoName(plugin));
+            assertFalse(plugin.hasErrors());
+        }
+    }
+
     @Test
     public void shouldDownloadPluginVersionDataPluginHealthScore() throws Exception {
 
@@ -331,6 +507,9 @@ class PluginServiceTest {
         updateCenterPlugins.put(
                 "invalid-plugin-2",
                 new UpdateCenterData.UpdateCenterPlugin("invalid-plugin-2", "1.0", "/", "main", "gav", null));
+        updateCenterPlugins.put(
+                "no-scm-plugin",
+                new UpdateCenterData.UpdateCenterPlugin("no-scm-plugin", "1.0", null, "main", "gav", null));
 
         // Add health plugin
         Map<String, HealthScoreData.HealthScorePlugin> healthPlugins = new HashMap<>();
@@ -1,6 +1,7 @@
 package io.jenkins.tools.pluginmodernizer.core.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doReturn;
@@ -9,7 +10,10 @@ import static org.mockito.Mockito.mock;
 import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
 import io.jenkins.tools.pluginmodernizer.core.model.JDK;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
+import io.jenkins.tools.pluginmodernizer.core.model.PluginWarning;
 import io.jenkins.tools.pluginmodernizer.core.model.Recipe;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
@@ -135,6 +139,30 @@ public class TemplateUtilsTest {
         assertTrue(result.contains("Why is this important?"), "Missing 'Why is this important?' section");
     }
 
+    @Test
+    public void testPrBodyWithWarnings() {
+
+        // Mocks
+        Plugin plugin = mock(Plugin.class);
+        Recipe recipe = mock(Recipe.class);
+
+        doReturn("example").when(plugin).getName();
+        doReturn(true).when(plugin).hasWarnings();
+        PluginWarning warning = new PluginWarning(
+                "Failed to verify with JDK 17. Build failed in module example", Path.of("maven-1.log.gz"));
+        doReturn(List.of(warning)).when(plugin).getWarnings();
+        doReturn("io.jenkins.tools.pluginmodernizer.FakeRecipe").when(recipe).getName();
+
+        // Test
+        String result = TemplateUtils.renderPullRequestBody(plugin, recipe);
+
+        // Assert
+        assertTrue(result.contains("## Warnings"), "Missing warnings section");
+        assertTrue(
+                result.contains("- Failed to verify with JDK 17. Build failed in module example"), "Missing warning");
+        assertFalse(result.contains("maven-1.log.gz"), "Local log file must not be published");
+    }
+
     @Test
     public void testFriendlyPrTitleUpgradeParentVersion() {
 
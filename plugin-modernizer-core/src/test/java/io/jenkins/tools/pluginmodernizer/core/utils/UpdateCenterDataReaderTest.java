@@ -0,0 +1,90 @@
+package io.jenkins.tools.pluginmodernizer.core.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import io.jenkins.tools.pluginmodernizer.core.model.UpdateCenterData;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.Mockito;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class UpdateCenterDataReaderTest {
+
+    private static final String UPDATE_CENTER =
+            """
+            {
+              "connectionCheckUrl": "https://www.google.com/",
+              "core": {"name": "core", "version": "2.500"},
+              "deprecations": {
+                "old-plugin": {"url": "https://plugins.jenkins.io/old-plugin"}
+              },
+              "plugins": {
+                "a-plugin": {
+                  "buildDate": "Jan 01, 2025",
+                  "defaultBranch": "main",
+                  "dependencies": [{"name": "b-plugin", "optional": false, "version": "1.0"}],
+                  "developers": [{"developerId": "someone"}],
+                  "gav": "io.jenkins.plugins:a-plugin:1.2",
+                  "labels": ["misc", "adopt-this-plugin"],
+                  "name": "a-plugin",
+                  "scm": "https://github.com/jenkinsci/a-plugin",
+                  "version": "1.2"
+                },
+                "b-plugin": {
+                  "gav": "io.jenkins.plugins:b-plugin:1.0",
+                  "labels": ["misc"],
+                  "name": "b-plugin",
+                  "scm": null,
+                  "version": "1.0"
+                }
+              },
+              "signature": {"certificates": ["abc"]},
+              "warnings": [{"id": "SECURITY-1", "name": "a-plugin"}]
+            }
+            """;
+
+    @Test
+    public void shouldReadOnlyNeededFields() {
+        UpdateCenterData data =
+                UpdateCenterDataReader.read(new StringReader(UPDATE_CENTER), Mockito.mock(CacheManager.class));
+
+        assertEquals(2, data.getPlugins().size());
+        UpdateCenterData.UpdateCenterPlugin plugin = data.getPlugins().get("a-plugin");
+        assertEquals(
+                new UpdateCenterData.UpdateCenterPlugin(
+                        "a-plugin",
+                        "1.2",
+                        "https://github.com/jenkinsci/a-plugin",
+                        "main",
+                        "io.jenkins.plugins:a-plugin:1.2",
+                        List.of("misc", "adopt-this-plugin")),
+                plugin);
+        UpdateCenterData.UpdateCenterPlugin other = data.getPlugins().get("b-plugin");
+        assertNull(other.scm());
+        assertNull(other.defaultBranch());
+
+        // Labels are shared between plugins
+        assertSame(plugin.labels().get(0), other.labels().get(0));
+
+        assertEquals(1, data.getDeprecations().size());
+        assertEquals(
+                "https://plugins.jenkins.io/old-plugin",
+                data.getDeprecations().get("old-plugin").url());
+    }
+
+    @Test
+    public void shouldFailOnInvalidJson() {
+        assertThrows(
+                ModernizerException.class,
+                () -> UpdateCenterDataReader.read(
+                        new StringReader("{\"plugins\": ["), Mockito.mock(CacheManager.class)));
+    }
+}